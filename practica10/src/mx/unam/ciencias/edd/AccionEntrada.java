@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre las entradas de un diccionario.
+ */
+@FunctionalInterface
+public interface AccionEntrada<K, V> {
+
+    /**
+     * Realiza una acción sobre una entrada de un diccionario.
+     * @param llave la llave de la entrada.
+     * @param valor el valor de la entrada.
+     */
+    public void actua(K llave, V valor);
+}
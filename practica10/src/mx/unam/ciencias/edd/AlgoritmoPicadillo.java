@@ -9,5 +9,16 @@ public enum AlgoritmoPicadillo {
     /** Algoritmo de GLib para cadenas. */
     GLIB_STRING,
     /** Algoritmo de XOR para cadenas. */
-    XOR_STRING;
+    XOR_STRING,
+    /** Algoritmo MurmurHash3 (x86, 32 bits) para cadenas. */
+    MURMUR3_STRING,
+    /** Algoritmo xxHash de 32 bits para cadenas. */
+    XXHASH32_STRING,
+    /** Algoritmo xxHash de 64 bits para cadenas, doblado a 32 bits. */
+    XXHASH64_STRING,
+    /** Mezclador al estilo de wyhash para cadenas, doblado a 32 bits. */
+    WYHASH_STRING,
+    /** Función pseudoaleatoria con llave SipHash-2-4 para cadenas, doblada a
+     *  32 bits. */
+    SIPHASH_STRING;
 }
@@ -0,0 +1,198 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para anillos de picadillo consistente, que reparten llaves entre
+ * miembros (por ejemplo, los hilos o procesos que tienen cada parte de un
+ * {@link Diccionario}). Repartir con <code>picadillo(llave) &amp;
+ * mascara</code> cambia el miembro de casi todas las llaves cuando cambia el
+ * número de miembros; con el anillo, agregar o quitar un miembro sólo mueve
+ * alrededor de 1/<em>N</em> de las llaves.</p>
+ *
+ * <p>Cada miembro se pone en varios puntos del anillo de enteros de 32 bits
+ * (sus nodos virtuales), tantos como su peso por el número de nodos
+ * virtuales del anillo. A una llave le toca el miembro del primer punto
+ * mayor o igual a su {@link Picadillo} revuelto, dando la vuelta al anillo
+ * si no hay; los puntos se guardan en un {@link DiccionarioOrdenado}, así que
+ * encontrarlo toma tiempo <i>O</i>(log <i>n</i>). Con más nodos virtuales
+ * las llaves se reparten de forma más pareja.</p>
+ *
+ * <p>Los puntos de cada miembro sólo dependen de su nombre, así que dos
+ * anillos con los mismos miembros reparten igual las llaves, aunque los
+ * miembros se hayan agregado en otro orden. Si dos nodos virtuales caen en el
+ * mismo punto, el punto es del miembro con el nombre menor.</p>
+ */
+public class AnilloConsistente<K> {
+
+    /** Número predeterminado de nodos virtuales por unidad de peso. */
+    public static final int NODOS_VIRTUALES = 160;
+
+    /* Los puntos del anillo y su miembro. */
+    private DiccionarioOrdenado<Integer, String> puntos;
+    /* Los miembros y su peso. */
+    private Diccionario<String, Integer> pesos;
+    /* Nodos virtuales por unidad de peso. */
+    private int nodosVirtuales;
+    /* El picadillo. */
+    private Picadillo<K> picadillo;
+
+    /**
+     * Construye un anillo vacío con el número predeterminado de nodos
+     * virtuales y un picadillo predeterminado.
+     */
+    public AnilloConsistente() {
+        this(NODOS_VIRTUALES, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un anillo vacío con el número predeterminado de nodos
+     * virtuales y el picadillo recibido.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si el picadillo es <code>null</code>.
+     */
+    public AnilloConsistente(Picadillo<K> picadillo) {
+        this(NODOS_VIRTUALES, picadillo);
+    }
+
+    /**
+     * Construye un anillo vacío con el número de nodos virtuales y el
+     * picadillo recibidos.
+     * @param nodosVirtuales el número de nodos virtuales por unidad de peso.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si el número de nodos virtuales es
+     *         menor a uno, o el picadillo es <code>null</code>.
+     */
+    public AnilloConsistente(int nodosVirtuales, Picadillo<K> picadillo) {
+        if (nodosVirtuales < 1 || picadillo == null)
+            throw new IllegalArgumentException();
+        this.nodosVirtuales = nodosVirtuales;
+        this.picadillo = picadillo;
+        puntos = new DiccionarioOrdenado<Integer, String>();
+        pesos = new Diccionario<String, Integer>();
+    }
+
+    /* Regresa el punto del picadillo en el anillo: la mitad alta del
+     * picadillo revuelto. */
+    private static int punto(int picadillo) {
+        return (int)(FabricaPicadillos.revuelve(picadillo) >>> 32);
+    }
+
+    /* Regresa el punto del i-ésimo nodo virtual del miembro. */
+    private static int punto(String miembro, int i) {
+        return punto(FabricaPicadillos.picadillo(
+                         AlgoritmoPicadillo.MURMUR3_STRING, miembro + "#" + i));
+    }
+
+    /**
+     * Agrega un miembro con peso uno al anillo.
+     * @param miembro el nombre del miembro.
+     * @throws IllegalArgumentException si el miembro es <code>null</code> o
+     *         ya está en el anillo.
+     */
+    public void agrega(String miembro) {
+        agrega(miembro, 1);
+    }
+
+    /**
+     * Agrega un miembro con el peso recibido al anillo. A un miembro con peso
+     * <em>p</em> le tocan alrededor de <em>p</em> veces las llaves que a uno
+     * con peso uno.
+     * @param miembro el nombre del miembro.
+     * @param peso el peso del miembro.
+     * @throws IllegalArgumentException si el miembro es <code>null</code> o
+     *         ya está en el anillo, o si el peso es menor a uno.
+     */
+    public void agrega(String miembro, int peso) {
+        if (miembro == null || peso < 1 || pesos.contiene(miembro))
+            throw new IllegalArgumentException();
+        pesos.agrega(miembro, peso);
+        for (int i = 0; i < peso * nodosVirtuales; ++i) {
+            int p = punto(miembro, i);
+            if (!puntos.contiene(p) || miembro.compareTo(puntos.get(p)) < 0)
+                puntos.agrega(p, miembro);
+        }
+    }
+
+    /**
+     * Elimina un miembro del anillo. Sus llaves se reparten entre los
+     * miembros que quedan; las de los demás miembros no cambian.
+     * @param miembro el nombre del miembro.
+     * @throws NoSuchElementException si el miembro no está en el anillo.
+     */
+    public void elimina(String miembro) {
+        if (miembro == null || !pesos.contiene(miembro))
+            throw new NoSuchElementException();
+        int peso = pesos.get(miembro);
+        pesos.elimina(miembro);
+        Lista<Integer> libres = new Lista<Integer>();
+        for (int i = 0; i < peso * nodosVirtuales; ++i) {
+            int p = punto(miembro, i);
+            if (puntos.contiene(p) && puntos.get(p).equals(miembro)) {
+                puntos.elimina(p);
+                libres.agrega(p);
+            }
+        }
+        /* Casi nunca hay puntos compartidos; si los hay, se los devolvemos a
+         * los otros miembros que los tenían. */
+        if (!libres.esVacio())
+            for (String otro : pesos.llaves())
+                for (int i = 0; i < pesos.get(otro) * nodosVirtuales; ++i) {
+                    int p = punto(otro, i);
+                    if (libres.contiene(p) && (!puntos.contiene(p) ||
+                                               otro.compareTo(puntos.get(p)) < 0))
+                        puntos.agrega(p, otro);
+                }
+    }
+
+    /**
+     * Regresa el miembro al que le toca la llave.
+     * @param llave la llave.
+     * @return el miembro al que le toca la llave.
+     * @throws NoSuchElementException si el anillo no tiene miembros.
+     */
+    public String get(K llave) {
+        if (puntos.esVacio())
+            throw new NoSuchElementException();
+        String miembro = puntos.getTecho(punto(picadillo.picadillo(llave)));
+        return miembro != null ? miembro : puntos.getMinimo();
+    }
+
+    /**
+     * Nos dice si un miembro está en el anillo.
+     * @param miembro el nombre del miembro.
+     * @return <code>true</code> si el miembro está en el anillo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(String miembro) {
+        return miembro != null && pesos.contiene(miembro);
+    }
+
+    /**
+     * Regresa el peso de un miembro.
+     * @param miembro el nombre del miembro.
+     * @return el peso del miembro.
+     * @throws NoSuchElementException si el miembro no está en el anillo.
+     */
+    public int getPeso(String miembro) {
+        if (miembro == null)
+            throw new NoSuchElementException();
+        return pesos.get(miembro);
+    }
+
+    /**
+     * Regresa el número de miembros del anillo.
+     * @return el número de miembros del anillo.
+     */
+    public int getMiembros() {
+        return pesos.getElementos();
+    }
+
+    /**
+     * Regresa el número de puntos ocupados en el anillo.
+     * @return el número de puntos ocupados en el anillo.
+     */
+    public int getPuntos() {
+        return puntos.getElementos();
+    }
+}
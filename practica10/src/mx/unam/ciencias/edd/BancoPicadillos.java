@@ -0,0 +1,219 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.NumberFormat;
+import java.util.Random;
+
+/**
+ * <p>Banco de pruebas para los picadillos de {@link FabricaPicadillos}.</p>
+ *
+ * <p>Para cada algoritmo y cada conjunto de llaves (identificadores cortos,
+ * URLs, números consecutivos y líneas de texto) imprime los nanosegundos por
+ * picadillo, los bytes creados por picadillo, el sesgo de avalancha (qué tan
+ * lejos de 1/2 está la probabilidad de que cambie cada bit de salida al
+ * cambiar un bit de entrada), y las colisiones, colisión máxima y carga de
+ * un {@link Diccionario} con varias cantidades de llaves.</p>
+ */
+public class BancoPicadillos {
+
+    /* Veces que se picadillan todas las llaves al medir el tiempo. */
+    private static final int REPETICIONES = 5;
+    /* Llaves usadas para medir la avalancha. Con M muestras, aun un
+     * picadillo ideal muestra un sesgo máximo cercano a 4/raíz(M). */
+    private static final int MUESTRAS_AVALANCHA = 1000;
+
+    /* Aquí se guardan los picadillos medidos, para que el compilador no
+     * elimine su cálculo. */
+    public static volatile int sumidero;
+
+    /* Palabras para las líneas de texto y las URLs. */
+    private static final String[] PALABRAS = {
+        "el", "la", "de", "que", "y", "en", "un", "ser", "se", "no", "haber",
+        "por", "con", "su", "para", "como", "estar", "tener", "le", "lo",
+        "todo", "pero", "más", "hacer", "o", "poder", "decir", "este", "ir",
+        "otro", "ese", "si", "me", "ya", "ver", "porque", "dar", "cuando",
+        "muy", "sin", "vez", "mucho", "saber", "qué", "sobre", "mi", "alguno",
+        "mismo", "yo", "también", "hasta", "año", "dos", "querer", "entre"
+    };
+
+    /* Imprime el uso del programa y lo termina. */
+    private static void uso() {
+        System.err.println("Uso: java -cp practica10.jar " +
+                           "mx.unam.ciencias.edd.BancoPicadillos [N]");
+        System.exit(1);
+    }
+
+    /* Identificadores cortos alfanuméricos. */
+    private static String[] identificadores(Random random, int n) {
+        String alfabeto = "abcdefghijklmnopqrstuvwxyz0123456789";
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            int l = 6 + random.nextInt(7);
+            for (int j = 0; j < l; j++)
+                sb.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+            llaves[i] = sb.toString();
+        }
+        return llaves;
+    }
+
+    /* URLs con prefijos largos compartidos. */
+    private static String[] urls(Random random, int n) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = String.format("https://www.ejemplo.com.mx/%s/%s/%d?id=%d",
+                                      PALABRAS[random.nextInt(PALABRAS.length)],
+                                      PALABRAS[random.nextInt(PALABRAS.length)],
+                                      random.nextInt(1000), i);
+        return llaves;
+    }
+
+    /* Números consecutivos. */
+    private static String[] consecutivos(int n) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++)
+            llaves[i] = String.valueOf(i);
+        return llaves;
+    }
+
+    /* Líneas de texto en lenguaje natural. */
+    private static String[] lineas(Random random, int n) {
+        String[] llaves = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            int l = 5 + random.nextInt(15);
+            for (int j = 0; j < l; j++) {
+                if (j > 0)
+                    sb.append(' ');
+                sb.append(PALABRAS[random.nextInt(PALABRAS.length)]);
+            }
+            sb.append(" ").append(i).append('.');
+            llaves[i] = sb.toString();
+        }
+        return llaves;
+    }
+
+    /* Bytes creados hasta ahora por el hilo actual, o -1 si la máquina
+     * virtual no lo reporta. */
+    private static long bytesCreados() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean h =
+                (com.sun.management.ThreadMXBean)hilos;
+            if (h.isThreadAllocatedMemorySupported())
+                return h.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /* Máximo sesgo de avalancha: para cada bit de entrada y de salida, qué
+     * tan lejos de 1/2 está la probabilidad de que el de salida cambie al
+     * cambiar el de entrada, multiplicado por 2 (0 es ideal, 1 es lo
+     * peor). */
+    private static double avalancha(Picadillo<byte[]> picadillo,
+                                    String[] llaves) {
+        double maximo = 0;
+        int muestras = Math.min(MUESTRAS_AVALANCHA, llaves.length);
+        int bits = 0;
+        for (int m = 0; m < muestras; m++)
+            bits = Math.max(bits, llaves[m].getBytes().length * 8);
+        for (int b = 0; b < bits; b++) {
+            int[] cambios = new int[32];
+            int pruebas = 0;
+            for (int m = 0; m < muestras; m++) {
+                byte[] k = llaves[m].getBytes();
+                if (b >= k.length * 8)
+                    continue;
+                int h = picadillo.picadillo(k);
+                k[b >> 3] ^= 1 << (b & 7);
+                int d = h ^ picadillo.picadillo(k);
+                for (int s = 0; s < 32; s++)
+                    cambios[s] += (d >>> s) & 1;
+                pruebas++;
+            }
+            if (pruebas < muestras / 2)
+                continue;
+            for (int s = 0; s < 32; s++) {
+                double sesgo = Math.abs(2.0 * cambios[s] / pruebas - 1.0);
+                maximo = Math.max(maximo, sesgo);
+            }
+        }
+        return maximo;
+    }
+
+    /* Mide y reporta un algoritmo con un conjunto de llaves. */
+    private static void mide(AlgoritmoPicadillo algoritmo, String nombre,
+                             String[] llaves, NumberFormat nf) {
+        Picadillo<String> picadillo = FabricaPicadillos.getInstancia(algoritmo);
+        int suma = 0;
+        /* Calentamos para que el compilador en tiempo de ejecución haga su
+         * trabajo antes de medir. */
+        for (int r = 0; r < REPETICIONES; r++)
+            for (String llave : llaves)
+                suma += picadillo.picadillo(llave);
+
+        long bytes = bytesCreados();
+        long tiempoInicial = System.nanoTime();
+        for (int r = 0; r < REPETICIONES; r++)
+            for (String llave : llaves)
+                suma += picadillo.picadillo(llave);
+        long tiempoTotal = System.nanoTime() - tiempoInicial;
+        long creados = bytesCreados() - bytes;
+        sumidero = suma;
+        long picadillos = (long)REPETICIONES * llaves.length;
+
+        double sesgo =
+            avalancha(FabricaPicadillos.getInstanciaBytes(algoritmo), llaves);
+
+        System.out.printf("%-16s %-13s %8.2f ns %10s B %8.4f\n",
+                          algoritmo, nombre,
+                          (double)tiempoTotal / picadillos,
+                          bytes < 0 ? "?" :
+                          String.format("%.2f", (double)creados / picadillos),
+                          sesgo);
+
+        for (int n = 1000; n <= llaves.length; n *= 10) {
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(n, picadillo);
+            for (int i = 0; i < n; i++)
+                d.agrega(llaves[i], llaves[i]);
+            System.out.printf("    %12s llaves: %10s colisiones, " +
+                              "máxima %3d, carga %.3f\n",
+                              nf.format(n), nf.format(d.colisiones()),
+                              d.colisionMaxima(), d.carga());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 1)
+            uso();
+
+        int N = 100000;
+        if (args.length == 1) {
+            try {
+                N = Integer.parseInt(args[0]);
+            } catch (NumberFormatException nfe) {
+                uso();
+            }
+        }
+        if (N < 1)
+            uso();
+
+        Random random = new Random(N);
+        NumberFormat nf = NumberFormat.getIntegerInstance();
+        String[] nombres = {
+            "ids cortos", "urls", "consecutivos", "líneas"
+        };
+        String[][] conjuntos = {
+            identificadores(random, N), urls(random, N),
+            consecutivos(N), lineas(random, N)
+        };
+
+        System.out.printf("%-16s %-13s %11s %12s %8s\n",
+                          "Algoritmo", "Llaves", "Tiempo", "Memoria", "Sesgo");
+        for (int c = 0; c < conjuntos.length; c++)
+            for (AlgoritmoPicadillo algoritmo : AlgoritmoPicadillo.values())
+                mide(algoritmo, nombres[c], conjuntos[c], nf);
+    }
+}
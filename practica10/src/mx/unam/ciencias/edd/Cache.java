@@ -0,0 +1,600 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para cachés de tamaño acotado. Cada entrada tiene un peso, y
+ * cuando la suma de los pesos excede el peso máximo el caché desaloja
+ * entradas según su {@link PoliticaCache}.</p>
+ *
+ * <p>Las entradas son nodos de un {@link Diccionario}, y además están
+ * encadenadas en listas intrusivas (los nodos mismos tienen las ligas
+ * anterior y siguiente), así que {@link #get}, {@link #agrega}, {@link
+ * #elimina} y cada desalojo toman tiempo <em>O</em>(1), a diferencia de
+ * mover una llave en una {@link Lista}, que requiere buscarla.</p>
+ *
+ * <ul>
+ *   <li>Con {@link PoliticaCache#LRU} hay una sola lista, ordenada de la
+ *       entrada usada más recientemente a la usada hace más tiempo.</li>
+ *   <li>Con {@link PoliticaCache#LFU} hay una lista por cada frecuencia de
+ *       uso, y las listas están a su vez en una lista ordenada por
+ *       frecuencia.</li>
+ *   <li>Con {@link PoliticaCache#W_TINY_LFU} las entradas nuevas entran a
+ *       una ventana LRU con el 1% del peso. Al salir de la ventana una
+ *       entrada compite con la que desalojaría la región principal (una LRU
+ *       segmentada, con 80% protegido), y gana la que un sketch como el de
+ *       {@link CountMinSketch} estima más frecuente. El sketch tiene cuatro
+ *       renglones de contadores de 4 bits que se saturan en 15 (medio byte
+ *       por renglón y entrada que cabe), cuenta todos los accesos, incluso
+ *       los fallos, y se envejece cada diez veces el número de entradas que
+ *       caben.</li>
+ * </ul>
+ *
+ * <p>El caché no acepta llaves ni valores nulos; {@link #get} regresa
+ * <code>null</code> cuando la llave no está.</p>
+ */
+public class Cache<K, V> {
+
+    /* Regiones de W-TinyLFU. */
+    private static final int VENTANA = 0;
+    private static final int PRUEBA = 1;
+    private static final int PROTEGIDA = 2;
+
+    /* Clase para las entradas del caché. */
+    private class Nodo {
+
+        /* La llave. */
+        public K llave;
+        /* El valor. */
+        public V valor;
+        /* El peso. */
+        public long peso;
+        /* La región de W-TinyLFU. */
+        public int region;
+        /* La cubeta de frecuencia de LFU. */
+        public Cubeta cubeta;
+        /* El nodo anterior en su lista. */
+        public Nodo anterior;
+        /* El nodo siguiente en su lista. */
+        public Nodo siguiente;
+
+        /* Construye un nuevo nodo. */
+        public Nodo(K llave, V valor, long peso) {
+            this.llave = llave;
+            this.valor = valor;
+            this.peso = peso;
+        }
+    }
+
+    /* Clase para listas intrusivas de nodos. La cabeza es el nodo usado más
+     * recientemente. */
+    private class ListaNodos {
+
+        /* La cabeza de la lista. */
+        public Nodo cabeza;
+        /* El rabo de la lista. */
+        public Nodo rabo;
+        /* La suma de los pesos de los nodos. */
+        public long peso;
+
+        /* Agrega el nodo al inicio de la lista. */
+        public void agregaInicio(Nodo n) {
+            n.anterior = null;
+            n.siguiente = cabeza;
+            if (cabeza == null)
+                rabo = n;
+            else
+                cabeza.anterior = n;
+            cabeza = n;
+            peso += n.peso;
+        }
+
+        /* Quita el nodo de la lista. */
+        public void quita(Nodo n) {
+            if (n.anterior == null)
+                cabeza = n.siguiente;
+            else
+                n.anterior.siguiente = n.siguiente;
+            if (n.siguiente == null)
+                rabo = n.anterior;
+            else
+                n.siguiente.anterior = n.anterior;
+            n.anterior = n.siguiente = null;
+            peso -= n.peso;
+        }
+
+        /* Mueve el nodo al inicio de la lista. */
+        public void sube(Nodo n) {
+            if (n != cabeza) {
+                quita(n);
+                agregaInicio(n);
+            }
+        }
+    }
+
+    /* Clase para las cubetas de LFU: los nodos con la misma frecuencia. */
+    private class Cubeta {
+
+        /* La frecuencia de los nodos. */
+        public long frecuencia;
+        /* Los nodos. */
+        public ListaNodos nodos;
+        /* La cubeta con la frecuencia anterior. */
+        public Cubeta anterior;
+        /* La cubeta con la frecuencia siguiente. */
+        public Cubeta siguiente;
+
+        /* Construye una cubeta vacía. */
+        public Cubeta(long frecuencia) {
+            this.frecuencia = frecuencia;
+            nodos = new ListaNodos();
+        }
+    }
+
+    /* Clase para las frecuencias de W-TinyLFU: un Count-Min sketch de
+     * cuatro renglones con contadores de 4 bits, dieciséis por long. Los
+     * contadores se saturan en 15; como se envejecen seguido, eso basta
+     * para comparar una llave contra otra. */
+    private class Frecuencias {
+
+        /* Los contadores, renglón por renglón. */
+        private long[] contadores;
+        /* Número de columnas; es potencia de 2. */
+        private int w;
+        /* El picadillo. */
+        private Picadillo<K> picadillo;
+
+        /* Construye un sketch con al menos las columnas recibidas. */
+        public Frecuencias(long columnas, Picadillo<K> picadillo) {
+            w = 16;
+            while (w < columnas)
+                w <<= 1;
+            contadores = new long[w / 4];
+            this.picadillo = picadillo;
+        }
+
+        /* Cuenta una aparición de la llave, sin pasar de 15. */
+        public void agrega(K llave) {
+            long h = FabricaPicadillos.revuelve(picadillo.picadillo(llave));
+            int h1 = (int)h;
+            int h2 = (int)(h >>> 32) | 1;
+            for (int i = 0; i < 4; ++i) {
+                int c = i * w + (h1 & (w - 1));
+                int corrimiento = (c & 15) << 2;
+                if (((contadores[c >>> 4] >>> corrimiento) & 0xf) != 0xf)
+                    contadores[c >>> 4] += 1L << corrimiento;
+                h1 += h2;
+            }
+        }
+
+        /* Estima la frecuencia de la llave: el mínimo de sus contadores. */
+        public int frecuencia(K llave) {
+            long h = FabricaPicadillos.revuelve(picadillo.picadillo(llave));
+            int h1 = (int)h;
+            int h2 = (int)(h >>> 32) | 1;
+            int minimo = 0xf;
+            for (int i = 0; i < 4; ++i) {
+                int c = i * w + (h1 & (w - 1));
+                minimo = Math.min(minimo, (int)(contadores[c >>> 4] >>>
+                                                ((c & 15) << 2)) & 0xf);
+                h1 += h2;
+            }
+            return minimo;
+        }
+
+        /* Divide entre dos todos los contadores; la máscara quita el bit
+         * que cada contador recibe del siguiente. */
+        public void envejece() {
+            for (int i = 0; i < contadores.length; ++i)
+                contadores[i] = (contadores[i] >>> 1) & 0x7777777777777777L;
+        }
+    }
+
+    /* Las entradas. */
+    private Diccionario<K, Nodo> entradas;
+    /* La política. */
+    private PoliticaCache politica;
+    /* El peso máximo. */
+    private long pesoMaximo;
+    /* El peso actual. */
+    private long peso;
+    /* La lista de LRU, o la ventana de W-TinyLFU. */
+    private ListaNodos ventana;
+    /* La región de prueba de W-TinyLFU. */
+    private ListaNodos prueba;
+    /* La región protegida de W-TinyLFU. */
+    private ListaNodos protegida;
+    /* Peso máximo de la ventana de W-TinyLFU. */
+    private long maximoVentana;
+    /* Peso máximo de la región principal de W-TinyLFU. */
+    private long maximoPrincipal;
+    /* Peso máximo de la región protegida de W-TinyLFU. */
+    private long maximoProtegida;
+    /* Las frecuencias estimadas de W-TinyLFU. */
+    private Frecuencias frecuencias;
+    /* Accesos restantes para envejecer las frecuencias. */
+    private long restantes;
+    /* Accesos entre cada envejecimiento. */
+    private long periodo;
+    /* La cubeta de LFU con la menor frecuencia. */
+    private Cubeta primera;
+    /* Número de aciertos. */
+    private long aciertos;
+    /* Número de fallos. */
+    private long fallos;
+    /* Número de desalojos. */
+    private long desalojos;
+
+    /**
+     * Construye un caché LRU con el peso máximo recibido.
+     * @param pesoMaximo el peso máximo del caché.
+     * @throws IllegalArgumentException si el peso máximo es menor a uno.
+     */
+    public Cache(long pesoMaximo) {
+        this(pesoMaximo, PoliticaCache.LRU);
+    }
+
+    /**
+     * Construye un caché con el peso máximo y la política recibidos, y un
+     * picadillo predeterminado.
+     * @param pesoMaximo el peso máximo del caché.
+     * @param politica la política de desalojo.
+     * @throws IllegalArgumentException si el peso máximo es menor a uno, o la
+     *         política es <code>null</code>.
+     */
+    public Cache(long pesoMaximo, PoliticaCache politica) {
+        this(pesoMaximo, politica, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un caché con el peso máximo, la política y el picadillo
+     * recibidos.
+     * @param pesoMaximo el peso máximo del caché.
+     * @param politica la política de desalojo.
+     * @param picadillo el picadillo para las llaves.
+     * @throws IllegalArgumentException si el peso máximo es menor a uno, o la
+     *         política o el picadillo son <code>null</code>.
+     */
+    public Cache(long pesoMaximo, PoliticaCache politica,
+                 Picadillo<K> picadillo) {
+        if (pesoMaximo < 1 || politica == null || picadillo == null)
+            throw new IllegalArgumentException();
+        this.pesoMaximo = pesoMaximo;
+        this.politica = politica;
+        entradas = new Diccionario<K, Nodo>(picadillo);
+        ventana = new ListaNodos();
+        if (politica != PoliticaCache.W_TINY_LFU)
+            return;
+        prueba = new ListaNodos();
+        protegida = new ListaNodos();
+        maximoVentana = Math.max(1, pesoMaximo / 100);
+        maximoPrincipal = pesoMaximo - maximoVentana;
+        maximoProtegida = maximoPrincipal * 8 / 10;
+        /* Una columna por entrada que cabe (contando entradas de peso uno). */
+        long columnas = Math.max(64, Math.min(pesoMaximo, 1 << 20));
+        frecuencias = new Frecuencias(columnas, picadillo);
+        periodo = restantes = 10 * columnas;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave, y lo marca como usado.
+     * @param llave la llave del valor.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en el caché.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            return null;
+        if (politica == PoliticaCache.W_TINY_LFU)
+            cuenta(llave);
+        Nodo n = busca(llave);
+        if (n == null) {
+            ++fallos;
+            return null;
+        }
+        ++aciertos;
+        usa(n);
+        return n.valor;
+    }
+
+    /* Regresa el nodo de la llave, o null si no está. */
+    private Nodo busca(K llave) {
+        return entradas.busca(llave);
+    }
+
+    /**
+     * Agrega un valor con peso uno al caché, o reemplaza el valor asociado a
+     * la llave si ya estaba.
+     * @param llave la llave del valor.
+     * @param valor el valor.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>.
+     */
+    public void agrega(K llave, V valor) {
+        agrega(llave, valor, 1);
+    }
+
+    /**
+     * Agrega un valor con el peso recibido al caché, o reemplaza el valor y
+     * el peso asociados a la llave si ya estaba. Después desaloja entradas
+     * hasta que el peso no exceda el máximo; una entrada más pesada que el
+     * máximo se desaloja de inmediato.
+     * @param llave la llave del valor.
+     * @param valor el valor.
+     * @param peso el peso de la entrada.
+     * @throws IllegalArgumentException si la llave o el valor son
+     *         <code>null</code>, o si el peso es negativo.
+     */
+    public void agrega(K llave, V valor, long peso) {
+        if (llave == null || valor == null || peso < 0)
+            throw new IllegalArgumentException();
+        if (politica == PoliticaCache.W_TINY_LFU)
+            cuenta(llave);
+        Nodo n = busca(llave);
+        if (peso > pesoMaximo) {
+            /* No cabe aunque desalojemos todo lo demás. */
+            if (n != null)
+                elimina(n, true);
+            ++desalojos;
+            return;
+        }
+        if (n != null) {
+            n.valor = valor;
+            ListaNodos lista = lista(n);
+            lista.peso += peso - n.peso;
+            this.peso += peso - n.peso;
+            n.peso = peso;
+            usa(n);
+        } else {
+            /* En LFU desalojamos antes de agregar; si no, la entrada nueva
+             * sería la única con frecuencia uno y se desalojaría a sí
+             * misma. */
+            if (politica == PoliticaCache.LFU)
+                while (primera != null && this.peso + peso > pesoMaximo)
+                    desaloja(primera.nodos.rabo);
+            n = new Nodo(llave, valor, peso);
+            entradas.agrega(llave, n);
+            this.peso += peso;
+            if (politica == PoliticaCache.LFU) {
+                if (primera == null || primera.frecuencia != 1)
+                    primera = nuevaCubeta(1, null, primera);
+                n.cubeta = primera;
+                primera.nodos.agregaInicio(n);
+            } else {
+                n.region = VENTANA;
+                ventana.agregaInicio(n);
+            }
+        }
+        ajusta();
+    }
+
+    /* Regresa la lista en la que está el nodo. */
+    private ListaNodos lista(Nodo n) {
+        if (politica == PoliticaCache.LFU)
+            return n.cubeta.nodos;
+        switch (n.region) {
+            case PRUEBA: return prueba;
+            case PROTEGIDA: return protegida;
+            default: return ventana;
+        }
+    }
+
+    /* Marca el nodo como usado. */
+    private void usa(Nodo n) {
+        switch (politica) {
+            case LFU:
+                incrementa(n);
+                break;
+            case W_TINY_LFU:
+                if (n.region == PRUEBA) {
+                    prueba.quita(n);
+                    n.region = PROTEGIDA;
+                    protegida.agregaInicio(n);
+                    /* Si la región protegida se llena, su último nodo
+                     * regresa a la región de prueba. */
+                    while (protegida.peso > maximoProtegida &&
+                           protegida.rabo != n) {
+                        Nodo m = protegida.rabo;
+                        protegida.quita(m);
+                        m.region = PRUEBA;
+                        prueba.agregaInicio(m);
+                    }
+                } else {
+                    lista(n).sube(n);
+                }
+                break;
+            default:
+                ventana.sube(n);
+        }
+    }
+
+    /* Cuenta un acceso a la llave en las frecuencias de W-TinyLFU, y las
+     * envejece cuando toca. */
+    private void cuenta(K llave) {
+        frecuencias.agrega(llave);
+        if (--restantes == 0) {
+            frecuencias.envejece();
+            restantes = periodo;
+        }
+    }
+
+    /* Crea una cubeta con la frecuencia entre las dos cubetas recibidas. */
+    private Cubeta nuevaCubeta(long frecuencia, Cubeta anterior,
+                               Cubeta siguiente) {
+        Cubeta c = new Cubeta(frecuencia);
+        c.anterior = anterior;
+        c.siguiente = siguiente;
+        if (anterior != null)
+            anterior.siguiente = c;
+        if (siguiente != null)
+            siguiente.anterior = c;
+        return c;
+    }
+
+    /* Quita la cubeta de la lista de cubetas si ya no tiene nodos. */
+    private void quitaSiVacia(Cubeta c) {
+        if (c.nodos.cabeza != null)
+            return;
+        if (c.anterior == null)
+            primera = c.siguiente;
+        else
+            c.anterior.siguiente = c.siguiente;
+        if (c.siguiente != null)
+            c.siguiente.anterior = c.anterior;
+    }
+
+    /* Mueve el nodo de LFU a la cubeta con la siguiente frecuencia. */
+    private void incrementa(Nodo n) {
+        Cubeta c = n.cubeta;
+        Cubeta s = c.siguiente;
+        if (s == null || s.frecuencia != c.frecuencia + 1)
+            s = nuevaCubeta(c.frecuencia + 1, c, s);
+        c.nodos.quita(n);
+        quitaSiVacia(c);
+        n.cubeta = s;
+        s.nodos.agregaInicio(n);
+    }
+
+    /* Desaloja entradas hasta que el peso no exceda el máximo. */
+    private void ajusta() {
+        switch (politica) {
+            case LFU:
+                while (peso > pesoMaximo)
+                    desaloja(primera.nodos.rabo);
+                break;
+            case W_TINY_LFU:
+                while (ventana.peso > maximoVentana) {
+                    Nodo candidato = ventana.rabo;
+                    ventana.quita(candidato);
+                    admite(candidato);
+                }
+                while (prueba.peso + protegida.peso > maximoPrincipal)
+                    desaloja(prueba.rabo != null ? prueba.rabo : protegida.rabo);
+                break;
+            default:
+                while (peso > pesoMaximo)
+                    desaloja(ventana.rabo);
+        }
+    }
+
+    /* Decide si el candidato que sale de la ventana entra a la región
+     * principal: mientras no quepa, compite con la víctima de la región
+     * principal, y la menos frecuente se desaloja. */
+    private void admite(Nodo candidato) {
+        int frecuencia = frecuencias.frecuencia(candidato.llave);
+        while (prueba.peso + protegida.peso + candidato.peso > maximoPrincipal) {
+            Nodo victima = prueba.rabo != null ? prueba.rabo : protegida.rabo;
+            if (victima == null ||
+                frecuencia <= frecuencias.frecuencia(victima.llave)) {
+                elimina(candidato, false);
+                ++desalojos;
+                return;
+            }
+            desaloja(victima);
+        }
+        candidato.region = PRUEBA;
+        prueba.agregaInicio(candidato);
+    }
+
+    /* Desaloja el nodo. */
+    private void desaloja(Nodo n) {
+        elimina(n, true);
+        ++desalojos;
+    }
+
+    /* Elimina el nodo del diccionario y, si se pide, de su lista. */
+    private void elimina(Nodo n, boolean deLista) {
+        entradas.elimina(n.llave);
+        peso -= n.peso;
+        if (!deLista)
+            return;
+        lista(n).quita(n);
+        if (politica == PoliticaCache.LFU)
+            quitaSiVacia(n.cubeta);
+    }
+
+    /**
+     * Nos dice si una llave está en el caché, sin marcarla como usada ni
+     * contar un acierto o un fallo.
+     * @param llave la llave que queremos saber si está en el caché.
+     * @return <code>true</code> si la llave está en el caché,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null && entradas.contiene(llave);
+    }
+
+    /**
+     * Elimina la entrada de la llave, si está.
+     * @param llave la llave de la entrada a eliminar.
+     */
+    public void elimina(K llave) {
+        Nodo n = llave == null ? null : busca(llave);
+        if (n != null)
+            elimina(n, true);
+    }
+
+    /**
+     * Elimina todas las entradas del caché. Los contadores se conservan.
+     */
+    public void limpia() {
+        for (K llave : entradas.llaves())
+            elimina(llave);
+    }
+
+    /**
+     * Regresa el número de entradas en el caché.
+     * @return el número de entradas en el caché.
+     */
+    public int getElementos() {
+        return entradas.getElementos();
+    }
+
+    /**
+     * Regresa la suma de los pesos de las entradas en el caché.
+     * @return la suma de los pesos de las entradas en el caché.
+     */
+    public long getPeso() {
+        return peso;
+    }
+
+    /**
+     * Regresa el peso máximo del caché.
+     * @return el peso máximo del caché.
+     */
+    public long getPesoMaximo() {
+        return pesoMaximo;
+    }
+
+    /**
+     * Regresa la política de desalojo del caché.
+     * @return la política de desalojo del caché.
+     */
+    public PoliticaCache getPolitica() {
+        return politica;
+    }
+
+    /**
+     * Regresa el número de llamadas a {@link #get} que encontraron la llave.
+     * @return el número de aciertos.
+     */
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * Regresa el número de llamadas a {@link #get} que no encontraron la
+     * llave.
+     * @return el número de fallos.
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Regresa el número de entradas desalojadas por exceder el peso máximo
+     * (sin contar las eliminadas con {@link #elimina}).
+     * @return el número de desalojos.
+     */
+    public long getDesalojos() {
+        return desalojos;
+    }
+}
@@ -1,14 +1,81 @@
 package mx.unam.ciencias.edd;
 
 import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Clase para conjuntos de elementos. Todos sus métodos tienen complejidad en
- * tiempo <em>O</em>(1) (amortizado), excepto por {@link union} y {@link
- * interseccion}, que son <em>O</em>(<em>n</em>).
+ * <p>Clase para conjuntos de elementos. Todos sus métodos tienen complejidad en
+ * tiempo <em>O</em>(1) (amortizado), excepto por las operaciones entre
+ * conjuntos, que son lineales.</p>
+ *
+ * <p>Las operaciones entre conjuntos toman en cuenta el tamaño de ambos: la
+ * intersección, por ejemplo, recorre el conjunto más chico y busca sus
+ * elementos en el más grande, así que toma tiempo
+ * <em>O</em>(min(<em>n</em>, <em>m</em>)). {@link #agregaTodos} y {@link
+ * #eliminaTodos} modifican el conjunto en lugar de crear uno nuevo; {@link
+ * #retenTodos} también, salvo cuando el conjunto recibido es más chico: en
+ * ese caso reemplaza su diccionario por uno nuevo con los elementos comunes,
+ * porque eliminar en su lugar los que sobran tomaría tiempo
+ * <em>O</em>(<em>n</em>) en vez de <em>O</em>(<em>m</em>).</p>
+ *
+ * <p>Las versiones paralelas de la intersección y las diferencias dividen el
+ * conjunto que recorren en rangos de picadillos (con {@link
+ * Diccionario#paraCada(AccionEntrada, int, int)}) y revisan cada rango en
+ * una tarea del {@link ForkJoinPool} común. Sólo convienen con conjuntos de
+ * muchos elementos; con menos de {@link #MIN_PARALELO} se hacen en un solo
+ * hilo. Ninguno de los dos conjuntos debe modificarse mientras tanto.</p>
  */
 public class Conjunto<T> implements Coleccion<T> {
 
+    /* Tarea para revisar en paralelo las partes de un conjunto, dejando en
+     * cada parte los elementos que están (o no están) en otro conjunto. */
+    private class Filtro extends RecursiveAction {
+
+        /* El otro conjunto. */
+        private Conjunto<T> otro;
+        /* Si dejamos los elementos que están en el otro conjunto. */
+        private boolean estan;
+        /* Los elementos que dejamos en cada parte. */
+        private Lista<T>[] partes;
+        /* La primera parte de la tarea. */
+        private int inicio;
+        /* La parte siguiente a la última de la tarea. */
+        private int fin;
+
+        /* Construye una tarea para las partes en [inicio, fin). */
+        public Filtro(Conjunto<T> otro, boolean estan, Lista<T>[] partes,
+                      int inicio, int fin) {
+            this.otro = otro;
+            this.estan = estan;
+            this.partes = partes;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        /* Revisa una parte, o divide la tarea en dos. */
+        @Override protected void compute() {
+            if (fin - inicio > 1) {
+                int mitad = (inicio + fin) >>> 1;
+                invokeAll(new Filtro(otro, estan, partes, inicio, mitad),
+                          new Filtro(otro, estan, partes, mitad, fin));
+                return;
+            }
+            Lista<T> lista = new Lista<T>();
+            conjunto.paraCada((T elemento, T valor) -> {
+                    if (otro.contiene(elemento) == estan)
+                        lista.agrega(elemento);
+                }, inicio, partes.length);
+            partes[inicio] = lista;
+        }
+    }
+
+    /**
+     * Número mínimo de elementos a recorrer para que las versiones paralelas
+     * de las operaciones usen varios hilos.
+     */
+    public static final int MIN_PARALELO = 1 << 14;
+
     /* El conjunto de elementos. */
     private Diccionario<T, T> conjunto;
 
@@ -16,7 +83,7 @@ public class Conjunto<T> implements Coleccion<T> {
      * Crea un nuevo conjunto.
      */
     public Conjunto() {
-        // Aquí va su código.
+        conjunto = new Diccionario<T, T>();
     }
 
     /**
@@ -24,7 +91,7 @@ public class Conjunto<T> implements Coleccion<T> {
      * @param n el número tentativo de elementos.
      */
     public Conjunto(int n) {
-        // Aquí va su código.
+        conjunto = new Diccionario<T, T>(n);
     }
 
     /**
@@ -33,7 +100,9 @@ public class Conjunto<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si el elemento es <code>null</code>.
      */
     @Override public void agrega(T elemento) {
-        // Aquí va su código.
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        conjunto.agrega(elemento, elemento);
     }
 
     /**
@@ -43,8 +112,7 @@ public class Conjunto<T> implements Coleccion<T> {
      *         <code>false</code> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        // Aquí va su código.
-        return false;
+        return conjunto.contiene(elemento);
     }
 
     /**
@@ -52,7 +120,8 @@ public class Conjunto<T> implements Coleccion<T> {
      * @param elemento el elemento que queremos eliminar del conjunto.
      */
     @Override public void elimina(T elemento) {
-        // Aquí va su código.
+        if (conjunto.contiene(elemento))
+            conjunto.elimina(elemento);
     }
 
     /**
@@ -65,8 +134,12 @@ public class Conjunto<T> implements Coleccion<T> {
         if (!(o instanceof Conjunto))
             return false;
         @SuppressWarnings("unchecked") Conjunto<T> c = (Conjunto<T>)o;
-        // Aquí va su código.
-        return false;
+        if (getElementos() != c.getElementos())
+            return false;
+        for (T elemento : this)
+            if (!c.contiene(elemento))
+                return false;
+        return true;
     }
 
     /**
@@ -75,8 +148,7 @@ public class Conjunto<T> implements Coleccion<T> {
      *         otro caso.
      */
     @Override public boolean esVacio() {
-        // Aquí va su código.
-        return false;
+        return conjunto.esVacio();
     }
 
     /**
@@ -84,18 +156,57 @@ public class Conjunto<T> implements Coleccion<T> {
      * @return el número de elementos en el conjunto.
      */
     @Override public int getElementos() {
-        // Aquí va su código.
-        return 0;
+        return conjunto.getElementos();
+    }
+
+    /* Truco para crear el arreglo genérico de listas. */
+    @SuppressWarnings("unchecked") private Lista<T>[] nuevoArreglo(int n) {
+        Lista[] arreglo = new Lista[n];
+        return (Lista<T>[])arreglo;
+    }
+
+    /* Agrega a este conjunto los elementos de la colección, agrupados. */
+    private void agregaColeccion(Coleccion<T> coleccion) {
+        conjunto.agregaTodos(coleccion, coleccion);
+    }
+
+    /* Agrega al resultado los elementos del origen que están (o no están) en
+     * el otro conjunto. */
+    private static <T> void filtra(Conjunto<T> resultado, Conjunto<T> origen,
+                                   Conjunto<T> otro, boolean estan) {
+        for (T elemento : origen)
+            if (otro.contiene(elemento) == estan)
+                resultado.conjunto.agrega(elemento, elemento);
+    }
+
+    /* Agrega al resultado los elementos del origen que están (o no están) en
+     * el otro conjunto, revisando partes del origen en paralelo. */
+    private static <T> void filtraParalelo(Conjunto<T> resultado,
+                                           Conjunto<T> origen,
+                                           Conjunto<T> otro, boolean estan) {
+        if (origen.getElementos() < MIN_PARALELO) {
+            filtra(resultado, origen, otro, estan);
+            return;
+        }
+        Lista<T>[] partes = origen.nuevoArreglo(
+            4 * ForkJoinPool.getCommonPoolParallelism());
+        ForkJoinPool.commonPool().invoke(
+            origen.new Filtro(otro, estan, partes, 0, partes.length));
+        for (Lista<T> parte : partes)
+            resultado.agregaColeccion(parte);
     }
 
     /**
-     * Regresa la intersección del conjunto y el conjunto recibido.
+     * Regresa la intersección del conjunto y el conjunto recibido. Recorre el
+     * más chico de los dos.
      * @param conjunto el conjunto que queremos intersectar con éste.
      * @return la intersección del conjunto y el conjunto recibido.
      */
     public Conjunto<T> interseccion(Conjunto<T> conjunto) {
-        // Aquí va su código.
-        return null;
+        Conjunto<T> chico = menor(this, conjunto);
+        Conjunto<T> interseccion = new Conjunto<T>(chico.getElementos());
+        filtra(interseccion, chico, mayor(this, conjunto), true);
+        return interseccion;
     }
 
     /**
@@ -104,8 +215,141 @@ public class Conjunto<T> implements Coleccion<T> {
      * @return la unión del conjunto y el conjunto recibido.
      */
     public Conjunto<T> union(Conjunto<T> conjunto) {
-        // Aquí va su código.
-        return null;
+        Conjunto<T> union = new Conjunto<T>(getElementos() +
+                                             conjunto.getElementos());
+        union.agregaColeccion(mayor(this, conjunto));
+        union.agregaColeccion(menor(this, conjunto));
+        return union;
+    }
+
+    /**
+     * Regresa la diferencia del conjunto y el conjunto recibido: los
+     * elementos de éste que no están en el recibido.
+     * @param conjunto el conjunto cuyos elementos no queremos.
+     * @return la diferencia del conjunto y el conjunto recibido.
+     */
+    public Conjunto<T> diferencia(Conjunto<T> conjunto) {
+        Conjunto<T> diferencia = new Conjunto<T>(getElementos());
+        filtra(diferencia, this, conjunto, false);
+        return diferencia;
+    }
+
+    /**
+     * Regresa la diferencia simétrica del conjunto y el conjunto recibido:
+     * los elementos que están en exactamente uno de los dos.
+     * @param conjunto el conjunto con el que queremos la diferencia simétrica.
+     * @return la diferencia simétrica del conjunto y el conjunto recibido.
+     */
+    public Conjunto<T> diferenciaSimetrica(Conjunto<T> conjunto) {
+        Conjunto<T> diferencia = new Conjunto<T>(getElementos() +
+                                                 conjunto.getElementos());
+        filtra(diferencia, this, conjunto, false);
+        filtra(diferencia, conjunto, this, false);
+        return diferencia;
+    }
+
+    /**
+     * Regresa la intersección del conjunto y el conjunto recibido, revisando
+     * en paralelo partes del más chico de los dos.
+     * @param conjunto el conjunto que queremos intersectar con éste.
+     * @return la intersección del conjunto y el conjunto recibido.
+     */
+    public Conjunto<T> interseccionParalela(Conjunto<T> conjunto) {
+        Conjunto<T> chico = menor(this, conjunto);
+        Conjunto<T> interseccion = new Conjunto<T>(chico.getElementos());
+        filtraParalelo(interseccion, chico, mayor(this, conjunto), true);
+        return interseccion;
+    }
+
+    /**
+     * Regresa la diferencia del conjunto y el conjunto recibido, revisando
+     * en paralelo partes de este conjunto.
+     * @param conjunto el conjunto cuyos elementos no queremos.
+     * @return la diferencia del conjunto y el conjunto recibido.
+     */
+    public Conjunto<T> diferenciaParalela(Conjunto<T> conjunto) {
+        Conjunto<T> diferencia = new Conjunto<T>(getElementos());
+        filtraParalelo(diferencia, this, conjunto, false);
+        return diferencia;
+    }
+
+    /**
+     * Regresa la diferencia simétrica del conjunto y el conjunto recibido,
+     * revisando en paralelo partes de ambos.
+     * @param conjunto el conjunto con el que queremos la diferencia simétrica.
+     * @return la diferencia simétrica del conjunto y el conjunto recibido.
+     */
+    public Conjunto<T> diferenciaSimetricaParalela(Conjunto<T> conjunto) {
+        Conjunto<T> diferencia = new Conjunto<T>(getElementos() +
+                                                 conjunto.getElementos());
+        filtraParalelo(diferencia, this, conjunto, false);
+        filtraParalelo(diferencia, conjunto, this, false);
+        return diferencia;
+    }
+
+    /**
+     * Agrega a este conjunto los elementos del conjunto recibido.
+     * @param conjunto el conjunto cuyos elementos queremos agregar.
+     */
+    public void agregaTodos(Conjunto<T> conjunto) {
+        agregaColeccion(conjunto);
+    }
+
+    /**
+     * Deja en este conjunto sólo los elementos que también están en el
+     * conjunto recibido. Si el recibido es más chico, se recorre él y se
+     * reconstruye este conjunto con sus elementos comunes en un diccionario
+     * nuevo: no se reduce en su lugar porque eso obligaría a recorrer todos
+     * los elementos de éste para eliminar los que sobran, y la reconstrucción
+     * sólo toma tiempo proporcional al recibido. Si no, se recorre éste y se
+     * eliminan en su lugar los elementos que sobran.
+     * @param conjunto el conjunto cuyos elementos queremos conservar.
+     */
+    public void retenTodos(Conjunto<T> conjunto) {
+        if (conjunto.getElementos() < getElementos()) {
+            Diccionario<T, T> comunes =
+                new Diccionario<T, T>(conjunto.getElementos());
+            for (T elemento : conjunto)
+                if (contiene(elemento))
+                    comunes.agrega(elemento, elemento);
+            this.conjunto = comunes;
+            return;
+        }
+        Lista<T> sobran = new Lista<T>();
+        for (T elemento : this)
+            if (!conjunto.contiene(elemento))
+                sobran.agrega(elemento);
+        for (T elemento : sobran)
+            this.conjunto.elimina(elemento);
+    }
+
+    /**
+     * Elimina de este conjunto los elementos del conjunto recibido. Recorre
+     * el más chico de los dos.
+     * @param conjunto el conjunto cuyos elementos queremos eliminar.
+     */
+    public void eliminaTodos(Conjunto<T> conjunto) {
+        if (conjunto.getElementos() <= getElementos()) {
+            for (T elemento : conjunto)
+                elimina(elemento);
+            return;
+        }
+        Lista<T> comunes = new Lista<T>();
+        for (T elemento : this)
+            if (conjunto.contiene(elemento))
+                comunes.agrega(elemento);
+        for (T elemento : comunes)
+            this.conjunto.elimina(elemento);
+    }
+
+    /* Regresa el más chico de los conjuntos. */
+    private static <T> Conjunto<T> menor(Conjunto<T> a, Conjunto<T> b) {
+        return a.getElementos() <= b.getElementos() ? a : b;
+    }
+
+    /* Regresa el más grande de los conjuntos. */
+    private static <T> Conjunto<T> mayor(Conjunto<T> a, Conjunto<T> b) {
+        return a.getElementos() <= b.getElementos() ? b : a;
     }
 
     /**
@@ -113,7 +357,6 @@ public class Conjunto<T> implements Coleccion<T> {
      * @return un iterador para iterar el conjunto.
      */
     @Override public Iterator<T> iterator() {
-        // Aquí va su código.
-        return null;
+        return conjunto.iterator();
     }
 }
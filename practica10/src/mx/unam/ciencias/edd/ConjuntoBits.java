@@ -0,0 +1,698 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para conjuntos comprimidos de elementos de tipo <code>int</code>,
+ * al estilo de los <em>Roaring bitmaps</em>. Conviene sobre {@link
+ * ConjuntoInt} cuando los elementos son densos (rangos de identificadores,
+ * por ejemplo): decenas de millones de elementos caben en unos cuantos
+ * megabytes.</p>
+ *
+ * <p>Los 16 bits altos de cada elemento escogen un contenedor, y el
+ * contenedor guarda los 16 bits bajos de una de tres formas:</p>
+ * <ul>
+ *   <li>con pocos elementos (hasta {@link #MAXIMO_ARREGLO}), en un arreglo
+ *       ordenado de <code>char</code>, dos bytes por elemento;</li>
+ *   <li>con más, en un mapa de 2<sup>16</sup> bits (8 KB);</li>
+ *   <li>como corridas de elementos consecutivos (inicio y longitud), si
+ *       {@link #optimiza} ve que así ocupan menos.</li>
+ * </ul>
+ *
+ * <p>{@link #union} e {@link #interseccion} operan contenedor por contenedor;
+ * entre mapas de bits lo hacen de 64 en 64 bits, con <code>|</code> y
+ * <code>&amp;</code>. Cada contenedor recuerda cuántos elementos tiene, así
+ * que {@link #getElementos} es <em>O</em>(1). Los elementos se recorren en
+ * orden con un {@link IteradorInt}, sin envolverlos.</p>
+ */
+public class ConjuntoBits {
+
+    /* Clase privada abstracta para los contenedores de los 16 bits bajos. */
+    private static abstract class Contenedor {
+
+        /* El número de elementos del contenedor. */
+        public int cardinalidad;
+
+        /* Nos dice si el valor está en el contenedor. */
+        public abstract boolean contiene(int v);
+
+        /* Agrega el valor; regresa el contenedor que debe quedar en su
+         * lugar. */
+        public abstract Contenedor agrega(int v);
+
+        /* Elimina el valor; regresa el contenedor que debe quedar en su
+         * lugar. */
+        public abstract Contenedor elimina(int v);
+
+        /* Regresa un mapa de bits nuevo con los valores del contenedor. */
+        public abstract Bits aBits();
+
+        /* Regresa una copia del contenedor. */
+        public abstract Contenedor copia();
+
+        /* Regresa un iterador para los valores del contenedor, en orden. */
+        public abstract IteradorInt iterador();
+
+        /* Regresa el número de corridas de valores consecutivos. */
+        public abstract int corridas();
+
+        /* Regresa un arreglo nuevo con los valores del contenedor. */
+        public Arreglo aArreglo() {
+            Arreglo a = new Arreglo(cardinalidad);
+            IteradorInt i = iterador();
+            while (i.hasNext())
+                a.valores[a.cardinalidad++] = (char)i.next();
+            return a;
+        }
+
+        /* Regresa las palabras de un mapa de bits con los valores del
+         * contenedor; las del mismo contenedor si es un mapa de bits. */
+        public long[] palabras() {
+            return aBits().palabras;
+        }
+    }
+
+    /* Contenedor con los valores en un arreglo ordenado. */
+    private static class Arreglo extends Contenedor {
+
+        /* Los valores. */
+        public char[] valores;
+
+        /* Construye un arreglo vacío con la capacidad recibida. */
+        public Arreglo(int capacidad) {
+            valores = new char[Math.max(capacidad, 4)];
+        }
+
+        /* Regresa el índice del valor, o (-(inserción) - 1) si no está. */
+        private int busca(int v) {
+            int ini = 0, fin = cardinalidad - 1;
+            while (ini <= fin) {
+                int m = (ini + fin) >>> 1;
+                if (valores[m] < v)
+                    ini = m + 1;
+                else if (valores[m] > v)
+                    fin = m - 1;
+                else
+                    return m;
+            }
+            return -ini - 1;
+        }
+
+        @Override public boolean contiene(int v) {
+            return busca(v) >= 0;
+        }
+
+        @Override public Contenedor agrega(int v) {
+            int i = busca(v);
+            if (i >= 0)
+                return this;
+            if (cardinalidad == MAXIMO_ARREGLO)
+                return aBits().agrega(v);
+            i = -i - 1;
+            if (cardinalidad == valores.length) {
+                char[] nuevos = new char[Math.min(valores.length * 2,
+                                                  MAXIMO_ARREGLO)];
+                System.arraycopy(valores, 0, nuevos, 0, i);
+                System.arraycopy(valores, i, nuevos, i + 1, cardinalidad - i);
+                valores = nuevos;
+            } else {
+                System.arraycopy(valores, i, valores, i + 1, cardinalidad - i);
+            }
+            valores[i] = (char)v;
+            cardinalidad++;
+            return this;
+        }
+
+        @Override public Contenedor elimina(int v) {
+            int i = busca(v);
+            if (i < 0)
+                return this;
+            System.arraycopy(valores, i + 1, valores, i, cardinalidad - i - 1);
+            cardinalidad--;
+            return this;
+        }
+
+        @Override public Bits aBits() {
+            Bits b = new Bits();
+            for (int i = 0; i < cardinalidad; i++)
+                b.palabras[valores[i] >>> 6] |= 1L << valores[i];
+            b.cardinalidad = cardinalidad;
+            return b;
+        }
+
+        @Override public Arreglo aArreglo() {
+            return (Arreglo)copia();
+        }
+
+        @Override public Contenedor copia() {
+            Arreglo a = new Arreglo(cardinalidad);
+            System.arraycopy(valores, 0, a.valores, 0, cardinalidad);
+            a.cardinalidad = cardinalidad;
+            return a;
+        }
+
+        @Override public IteradorInt iterador() {
+            return new IteradorInt() {
+                private int i;
+                @Override public boolean hasNext() {
+                    return i < cardinalidad;
+                }
+                @Override public int next() {
+                    if (i >= cardinalidad)
+                        throw new NoSuchElementException();
+                    return valores[i++];
+                }
+            };
+        }
+
+        @Override public int corridas() {
+            int c = 0;
+            for (int i = 0; i < cardinalidad; i++)
+                if (i == 0 || valores[i] != valores[i-1] + 1)
+                    c++;
+            return c;
+        }
+    }
+
+    /* Contenedor con los valores en un mapa de 2^16 bits. */
+    private static class Bits extends Contenedor {
+
+        /* Las palabras del mapa de bits. */
+        public long[] palabras = new long[PALABRAS];
+
+        @Override public boolean contiene(int v) {
+            return (palabras[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override public Contenedor agrega(int v) {
+            long p = palabras[v >>> 6];
+            palabras[v >>> 6] = p | (1L << v);
+            if (p != palabras[v >>> 6])
+                cardinalidad++;
+            return this;
+        }
+
+        @Override public Contenedor elimina(int v) {
+            long p = palabras[v >>> 6];
+            palabras[v >>> 6] = p & ~(1L << v);
+            if (p != palabras[v >>> 6])
+                cardinalidad--;
+            return normaliza();
+        }
+
+        /* Regresa el contenedor como arreglo si tiene pocos elementos. */
+        public Contenedor normaliza() {
+            return cardinalidad <= MAXIMO_ARREGLO ? aArreglo() : this;
+        }
+
+        @Override public Bits aBits() {
+            return (Bits)copia();
+        }
+
+        @Override public long[] palabras() {
+            return palabras;
+        }
+
+        @Override public Contenedor copia() {
+            Bits b = new Bits();
+            System.arraycopy(palabras, 0, b.palabras, 0, PALABRAS);
+            b.cardinalidad = cardinalidad;
+            return b;
+        }
+
+        @Override public IteradorInt iterador() {
+            return new IteradorInt() {
+                private int i = -1;
+                private long palabra;
+                @Override public boolean hasNext() {
+                    while (palabra == 0 && i + 1 < PALABRAS)
+                        palabra = palabras[++i];
+                    return palabra != 0;
+                }
+                @Override public int next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    int v = (i << 6) + Long.numberOfTrailingZeros(palabra);
+                    palabra &= palabra - 1;
+                    return v;
+                }
+            };
+        }
+
+        @Override public int corridas() {
+            /* Una corrida empieza en cada bit prendido cuyo bit anterior está
+             * apagado. */
+            int c = 0;
+            long anterior = 0;
+            for (long p : palabras) {
+                c += Long.bitCount(p & ~((p << 1) | (anterior >>> 63)));
+                anterior = p;
+            }
+            return c;
+        }
+    }
+
+    /* Contenedor con los valores en corridas de valores consecutivos. */
+    private static class Corridas extends Contenedor {
+
+        /* Los inicios de las corridas. */
+        public char[] inicios;
+        /* Las longitudes de las corridas, menos uno. */
+        public char[] longitudes;
+        /* El número de corridas. */
+        public int n;
+
+        /* Construye las corridas con los valores del contenedor recibido. */
+        public Corridas(Contenedor c) {
+            int total = c.corridas();
+            inicios = new char[total];
+            longitudes = new char[total];
+            IteradorInt i = c.iterador();
+            int ultimo = -2;
+            while (i.hasNext()) {
+                int v = i.next();
+                if (v == ultimo + 1) {
+                    longitudes[n-1]++;
+                } else {
+                    inicios[n] = (char)v;
+                    longitudes[n++] = 0;
+                }
+                ultimo = v;
+            }
+            cardinalidad = c.cardinalidad;
+        }
+
+        @Override public boolean contiene(int v) {
+            /* Buscamos la última corrida que empieza en v o antes. */
+            int ini = 0, fin = n - 1;
+            while (ini <= fin) {
+                int m = (ini + fin) >>> 1;
+                if (inicios[m] <= v)
+                    ini = m + 1;
+                else
+                    fin = m - 1;
+            }
+            return fin >= 0 && v <= inicios[fin] + longitudes[fin];
+        }
+
+        /* Regresa el contenedor sin corridas que ocupa menos. */
+        private Contenedor descomprime() {
+            if (cardinalidad > MAXIMO_ARREGLO)
+                return aBits();
+            return aArreglo();
+        }
+
+        @Override public Contenedor agrega(int v) {
+            return contiene(v) ? this : descomprime().agrega(v);
+        }
+
+        @Override public Contenedor elimina(int v) {
+            return contiene(v) ? descomprime().elimina(v) : this;
+        }
+
+        @Override public Bits aBits() {
+            Bits b = new Bits();
+            for (int i = 0; i < n; i++) {
+                int ini = inicios[i], fin = ini + longitudes[i];
+                int pi = ini >>> 6, pf = fin >>> 6;
+                long mi = -1L << ini, mf = -1L >>> (63 - (fin & 63));
+                if (pi == pf) {
+                    b.palabras[pi] |= mi & mf;
+                    continue;
+                }
+                b.palabras[pi] |= mi;
+                for (int p = pi + 1; p < pf; p++)
+                    b.palabras[p] = -1L;
+                b.palabras[pf] |= mf;
+            }
+            b.cardinalidad = cardinalidad;
+            return b;
+        }
+
+        @Override public Contenedor copia() {
+            return new Corridas(this);
+        }
+
+        @Override public IteradorInt iterador() {
+            return new IteradorInt() {
+                private int i;
+                private int v = n > 0 ? inicios[0] : 0;
+                @Override public boolean hasNext() {
+                    return i < n;
+                }
+                @Override public int next() {
+                    if (i >= n)
+                        throw new NoSuchElementException();
+                    int r = v;
+                    if (v == inicios[i] + longitudes[i]) {
+                        if (++i < n)
+                            v = inicios[i];
+                    } else {
+                        v++;
+                    }
+                    return r;
+                }
+            };
+        }
+
+        @Override public int corridas() {
+            return n;
+        }
+    }
+
+    /**
+     * Máximo número de elementos en un contenedor de arreglo; con más, el
+     * contenedor se vuelve un mapa de bits, que ocupa lo mismo que un arreglo
+     * con este número de elementos.
+     */
+    public static final int MAXIMO_ARREGLO = 4096;
+
+    /* Número de palabras de un mapa de bits. */
+    private static final int PALABRAS = 1024;
+
+    /* Las llaves de los contenedores, ordenadas. */
+    private int[] llaves;
+    /* Los contenedores. */
+    private Contenedor[] contenedores;
+    /* El número de contenedores. */
+    private int n;
+    /* El número de elementos. */
+    private int elementos;
+
+    /**
+     * Crea un nuevo conjunto.
+     */
+    public ConjuntoBits() {
+        this(4);
+    }
+
+    /* Crea un nuevo conjunto con espacio para los contenedores recibidos. */
+    private ConjuntoBits(int capacidad) {
+        llaves = new int[Math.max(capacidad, 4)];
+        contenedores = new Contenedor[Math.max(capacidad, 4)];
+    }
+
+    /* Regresa la llave del contenedor del elemento. Volteamos el bit de
+     * signo para que las llaves (y los elementos) queden en orden. */
+    private static int llave(int elemento) {
+        return (elemento >>> 16) ^ 0x8000;
+    }
+
+    /* Regresa el elemento con la llave y los 16 bits bajos recibidos. */
+    private static int elemento(int llave, int v) {
+        return ((llave ^ 0x8000) << 16) | v;
+    }
+
+    /* Regresa el índice del contenedor con la llave, o (-(inserción) - 1)
+     * si no hay. */
+    private int busca(int llave) {
+        int ini = 0, fin = n - 1;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            if (llaves[m] < llave)
+                ini = m + 1;
+            else if (llaves[m] > llave)
+                fin = m - 1;
+            else
+                return m;
+        }
+        return -ini - 1;
+    }
+
+    /* Agrega el contenedor con la llave al final; las llaves deben llegar en
+     * orden. */
+    private void agregaFinal(int llave, Contenedor c) {
+        if (n == llaves.length)
+            crece();
+        llaves[n] = llave;
+        contenedores[n++] = c;
+        elementos += c.cardinalidad;
+    }
+
+    /* Duplica el espacio para contenedores. */
+    private void crece() {
+        int[] llaves = new int[this.llaves.length * 2];
+        Contenedor[] contenedores = new Contenedor[llaves.length];
+        System.arraycopy(this.llaves, 0, llaves, 0, n);
+        System.arraycopy(this.contenedores, 0, contenedores, 0, n);
+        this.llaves = llaves;
+        this.contenedores = contenedores;
+    }
+
+    /**
+     * Agrega un elemento al conjunto.
+     * @param elemento el elemento que queremos agregar al conjunto.
+     */
+    public void agrega(int elemento) {
+        int llave = llave(elemento);
+        int i = busca(llave);
+        if (i < 0) {
+            i = -i - 1;
+            if (n == llaves.length)
+                crece();
+            System.arraycopy(llaves, i, llaves, i + 1, n - i);
+            System.arraycopy(contenedores, i, contenedores, i + 1, n - i);
+            llaves[i] = llave;
+            contenedores[i] = new Arreglo(4);
+            n++;
+        }
+        Contenedor c = contenedores[i];
+        int antes = c.cardinalidad;
+        contenedores[i] = c.agrega(elemento & 0xffff);
+        elementos += contenedores[i].cardinalidad - antes;
+    }
+
+    /**
+     * Nos dice si el elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        int i = busca(llave(elemento));
+        return i >= 0 && contenedores[i].contiene(elemento & 0xffff);
+    }
+
+    /**
+     * Elimina el elemento del conjunto, si está.
+     * @param elemento el elemento que queremos eliminar del conjunto.
+     */
+    public void elimina(int elemento) {
+        int i = busca(llave(elemento));
+        if (i < 0)
+            return;
+        Contenedor c = contenedores[i];
+        int antes = c.cardinalidad;
+        contenedores[i] = c.elimina(elemento & 0xffff);
+        elementos -= antes - contenedores[i].cardinalidad;
+        if (contenedores[i].cardinalidad > 0)
+            return;
+        System.arraycopy(llaves, i + 1, llaves, i, n - i - 1);
+        System.arraycopy(contenedores, i + 1, contenedores, i, n - i - 1);
+        contenedores[--n] = null;
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacio() {
+        return elementos == 0;
+    }
+
+    /* Regresa la intersección de dos contenedores. */
+    private static Contenedor interseccion(Contenedor a, Contenedor b) {
+        if (b instanceof Arreglo && !(a instanceof Arreglo &&
+                                      a.cardinalidad <= b.cardinalidad)) {
+            Contenedor t = a;
+            a = b;
+            b = t;
+        }
+        if (a instanceof Arreglo) {
+            Arreglo x = (Arreglo)a;
+            Arreglo r = new Arreglo(x.cardinalidad);
+            for (int i = 0; i < x.cardinalidad; i++)
+                if (b.contiene(x.valores[i]))
+                    r.valores[r.cardinalidad++] = x.valores[i];
+            return r;
+        }
+        long[] pa = a.palabras(), pb = b.palabras();
+        Bits r = new Bits();
+        for (int i = 0; i < PALABRAS; i++) {
+            r.palabras[i] = pa[i] & pb[i];
+            r.cardinalidad += Long.bitCount(r.palabras[i]);
+        }
+        return r.normaliza();
+    }
+
+    /* Regresa la unión de dos contenedores. */
+    private static Contenedor union(Contenedor a, Contenedor b) {
+        if (a instanceof Arreglo && b instanceof Arreglo &&
+            a.cardinalidad + b.cardinalidad <= MAXIMO_ARREGLO) {
+            Arreglo x = (Arreglo)a, y = (Arreglo)b;
+            Arreglo r = new Arreglo(x.cardinalidad + y.cardinalidad);
+            int i = 0, j = 0;
+            while (i < x.cardinalidad || j < y.cardinalidad) {
+                char v;
+                if (j == y.cardinalidad ||
+                    (i < x.cardinalidad && x.valores[i] < y.valores[j]))
+                    v = x.valores[i++];
+                else if (i == x.cardinalidad || y.valores[j] < x.valores[i])
+                    v = y.valores[j++];
+                else {
+                    v = x.valores[i++];
+                    j++;
+                }
+                r.valores[r.cardinalidad++] = v;
+            }
+            return r;
+        }
+        if (a instanceof Arreglo) {
+            Contenedor t = a;
+            a = b;
+            b = t;
+        }
+        Bits r = a.aBits();
+        if (b instanceof Arreglo) {
+            Arreglo y = (Arreglo)b;
+            for (int i = 0; i < y.cardinalidad; i++)
+                r.agrega(y.valores[i]);
+            return r.normaliza();
+        }
+        long[] pb = b.palabras();
+        r.cardinalidad = 0;
+        for (int i = 0; i < PALABRAS; i++) {
+            r.palabras[i] |= pb[i];
+            r.cardinalidad += Long.bitCount(r.palabras[i]);
+        }
+        return r.normaliza();
+    }
+
+    /**
+     * Regresa la intersección del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos intersectar con éste.
+     * @return la intersección del conjunto y el conjunto recibido.
+     */
+    public ConjuntoBits interseccion(ConjuntoBits conjunto) {
+        ConjuntoBits interseccion =
+            new ConjuntoBits(Math.min(n, conjunto.n));
+        int i = 0, j = 0;
+        while (i < n && j < conjunto.n) {
+            if (llaves[i] < conjunto.llaves[j]) {
+                i++;
+            } else if (llaves[i] > conjunto.llaves[j]) {
+                j++;
+            } else {
+                Contenedor c = interseccion(contenedores[i++],
+                                            conjunto.contenedores[j++]);
+                if (c.cardinalidad > 0)
+                    interseccion.agregaFinal(llaves[i-1], c);
+            }
+        }
+        return interseccion;
+    }
+
+    /**
+     * Regresa la unión del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos unir con éste.
+     * @return la unión del conjunto y el conjunto recibido.
+     */
+    public ConjuntoBits union(ConjuntoBits conjunto) {
+        ConjuntoBits union = new ConjuntoBits(n + conjunto.n);
+        int i = 0, j = 0;
+        while (i < n || j < conjunto.n) {
+            if (j == conjunto.n ||
+                (i < n && llaves[i] < conjunto.llaves[j])) {
+                union.agregaFinal(llaves[i], contenedores[i++].copia());
+            } else if (i == n || llaves[i] > conjunto.llaves[j]) {
+                union.agregaFinal(conjunto.llaves[j],
+                                  conjunto.contenedores[j++].copia());
+            } else {
+                union.agregaFinal(llaves[i], union(contenedores[i++],
+                                                   conjunto.contenedores[j++]));
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Compacta los contenedores: cada uno se guarda como arreglo, mapa de
+     * bits o corridas, lo que ocupe menos. Conviene llamarlo después de
+     * agregar muchos elementos consecutivos; agregar o eliminar un elemento
+     * de un contenedor de corridas lo vuelve a descomprimir.
+     */
+    public void optimiza() {
+        for (int i = 0; i < n; i++) {
+            Contenedor c = contenedores[i];
+            int corridas = 4 * c.corridas();
+            int otro = Math.min(2 * c.cardinalidad, 2 * MAXIMO_ARREGLO);
+            if (corridas < otro && !(c instanceof Corridas))
+                contenedores[i] = new Corridas(c);
+            else if (corridas >= otro && c instanceof Corridas)
+                contenedores[i] = c.cardinalidad > MAXIMO_ARREGLO ?
+                    c.aBits() : c.aArreglo();
+        }
+    }
+
+    /**
+     * Regresa un iterador para iterar los elementos del conjunto en orden.
+     * El conjunto no debe modificarse mientras se itera.
+     * @return un iterador para iterar los elementos del conjunto.
+     */
+    public IteradorInt iterador() {
+        return new IteradorInt() {
+            private int i = -1;
+            private IteradorInt actual;
+            @Override public boolean hasNext() {
+                while ((actual == null || !actual.hasNext()) && i + 1 < n)
+                    actual = contenedores[++i].iterador();
+                return actual != null && actual.hasNext();
+            }
+            @Override public int next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return elemento(llaves[i], actual.next());
+            }
+        };
+    }
+
+    /**
+     * Regresa un arreglo con los elementos del conjunto, en orden.
+     * @return un arreglo con los elementos del conjunto.
+     */
+    public int[] arreglo() {
+        int[] arreglo = new int[elementos];
+        IteradorInt iterador = iterador();
+        for (int i = 0; i < elementos; i++)
+            arreglo[i] = iterador.next();
+        return arreglo;
+    }
+
+    /**
+     * Nos dice si el conjunto es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al conjunto.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         ConjuntoBits, y tiene los mismos elementos.
+     */
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof ConjuntoBits))
+            return false;
+        ConjuntoBits c = (ConjuntoBits)o;
+        if (elementos != c.elementos || n != c.n)
+            return false;
+        IteradorInt i = iterador(), j = c.iterador();
+        while (i.hasNext())
+            if (i.next() != j.next())
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,224 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para conjuntos de elementos de tipo <code>int</code>. Funciona como
+ * {@link Conjunto}, pero los elementos se guardan sin envolver en un arreglo
+ * de enteros, resolviendo las colisiones con la siguiente casilla libre; no
+ * hay un {@link Integer}, ni una entrada, ni un nodo de lista por elemento, y
+ * {@link #agrega} y {@link #contiene} no crean objetos (salvo cuando el
+ * conjunto crece). Todos sus métodos tienen complejidad en tiempo
+ * <em>O</em>(1) (amortizado), excepto por {@link #union}, {@link
+ * #interseccion} y {@link #arreglo}, que son <em>O</em>(<em>n</em>).
+ */
+public class ConjuntoInt {
+
+    /** Máxima carga permitida por el conjunto. */
+    public static final double MAXIMA_CARGA = Diccionario.MAXIMA_CARGA;
+
+    /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
+    private static final int MIN_N = 64;
+
+    /* Máscara para no usar módulo. */
+    private int mascara;
+    /* Los elementos. */
+    private int[] conjunto;
+    /* Qué casillas están ocupadas. */
+    private boolean[] ocupadas;
+    /* Número de elementos. */
+    private int elementos;
+
+    /**
+     * Crea un nuevo conjunto.
+     */
+    public ConjuntoInt() {
+        this(MIN_N);
+    }
+
+    /**
+     * Crea un nuevo conjunto para un número determinado de elementos.
+     * @param n el número tentativo de elementos.
+     */
+    public ConjuntoInt(int n) {
+        int tam = MIN_N;
+        while (tam < n * 2)
+            tam <<= 1;
+        mascara = tam - 1;
+        conjunto = new int[tam];
+        ocupadas = new boolean[tam];
+    }
+
+    /* Revuelve los bits del elemento, para que elementos consecutivos o
+     * múltiplos de potencias de 2 no caigan juntos al aplicar la máscara. */
+    private static int picadillo(int elemento) {
+        int h = elemento * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa la casilla del elemento, o -1 si no está. */
+    private int busca(int elemento) {
+        int i = picadillo(elemento) & mascara;
+        while (ocupadas[i]) {
+            if (conjunto[i] == elemento)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega un elemento al conjunto.
+     * @param elemento el elemento que queremos agregar al conjunto.
+     */
+    public void agrega(int elemento) {
+        int i = picadillo(elemento) & mascara;
+        while (ocupadas[i]) {
+            if (conjunto[i] == elemento)
+                return;
+            i = (i + 1) & mascara;
+        }
+        conjunto[i] = elemento;
+        ocupadas[i] = true;
+        if ((double)++elementos / (mascara + 1) >= MAXIMA_CARGA)
+            crece();
+    }
+
+    /* Duplica el tamaño de los arreglos y reacomoda los elementos. */
+    private void crece() {
+        int[] conjunto = this.conjunto;
+        boolean[] ocupadas = this.ocupadas;
+        int n = (mascara + 1) * 2;
+        mascara = n - 1;
+        this.conjunto = new int[n];
+        this.ocupadas = new boolean[n];
+        for (int j = 0; j < conjunto.length; ++j) {
+            if (!ocupadas[j])
+                continue;
+            int i = picadillo(conjunto[j]) & mascara;
+            while (this.ocupadas[i])
+                i = (i + 1) & mascara;
+            this.conjunto[i] = conjunto[j];
+            this.ocupadas[i] = true;
+        }
+    }
+
+    /**
+     * Nos dice si el elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return busca(elemento) != -1;
+    }
+
+    /**
+     * Elimina el elemento del conjunto, si está.
+     * @param elemento el elemento que queremos eliminar del conjunto.
+     */
+    public void elimina(int elemento) {
+        int i = busca(elemento);
+        if (i == -1)
+            return;
+        /* Recorremos hacia atrás los elementos que le siguen y que no pueden
+         * quedar después de un hueco en i sin volverse inalcanzables. */
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (!ocupadas[j])
+                break;
+            int k = picadillo(conjunto[j]) & mascara;
+            if (((j - k) & mascara) >= ((j - i) & mascara)) {
+                conjunto[i] = conjunto[j];
+                i = j;
+            }
+        }
+        ocupadas[i] = false;
+        --elementos;
+    }
+
+    /**
+     * Nos dice si el conjunto es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al conjunto.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         ConjuntoInt, y tiene los mismos elementos.
+     */
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof ConjuntoInt))
+            return false;
+        ConjuntoInt c = (ConjuntoInt)o;
+        if (elementos != c.elementos)
+            return false;
+        for (int i = 0; i < conjunto.length; ++i)
+            if (ocupadas[i] && !c.contiene(conjunto[i]))
+                return false;
+        return true;
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacio() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice la carga del conjunto.
+     * @return la carga del conjunto.
+     */
+    public double carga() {
+        return (double)elementos / (mascara + 1);
+    }
+
+    /**
+     * Regresa la intersección del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos intersectar con éste.
+     * @return la intersección del conjunto y el conjunto recibido.
+     */
+    public ConjuntoInt interseccion(ConjuntoInt conjunto) {
+        ConjuntoInt interseccion = new ConjuntoInt();
+        for (int i = 0; i < this.conjunto.length; ++i)
+            if (ocupadas[i] && conjunto.contiene(this.conjunto[i]))
+                interseccion.agrega(this.conjunto[i]);
+        return interseccion;
+    }
+
+    /**
+     * Regresa la unión del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos unir con éste.
+     * @return la unión del conjunto y el conjunto recibido.
+     */
+    public ConjuntoInt union(ConjuntoInt conjunto) {
+        ConjuntoInt union = new ConjuntoInt(elementos + conjunto.elementos);
+        for (int i = 0; i < this.conjunto.length; ++i)
+            if (ocupadas[i])
+                union.agrega(this.conjunto[i]);
+        for (int i = 0; i < conjunto.conjunto.length; ++i)
+            if (conjunto.ocupadas[i])
+                union.agrega(conjunto.conjunto[i]);
+        return union;
+    }
+
+    /**
+     * Regresa un arreglo con los elementos del conjunto. El arreglo no tiene
+     * ningún tipo de orden.
+     * @return un arreglo con los elementos del conjunto.
+     */
+    public int[] arreglo() {
+        int[] arreglo = new int[elementos];
+        int j = 0;
+        for (int i = 0; i < conjunto.length; ++i)
+            if (ocupadas[i])
+                arreglo[j++] = conjunto[i];
+        return arreglo;
+    }
+}
@@ -0,0 +1,277 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para conjuntos inmutables de elementos comparables, guardados en
+ * un arreglo ordenado. Están pensados para conjuntos que se construyen una
+ * vez y se intersectan muchas veces (listas de documentos de un índice
+ * invertido, conjuntos de etiquetas): a diferencia de {@link Conjunto}, sólo
+ * usan una referencia por elemento, y sus elementos están contiguos en
+ * memoria.</p>
+ *
+ * <p>{@link #contiene} hace una búsqueda binaria, así que toma tiempo
+ * <em>O</em>(log <em>n</em>). {@link #union} e {@link #interseccion} mezclan
+ * los dos arreglos sin crear objetos por elemento: si los conjuntos tienen
+ * tamaños parecidos los recorren juntos en tiempo <em>O</em>(<em>n</em> +
+ * <em>m</em>); si uno es mucho más chico, por cada uno de sus elementos
+ * galopan (buscan exponencialmente) en el más grande a partir de la última
+ * posición, en tiempo <em>O</em>(<em>m</em> log(<em>n</em>/<em>m</em>)).</p>
+ */
+public class ConjuntoOrdenado<T extends Comparable<T>> implements Iterable<T> {
+
+    /* Clase privada para iteradores de conjuntos ordenados. */
+    private class Iterador implements Iterator<T> {
+
+        /* El índice del siguiente elemento. */
+        private int siguiente;
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return siguiente < elementos.length;
+        }
+
+        /* Regresa el siguiente elemento, en orden. */
+        @Override public T next() {
+            if (siguiente >= elementos.length)
+                throw new NoSuchElementException();
+            return elementos[siguiente++];
+        }
+    }
+
+    /**
+     * Cuántas veces más grande tiene que ser un conjunto que otro para que
+     * las operaciones galopen en el más grande en lugar de recorrerlo.
+     */
+    public static final int GALOPE = 8;
+
+    /* Los elementos, ordenados y sin repetir. */
+    private T[] elementos;
+
+    /**
+     * Construye un conjunto ordenado con los elementos de la colección
+     * recibida. Los elementos repetidos se guardan una vez.
+     * @param coleccion la colección con los elementos del conjunto.
+     * @throws IllegalArgumentException si la colección es <code>null</code>.
+     */
+    public ConjuntoOrdenado(Coleccion<T> coleccion) {
+        if (coleccion == null)
+            throw new IllegalArgumentException();
+        T[] arreglo = nuevoArreglo(coleccion.getElementos());
+        int n = 0;
+        for (T elemento : coleccion)
+            arreglo[n++] = elemento;
+        Arrays.sort(arreglo, 0, n);
+        int m = 0;
+        for (int i = 0; i < n; i++)
+            if (m == 0 || arreglo[m-1].compareTo(arreglo[i]) != 0)
+                arreglo[m++] = arreglo[i];
+        elementos = recorta(arreglo, m);
+    }
+
+    /* Construye un conjunto ordenado con el arreglo recibido, que ya está
+     * ordenado y no tiene repetidos. */
+    private ConjuntoOrdenado(T[] elementos) {
+        this.elementos = elementos;
+    }
+
+    /* Truco para crear el arreglo genérico de elementos. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Comparable[n]);
+    }
+
+    /* Regresa el arreglo con sus primeros n elementos; el mismo si no sobra
+     * nada. */
+    private T[] recorta(T[] arreglo, int n) {
+        return n == arreglo.length ? arreglo : Arrays.copyOf(arreglo, n);
+    }
+
+    /* Regresa el índice del elemento en el arreglo, o (-(inserción) - 1) si
+     * no está, buscando entre ini (inclusivo) y fin (exclusivo). */
+    private int busca(T elemento, int ini, int fin) {
+        fin--;
+        while (ini <= fin) {
+            int m = (ini + fin) >>> 1;
+            int c = elementos[m].compareTo(elemento);
+            if (c < 0)
+                ini = m + 1;
+            else if (c > 0)
+                fin = m - 1;
+            else
+                return m;
+        }
+        return -ini - 1;
+    }
+
+    /* Regresa el índice del primer elemento mayor o igual al recibido a
+     * partir de desde, o la longitud del arreglo si no hay: avanza con saltos
+     * que se duplican hasta pasarse, y luego busca binariamente en el último
+     * salto. */
+    private int galopa(T elemento, int desde) {
+        int n = elementos.length;
+        int salto = 1;
+        int ini = desde;
+        while (desde < n && elementos[desde].compareTo(elemento) < 0) {
+            ini = desde + 1;
+            desde += salto;
+            salto <<= 1;
+        }
+        int i = busca(elemento, ini, Math.min(desde, n));
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Nos dice si el elemento está en el conjunto.
+     * @param elemento el elemento que queremos saber si está en el conjunto.
+     * @return <code>true</code> si el elemento está en el conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return elemento != null && busca(elemento, 0, elementos.length) >= 0;
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento del conjunto, en orden.
+     * @param i el índice del elemento.
+     * @return el <em>i</em>-ésimo elemento del conjunto.
+     * @throws ExcepcionIndiceInvalido si el índice es menor que cero, o mayor
+     *         o igual al número de elementos.
+     */
+    public T get(int i) {
+        if (i < 0 || i >= elementos.length)
+            throw new ExcepcionIndiceInvalido();
+        return elementos[i];
+    }
+
+    /**
+     * Regresa la intersección del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos intersectar con éste.
+     * @return la intersección del conjunto y el conjunto recibido.
+     */
+    public ConjuntoOrdenado<T> interseccion(ConjuntoOrdenado<T> conjunto) {
+        ConjuntoOrdenado<T> a = this, b = conjunto;
+        if (a.elementos.length > b.elementos.length) {
+            a = conjunto;
+            b = this;
+        }
+        T[] r = nuevoArreglo(a.elementos.length);
+        int k = 0;
+        if ((long)a.elementos.length * GALOPE < b.elementos.length) {
+            int j = 0;
+            for (T elemento : a.elementos) {
+                j = b.galopa(elemento, j);
+                if (j == b.elementos.length)
+                    break;
+                if (b.elementos[j].compareTo(elemento) == 0)
+                    r[k++] = b.elementos[j++];
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < a.elementos.length && j < b.elementos.length) {
+                int c = a.elementos[i].compareTo(b.elementos[j]);
+                if (c < 0)
+                    i++;
+                else if (c > 0)
+                    j++;
+                else {
+                    r[k++] = a.elementos[i++];
+                    j++;
+                }
+            }
+        }
+        return new ConjuntoOrdenado<T>(recorta(r, k));
+    }
+
+    /**
+     * Regresa la unión del conjunto y el conjunto recibido.
+     * @param conjunto el conjunto que queremos unir con éste.
+     * @return la unión del conjunto y el conjunto recibido.
+     */
+    public ConjuntoOrdenado<T> union(ConjuntoOrdenado<T> conjunto) {
+        ConjuntoOrdenado<T> a = this, b = conjunto;
+        if (a.elementos.length > b.elementos.length) {
+            a = conjunto;
+            b = this;
+        }
+        T[] r = nuevoArreglo(a.elementos.length + b.elementos.length);
+        int i = 0, j = 0, k = 0;
+        if ((long)a.elementos.length * GALOPE < b.elementos.length) {
+            /* Copiamos de golpe los elementos de b que van antes de cada
+             * elemento de a. */
+            for (T elemento : a.elementos) {
+                int h = b.galopa(elemento, j);
+                System.arraycopy(b.elementos, j, r, k, h - j);
+                k += h - j;
+                j = h;
+                if (j < b.elementos.length &&
+                    b.elementos[j].compareTo(elemento) == 0)
+                    j++;
+                r[k++] = elemento;
+            }
+            i = a.elementos.length;
+        } else {
+            while (i < a.elementos.length && j < b.elementos.length) {
+                int c = a.elementos[i].compareTo(b.elementos[j]);
+                if (c < 0)
+                    r[k++] = a.elementos[i++];
+                else if (c > 0)
+                    r[k++] = b.elementos[j++];
+                else {
+                    r[k++] = a.elementos[i++];
+                    j++;
+                }
+            }
+        }
+        System.arraycopy(a.elementos, i, r, k, a.elementos.length - i);
+        k += a.elementos.length - i;
+        System.arraycopy(b.elementos, j, r, k, b.elementos.length - j);
+        k += b.elementos.length - j;
+        return new ConjuntoOrdenado<T>(recorta(r, k));
+    }
+
+    /**
+     * Nos dice si el conjunto es vacío.
+     * @return <code>true</code> si el conjunto es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return elementos.length == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el conjunto.
+     * @return el número de elementos en el conjunto.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Nos dice si el conjunto es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al conjunto.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         ConjuntoOrdenado, y tiene los mismos elementos.
+     */
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof ConjuntoOrdenado))
+            return false;
+        @SuppressWarnings("unchecked") ConjuntoOrdenado<T> c =
+            (ConjuntoOrdenado<T>)o;
+        if (elementos.length != c.elementos.length)
+            return false;
+        for (int i = 0; i < elementos.length; i++)
+            if (elementos[i].compareTo(c.elementos[i]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar el conjunto en orden.
+     * @return un iterador para iterar el conjunto en orden.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
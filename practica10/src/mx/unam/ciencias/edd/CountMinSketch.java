@@ -0,0 +1,176 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para estimar la frecuencia de los elementos de un flujo con un
+ * <em>Count-Min sketch</em>, usando memoria fija en lugar de un contador por
+ * elemento en un {@link Diccionario}.</p>
+ *
+ * <p>El sketch es una matriz de <em>d</em> renglones por <em>w</em> columnas
+ * de contadores. Cada elemento incrementa un contador por renglón, en una
+ * columna que sale de su {@link Picadillo} revuelto a 64 bits con doble
+ * picadillo; la frecuencia estimada es el mínimo de sus <em>d</em>
+ * contadores. Con <em>w</em> = ⌈<em>e</em>/ε⌉ y <em>d</em> =
+ * ⌈ln(1/δ)⌉, la estimación nunca es menor a la frecuencia real, y con
+ * probabilidad al menos 1 − δ la excede en a lo más ε<em>N</em>, donde
+ * <em>N</em> es el total de elementos agregados. Por ejemplo, con ε = 0.001
+ * y δ = 0.01 son 2719 × 5 contadores de 8 bytes (106 KB).</p>
+ *
+ * <p>Dos sketches con las mismas dimensiones pueden combinarse con {@link
+ * #combina}, por ejemplo para juntar los de varios hilos o archivos.</p>
+ */
+public class CountMinSketch<T> {
+
+    /* Los contadores, renglón por renglón. */
+    private long[] contadores;
+    /* Número de columnas. */
+    private int w;
+    /* Número de renglones. */
+    private int d;
+    /* Total de elementos agregados. */
+    private long total;
+    /* El picadillo. */
+    private Picadillo<T> picadillo;
+
+    /**
+     * Construye un sketch con el error y la probabilidad de fallo recibidos,
+     * y un picadillo predeterminado.
+     * @param epsilon el error máximo, como fracción del total de elementos.
+     * @param delta la probabilidad de que el error sea mayor.
+     * @throws IllegalArgumentException si épsilon o delta no están en el
+     *         intervalo (0, 1).
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        this(epsilon, delta, (T elemento) -> elemento.hashCode());
+    }
+
+    /**
+     * Construye un sketch con el error, la probabilidad de fallo y el
+     * picadillo recibidos.
+     * @param epsilon el error máximo, como fracción del total de elementos.
+     * @param delta la probabilidad de que el error sea mayor.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si épsilon o delta no están en el
+     *         intervalo (0, 1), o si el picadillo es <code>null</code>.
+     */
+    public CountMinSketch(double epsilon, double delta, Picadillo<T> picadillo) {
+        if (!(epsilon > 0.0 && epsilon < 1.0) ||
+            !(delta > 0.0 && delta < 1.0) || picadillo == null)
+            throw new IllegalArgumentException();
+        w = (int)Math.ceil(Math.E / epsilon);
+        d = Math.max(1, (int)Math.ceil(Math.log(1 / delta)));
+        contadores = new long[w * d];
+        this.picadillo = picadillo;
+    }
+
+    /* Convierte los 32 bits de h en una columna en [0, w) multiplicando en
+     * vez de usar módulo. */
+    private int columna(int h) {
+        return (int)(((h & 0xffffffffL) * w) >>> 32);
+    }
+
+    /**
+     * Agrega una aparición del elemento al sketch.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        agrega(elemento, 1);
+    }
+
+    /**
+     * Agrega varias apariciones del elemento al sketch.
+     * @param elemento el elemento a agregar.
+     * @param cuenta cuántas apariciones agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>, o
+     *         la cuenta es negativa.
+     */
+    public void agrega(T elemento, long cuenta) {
+        if (elemento == null || cuenta < 0)
+            throw new IllegalArgumentException();
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32) | 1;
+        for (int i = 0; i < d; ++i) {
+            contadores[i * w + columna(h1)] += cuenta;
+            h1 += h2;
+        }
+        total += cuenta;
+    }
+
+    /**
+     * Estima la frecuencia del elemento. La estimación nunca es menor a la
+     * frecuencia real.
+     * @param elemento el elemento del que queremos la frecuencia.
+     * @return la frecuencia estimada del elemento.
+     */
+    public long frecuencia(T elemento) {
+        if (elemento == null)
+            return 0;
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32) | 1;
+        long minimo = Long.MAX_VALUE;
+        for (int i = 0; i < d; ++i) {
+            minimo = Math.min(minimo, contadores[i * w + columna(h1)]);
+            h1 += h2;
+        }
+        return minimo;
+    }
+
+    /**
+     * Combina con este sketch las apariciones del sketch recibido.
+     * @param sketch el sketch a combinar con éste.
+     * @throws IllegalArgumentException si el sketch recibido no tiene las
+     *         mismas dimensiones que éste.
+     */
+    public void combina(CountMinSketch<T> sketch) {
+        if (sketch.w != w || sketch.d != d)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < contadores.length; ++i)
+            contadores[i] += sketch.contadores[i];
+        total += sketch.total;
+    }
+
+    /**
+     * Divide entre dos todos los contadores y el total, para que las
+     * apariciones antiguas pesen menos que las recientes.
+     */
+    public void envejece() {
+        for (int i = 0; i < contadores.length; ++i)
+            contadores[i] >>>= 1;
+        total >>>= 1;
+    }
+
+    /**
+     * Vacía el sketch.
+     */
+    public void limpia() {
+        for (int i = 0; i < contadores.length; ++i)
+            contadores[i] = 0;
+        total = 0;
+    }
+
+    /**
+     * Regresa el total de apariciones agregadas al sketch.
+     * @return el total de apariciones agregadas al sketch.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de columnas del sketch.
+     * @return el número de columnas del sketch.
+     */
+    public int getColumnas() {
+        return w;
+    }
+
+    /**
+     * Regresa el número de renglones del sketch.
+     * @return el número de renglones del sketch.
+     */
+    public int getRenglones() {
+        return d;
+    }
+}
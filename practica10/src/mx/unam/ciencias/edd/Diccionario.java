@@ -4,10 +4,40 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
- * Clase para diccionarios (<em>hash tables</em>). Un diccionario generaliza el
- * concepto de arreglo, permitiendo (en general, dependiendo de qué tan bueno
+ * <p>Clase para diccionarios (<em>hash tables</em>). Un diccionario generaliza
+ * el concepto de arreglo, permitiendo (en general, dependiendo de qué tan bueno
  * sea su método para generar picadillos) agregar, eliminar, y buscar valores en
- * tiempo <i>O</i>(1) (amortizado) en cada uno de estos casos.
+ * tiempo <i>O</i>(1) (amortizado) en cada uno de estos casos.</p>
+ *
+ * <p>Por omisión las colisiones se resuelven encadenando las entradas en
+ * listas ({@link TipoDiccionario#ENCADENADO}). Con {@link
+ * TipoDiccionario#ROBIN_HOOD} las llaves, los valores y sus picadillos se
+ * guardan en arreglos paralelos, y una llave que está más lejos de su casilla
+ * original desplaza a las que están más cerca de la suya; así no hay un nodo
+ * ni una entrada por cada llave, y las búsquedas recorren memoria
+ * contigua.</p>
+ *
+ * <p>Con {@link #setCrecimientoIncremental} el diccionario encadenado no
+ * reacomoda todas sus entradas de golpe al crecer: el arreglo anterior y el
+ * nuevo coexisten, y cada llamada a {@link #agrega}, {@link #get}, {@link
+ * #contiene} o {@link #elimina} migra un número acotado de casillas.</p>
+ *
+ * <p>Con {@link #setResiembra} el diccionario usa un picadillo de una {@link
+ * FamiliaPicadillos} con una semilla aleatoria, y si alguna llave agregada
+ * colisiona más veces que un umbral, cambia de semilla y reacomoda todas las
+ * entradas. Con la familia de {@link AlgoritmoPicadillo#SIPHASH_STRING} (la
+ * única que regresa {@link FabricaPicadillos#getFamilia}), quien no conoce
+ * la semilla no puede fabricar llaves que caigan todas en la misma casilla,
+ * y las búsquedas toman tiempo <em>O</em>(1) esperado aunque las llaves sean
+ * hostiles. Con una familia de un algoritmo que no es criptográfico no hay
+ * tal garantía: hay llaves que chocan con cualquier semilla.</p>
+ *
+ * <p>Con {@link #agrega(Object, Object, long)} una entrada caduca después de
+ * un tiempo de vida. Las entradas caducas se eliminan al encontrarlas en una
+ * búsqueda, y cada llamada a {@link #agrega}, {@link #get}, {@link
+ * #contiene} o {@link #elimina} revisa además un número acotado de casillas
+ * (o las que se pidan con {@link #barre}); no hace falta recorrer todas las
+ * llaves para purgar el diccionario.</p>
  */
 public class Diccionario<K, V> implements Iterable<V> {
 
@@ -21,37 +51,145 @@ public class Diccionario<K, V> implements Iterable<V> {
         public K llave;
         /* El valor. */
         public V valor;
+        /* El picadillo de la llave. */
+        public int picadillo;
+        /* Cuándo caduca la entrada. */
+        public long caducidad;
 
         /* Construye una nueva entrada. */
-        public Entrada(K llave, V valor) {
-            // Aquí va su código.
+        public Entrada(K llave, V valor, int picadillo, long caducidad) {
+            this.llave = llave;
+            this.valor = valor;
+            this.picadillo = picadillo;
+            this.caducidad = caducidad;
         }
     }
 
     /* Clase privada para iteradores de diccionarios. */
-    private class Iterador implements Iterator<V> {
+    private class Iterador implements IteradorDiccionario<K, V> {
 
         /* En qué lista estamos. */
         private int indice;
         /* Iterador auxiliar. */
         private Iterator<Diccionario<K,V>.Entrada> iterador;
+        /* La última entrada regresada. */
+        private Entrada actual;
 
         /* Construye un nuevo iterador, auxiliándose de las listas del
          * diccionario. */
         public Iterador() {
-            // Aquí va su código.
+            indice = 0;
+            buscaLista();
+        }
+
+        /* Mueve el iterador auxiliar a la siguiente lista no vacía. */
+        private void buscaLista() {
+            iterador = null;
+            while (indice < entradas.length) {
+                Lista<Entrada> lista = entradas[indice++];
+                if (lista != null && !lista.esVacio()) {
+                    iterador = lista.iterator();
+                    return;
+                }
+            }
         }
 
         /* Nos dice si hay un siguiente elemento. */
         public boolean hasNext() {
-            // Aquí va su código.
-            return false;
+            return iterador != null;
+        }
+
+        /* Regresa la siguiente llave. */
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            actual = iterador.next();
+            if (!iterador.hasNext())
+                buscaLista();
+            return actual.llave;
+        }
+
+        /* Regresa el valor de la última llave. */
+        public V getValor() {
+            if (actual == null)
+                throw new NoSuchElementException();
+            return actual.valor;
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Clase privada para iteradores de diccionarios Robin Hood. */
+    private class IteradorRobinHood implements IteradorDiccionario<K, V> {
+
+        /* La siguiente casilla ocupada. */
+        private int indice;
+        /* La casilla de la última llave regresada. */
+        private int actual;
+
+        /* Construye un nuevo iterador. */
+        public IteradorRobinHood() {
+            indice = actual = -1;
+            buscaCasilla();
+        }
+
+        /* Mueve el índice a la siguiente casilla ocupada. */
+        private void buscaCasilla() {
+            do {
+                ++indice;
+            } while (indice < llavesRH.length && llavesRH[indice] == null);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        public boolean hasNext() {
+            return indice < llavesRH.length;
+        }
+
+        /* Regresa la siguiente llave. */
+        public K next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            actual = indice;
+            buscaCasilla();
+            return llavesRH[actual];
+        }
+
+        /* Regresa el valor de la última llave. */
+        public V getValor() {
+            if (actual == -1)
+                throw new NoSuchElementException();
+            return valoresRH[actual];
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Clase privada para iterar los valores con un iterador de entradas. */
+    private class IteradorValores implements Iterator<V> {
+
+        /* El iterador de entradas. */
+        private IteradorDiccionario<K, V> iterador;
+
+        /* Construye un nuevo iterador. */
+        public IteradorValores() {
+            iterador = iteradorEntradas();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        public boolean hasNext() {
+            return iterador.hasNext();
         }
 
         /* Regresa el siguiente elemento. */
         public V next() {
-            // Aquí va su código.
-            return null;
+            iterador.next();
+            return iterador.getValor();
         }
 
         /* No lo implementamos: siempre lanza una excepción. */
@@ -62,6 +200,12 @@ public class Diccionario<K, V> implements Iterable<V> {
 
     /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
     private static final int MIN_N = 64;
+    /* Casillas del arreglo anterior que migramos en cada operación. */
+    private static final int MIGRACIONES = 8;
+    /* Casillas que revisamos en cada operación buscando entradas caducas. */
+    private static final int BARRIDO = 2;
+    /* La caducidad de las entradas que no caducan. */
+    private static final long NUNCA = Long.MAX_VALUE;
 
     /* Máscara para no usar módulo. */
     private int mascara;
@@ -71,6 +215,37 @@ public class Diccionario<K, V> implements Iterable<V> {
     private Lista<Entrada>[] entradas;
     /* Número de valores*/
     private int elementos;
+    /* Cómo guardamos las entradas. */
+    private TipoDiccionario tipo;
+    /* Si crecemos de manera incremental. */
+    private boolean incremental;
+    /* El arreglo anterior mientras migramos sus entradas; null si no estamos
+     * migrando. */
+    private Lista<Entrada>[] viejas;
+    /* Las casillas del arreglo anterior menores a ésta ya fueron migradas. */
+    private int migradas;
+    /* Llaves del diccionario Robin Hood. */
+    private K[] llavesRH;
+    /* Valores del diccionario Robin Hood. */
+    private V[] valoresRH;
+    /* Picadillos de las llaves del diccionario Robin Hood. */
+    private int[] picadillosRH;
+    /* La familia de la que tomamos picadillos al cambiar de semilla; null si
+     * no cambiamos de semilla. */
+    private FamiliaPicadillos<K> familia;
+    /* Colisiones de una llave a partir de las cuales cambiamos de semilla. */
+    private int umbral;
+    /* Cuántas veces hemos cambiado de semilla. */
+    private int resiembras;
+    /* Caducidades de las llaves del diccionario Robin Hood; null si ninguna
+     * entrada ha tenido tiempo de vida. */
+    private long[] caducidadesRH;
+    /* Si alguna entrada ha tenido tiempo de vida. */
+    private boolean caducables;
+    /* La siguiente casilla a revisar buscando entradas caducas. */
+    private int barrido;
+    /* El reloj para las caducidades. */
+    private Reloj reloj = () -> System.currentTimeMillis();
 
     /* Truco para crear un arreglo genérico. Es necesario hacerlo así por cómo
        Java implementa sus genéricos; de otra forma obtenemos advertencias del
@@ -80,12 +255,22 @@ public class Diccionario<K, V> implements Iterable<V> {
         return (Lista<Entrada>[])arreglo;
     }
 
+    /* Truco para crear el arreglo genérico de llaves. */
+    @SuppressWarnings("unchecked") private K[] nuevoArregloLlaves(int n) {
+        return (K[])(new Object[n]);
+    }
+
+    /* Truco para crear el arreglo genérico de valores. */
+    @SuppressWarnings("unchecked") private V[] nuevoArregloValores(int n) {
+        return (V[])(new Object[n]);
+    }
+
     /**
      * Construye un diccionario con un tamaño inicial y picadillo
      * predeterminados.
      */
     public Diccionario() {
-        // Aquí va su código.
+        this(MIN_N, (K llave) -> llave.hashCode());
     }
 
     /**
@@ -94,7 +279,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @param tam el tamaño a utilizar.
      */
     public Diccionario(int tam) {
-        // Aquí va su código.
+        this(tam, (K llave) -> llave.hashCode());
     }
 
     /**
@@ -103,7 +288,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @param picadillo el picadillo a utilizar.
      */
     public Diccionario(Picadillo<K> picadillo) {
-        // Aquí va su código.
+        this(MIN_N, picadillo);
     }
 
     /**
@@ -113,7 +298,42 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @param picadillo el picadillo a utilizar.
      */
     public Diccionario(int tam, Picadillo<K> picadillo) {
-        // Aquí va su código.
+        this(tam, picadillo, TipoDiccionario.ENCADENADO);
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial y picadillo
+     * predeterminados, que guarda sus entradas de la manera indicada.
+     * @param tipo cómo guardar las entradas.
+     */
+    public Diccionario(TipoDiccionario tipo) {
+        this(MIN_N, (K llave) -> llave.hashCode(), tipo);
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial, un método de picadillo y
+     * una manera de guardar las entradas definidos por el usuario.
+     * @param tam el tamaño del diccionario.
+     * @param picadillo el picadillo a utilizar.
+     * @param tipo cómo guardar las entradas.
+     * @throws IllegalArgumentException si el picadillo o el tipo son nulos.
+     */
+    public Diccionario(int tam, Picadillo<K> picadillo, TipoDiccionario tipo) {
+        if (picadillo == null || tipo == null)
+            throw new IllegalArgumentException();
+        this.picadillo = picadillo;
+        this.tipo = tipo;
+        int n = MIN_N;
+        while (n < tam * 2)
+            n <<= 1;
+        mascara = n - 1;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            llavesRH = nuevoArregloLlaves(n);
+            valoresRH = nuevoArregloValores(n);
+            picadillosRH = new int[n];
+        } else {
+            entradas = nuevoArreglo(n);
+        }
     }
 
     /**
@@ -125,7 +345,477 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @throws IllegalArgumentException si la llave o el valor son nulos.
      */
     public void agrega(K llave, V valor) {
-        // Aquí va su código.
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        agrega(llave, valor, picadillo.picadillo(llave), NUNCA);
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada,
+     * que caduca después del tiempo de vida recibido. Si la llave ya había
+     * sido utilizada antes para agregar un valor, el diccionario reemplaza
+     * ese valor y su caducidad con los recibidos aquí. Una vez caduca, la
+     * entrada se comporta como si hubiera sido eliminada.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @param vida el tiempo de vida de la entrada, en milisegundos.
+     * @throws IllegalArgumentException si la llave o el valor son nulos, o si
+     *         el tiempo de vida es menor a uno.
+     */
+    public void agrega(K llave, V valor, long vida) {
+        if (llave == null || valor == null || vida < 1)
+            throw new IllegalArgumentException();
+        if (!caducables) {
+            caducables = true;
+            if (tipo == TipoDiccionario.ROBIN_HOOD)
+                caducidadesRH = nuevasCaducidades(llavesRH.length);
+        }
+        long ahora = reloj.ahora();
+        long caducidad = vida > NUNCA - ahora ? NUNCA : ahora + vida;
+        agrega(llave, valor, picadillo.picadillo(llave), caducidad);
+    }
+
+    /* Agrega la entrada con el picadillo y la caducidad recibidos. */
+    private void agrega(K llave, V valor, int p, long caducidad) {
+        if (caducables)
+            barre(BARRIDO);
+        int colisiones;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            colisiones = agregaRobinHood(llave, valor, p, caducidad);
+            if (colisiones == -1)
+                return;
+        } else {
+            migra();
+            Lista<Entrada>[] arreglo = arreglo(p);
+            int i = p & (arreglo.length - 1);
+            if (arreglo[i] == null)
+                arreglo[i] = new Lista<Entrada>();
+            Entrada e = buscaEntrada(arreglo[i], llave, p);
+            if (e != null) {
+                e.valor = valor;
+                e.caducidad = caducidad;
+                return;
+            }
+            arreglo[i].agrega(new Entrada(llave, valor, p, caducidad));
+            colisiones = arreglo[i].getLongitud() - 1;
+        }
+        ++elementos;
+        if (carga() >= MAXIMA_CARGA)
+            crece();
+        else if (familia != null && colisiones > umbral)
+            resiembra();
+    }
+
+    /**
+     * Agrega los valores al diccionario, cada uno con la llave en la misma
+     * posición del arreglo de llaves; es equivalente a llamar {@link
+     * #agrega(Object, Object)} con cada par, en orden. El diccionario crece
+     * a lo más una vez, antes de agregar, y las llaves se agregan agrupadas
+     * por la región del arreglo en que caen.
+     * @param llaves las llaves.
+     * @param valores los valores.
+     * @throws IllegalArgumentException si los arreglos tienen distinta
+     *         longitud, o si alguna llave o valor es nulo; en ese caso no se
+     *         agrega nada.
+     */
+    public void agregaTodos(K[] llaves, V[] valores) {
+        if (llaves.length != valores.length)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < llaves.length; ++i)
+            if (llaves[i] == null || valores[i] == null)
+                throw new IllegalArgumentException();
+        int[] picadillos = new int[llaves.length];
+        for (int i = 0; i < llaves.length; ++i)
+            picadillos[i] = picadillo.picadillo(llaves[i]);
+        reserva(elementos + llaves.length);
+        /* Si cambiamos de semilla a la mitad, los picadillos ya no sirven. */
+        int semilla = resiembras;
+        for (int i : ordenPorCasilla(picadillos)) {
+            int p = resiembras == semilla ? picadillos[i] :
+                picadillo.picadillo(llaves[i]);
+            agrega(llaves[i], valores[i], p, NUNCA);
+        }
+    }
+
+    /**
+     * Agrega los valores al diccionario, cada uno con la llave en la misma
+     * posición al iterar las colecciones; es equivalente a llamar {@link
+     * #agregaTodos(Object[], Object[])} con los elementos de las colecciones.
+     * @param llaves las llaves.
+     * @param valores los valores.
+     * @throws IllegalArgumentException si las colecciones tienen distinto
+     *         número de elementos, o si alguna llave o valor es nulo; en ese
+     *         caso no se agrega nada.
+     */
+    public void agregaTodos(Coleccion<K> llaves, Coleccion<V> valores) {
+        if (llaves.getElementos() != valores.getElementos())
+            throw new IllegalArgumentException();
+        K[] k = nuevoArregloLlaves(llaves.getElementos());
+        V[] v = nuevoArregloValores(valores.getElementos());
+        int i = 0;
+        for (K llave : llaves)
+            k[i++] = llave;
+        i = 0;
+        for (V valor : valores)
+            v[i++] = valor;
+        agregaTodos(k, v);
+    }
+
+    /**
+     * Busca las llaves en el diccionario y deja en cada posición del arreglo
+     * de salida el valor asociado a la llave en la misma posición, o
+     * <code>null</code> si la llave no está (o es nula). Las llaves se buscan
+     * agrupadas por la región del arreglo en que caen.
+     * @param llaves las llaves a buscar.
+     * @param salida el arreglo donde se dejan los valores.
+     * @return el número de llaves que están en el diccionario.
+     * @throws IllegalArgumentException si el arreglo de salida es más corto
+     *         que el de llaves.
+     */
+    public int getTodos(K[] llaves, V[] salida) {
+        if (salida.length < llaves.length)
+            throw new IllegalArgumentException();
+        if (caducables)
+            barre(BARRIDO);
+        int[] picadillos = new int[llaves.length];
+        for (int i = 0; i < llaves.length; ++i)
+            if (llaves[i] != null)
+                picadillos[i] = picadillo.picadillo(llaves[i]);
+        int encontradas = 0;
+        for (int i : ordenPorCasilla(picadillos)) {
+            salida[i] = llaves[i] == null ? null :
+                busca(llaves[i], picadillos[i]);
+            if (salida[i] != null)
+                ++encontradas;
+        }
+        return encontradas;
+    }
+
+    /**
+     * Busca las llaves de la colección en el diccionario, y agrega a la
+     * colección de salida los valores de las que están, en el orden en que
+     * se iteran las llaves.
+     * @param llaves las llaves a buscar.
+     * @param salida la colección a la que se agregan los valores.
+     * @return el número de llaves que están en el diccionario.
+     */
+    public int getTodos(Coleccion<K> llaves, Coleccion<V> salida) {
+        K[] k = nuevoArregloLlaves(llaves.getElementos());
+        V[] v = nuevoArregloValores(k.length);
+        int i = 0;
+        for (K llave : llaves)
+            k[i++] = llave;
+        int encontradas = getTodos(k, v);
+        for (V valor : v)
+            if (valor != null)
+                salida.agrega(valor);
+        return encontradas;
+    }
+
+    /* Crece el diccionario, si hace falta, para que quepan el número de
+     * entradas recibido sin volver a crecer. */
+    private void reserva(int total) {
+        int n = mascara + 1;
+        while ((double)total / n >= MAXIMA_CARGA && n < (1 << 30))
+            n <<= 1;
+        if (n > mascara + 1)
+            crece(n);
+    }
+
+    /* Regresa los índices de los picadillos ordenados por la región del
+     * arreglo en que caen: hay tantas regiones como una potencia de 2 cerca
+     * del número de picadillos, así que el ordenamiento por cuentas es
+     * lineal, y es estable, así que una llave repetida conserva su orden. */
+    private int[] ordenPorCasilla(int[] picadillos) {
+        int n = picadillos.length;
+        int bits = Integer.numberOfTrailingZeros(mascara + 1);
+        int bitsRegion = Math.min(bits, 32 - Integer.numberOfLeadingZeros(n));
+        int corrimiento = bits - bitsRegion;
+        int[] cuentas = new int[(1 << bitsRegion) + 1];
+        for (int p : picadillos)
+            ++cuentas[((p & mascara) >>> corrimiento) + 1];
+        for (int r = 1; r < cuentas.length; ++r)
+            cuentas[r] += cuentas[r - 1];
+        int[] orden = new int[n];
+        for (int i = 0; i < n; ++i)
+            orden[cuentas[(picadillos[i] & mascara) >>> corrimiento]++] = i;
+        return orden;
+    }
+
+    /* Busca la entrada con la llave en la lista; regresa null si no está.
+     * Sólo comparamos con equals las llaves con el mismo picadillo. */
+    private Entrada buscaEntrada(Lista<Entrada> lista, K llave, int p) {
+        if (lista == null)
+            return null;
+        for (Entrada e : lista)
+            if (e.picadillo == p && e.llave.equals(llave))
+                return e;
+        return null;
+    }
+
+    /* Duplica el tamaño del arreglo y reacomoda todas las entradas. */
+    private void crece() {
+        crece((mascara + 1) * 2);
+    }
+
+    /* Cambia el tamaño del arreglo a n (una potencia de 2 mayor al tamaño
+     * actual) y reacomoda todas las entradas. */
+    private void crece(int n) {
+        terminaMigracion();
+        mascara = n - 1;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            K[] llaves = llavesRH;
+            V[] valores = valoresRH;
+            int[] picadillos = picadillosRH;
+            long[] caducidades = caducidadesRH;
+            llavesRH = nuevoArregloLlaves(n);
+            valoresRH = nuevoArregloValores(n);
+            picadillosRH = new int[n];
+            if (caducidades != null)
+                caducidadesRH = nuevasCaducidades(n);
+            for (int i = 0; i < llaves.length; ++i)
+                if (llaves[i] != null)
+                    agregaRobinHood(llaves[i], valores[i], picadillos[i],
+                                    caducidades == null ? NUNCA :
+                                    caducidades[i]);
+            return;
+        }
+        viejas = entradas;
+        migradas = 0;
+        entradas = nuevoArreglo(n);
+        if (!incremental)
+            terminaMigracion();
+    }
+
+    /* Cambia a un picadillo de la familia con una semilla aleatoria, y
+     * reacomoda todas las entradas sin cambiar el tamaño del arreglo. Si aun
+     * así alguna llave colisiona más veces que el umbral, las colisiones no
+     * se deben a la semilla (con SipHash eso sólo pasa por azar, o si la
+     * familia no es una función pseudoaleatoria), y duplicamos el umbral
+     * para no volver a reacomodar todo en cada inserción. */
+    private void resiembra() {
+        terminaMigracion();
+        picadillo = familia.getPicadillo(FabricaPicadillos.semillaAleatoria());
+        ++resiembras;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            K[] llaves = llavesRH;
+            V[] valores = valoresRH;
+            long[] caducidades = caducidadesRH;
+            llavesRH = nuevoArregloLlaves(llaves.length);
+            valoresRH = nuevoArregloValores(llaves.length);
+            if (caducidades != null)
+                caducidadesRH = nuevasCaducidades(llaves.length);
+            for (int i = 0; i < llaves.length; ++i)
+                if (llaves[i] != null)
+                    agregaRobinHood(llaves[i], valores[i],
+                                    picadillo.picadillo(llaves[i]),
+                                    caducidades == null ? NUNCA :
+                                    caducidades[i]);
+        } else {
+            Lista<Entrada>[] viejas = entradas;
+            entradas = nuevoArreglo(viejas.length);
+            for (Lista<Entrada> lista : viejas) {
+                if (lista == null)
+                    continue;
+                for (Entrada e : lista) {
+                    e.picadillo = picadillo.picadillo(e.llave);
+                    int i = e.picadillo & mascara;
+                    if (entradas[i] == null)
+                        entradas[i] = new Lista<Entrada>();
+                    entradas[i].agrega(e);
+                }
+            }
+        }
+        while (peorColision() > umbral)
+            umbral *= 2;
+    }
+
+    /* Regresa las colisiones de la llave que más tiene, con el criterio que
+     * usamos para decidir si cambiamos de semilla. */
+    private int peorColision() {
+        if (tipo != TipoDiccionario.ROBIN_HOOD)
+            return colisionMaxima();
+        int peor = 0;
+        for (int i = 0; i < llavesRH.length; ++i)
+            if (llavesRH[i] != null && distanciaRobinHood(i) > peor)
+                peor = distanciaRobinHood(i);
+        return peor;
+    }
+
+    /* Regresa el arreglo donde está (o debe estar) una llave con el picadillo
+     * recibido: el anterior si su casilla ahí no ha sido migrada, o el
+     * actual. */
+    private Lista<Entrada>[] arreglo(int p) {
+        if (viejas != null && (p & (viejas.length - 1)) >= migradas)
+            return viejas;
+        return entradas;
+    }
+
+    /* Migra a lo más MIGRACIONES casillas del arreglo anterior. */
+    private void migra() {
+        if (viejas == null)
+            return;
+        int fin = Math.min(migradas + MIGRACIONES, viejas.length);
+        while (migradas < fin) {
+            Lista<Entrada> lista = viejas[migradas];
+            viejas[migradas++] = null;
+            if (lista == null)
+                continue;
+            for (Entrada e : lista) {
+                int i = e.picadillo & mascara;
+                if (entradas[i] == null)
+                    entradas[i] = new Lista<Entrada>();
+                entradas[i].agrega(e);
+            }
+        }
+        if (migradas == viejas.length)
+            viejas = null;
+    }
+
+    /* Migra todas las casillas que falten del arreglo anterior. */
+    private void terminaMigracion() {
+        while (viejas != null)
+            migra();
+    }
+
+    /* Nos dice qué tan lejos está la llave en la casilla i de su casilla
+     * original. */
+    private int distanciaRobinHood(int i) {
+        return (i - (picadillosRH[i] & mascara)) & mascara;
+    }
+
+    /* Agrega la llave en los arreglos abiertos; si una llave en el camino está
+     * más cerca de su casilla original que la que estamos agregando, la
+     * desplazamos y seguimos agregando la desplazada. Regresa -1 si la llave
+     * ya estaba en el diccionario, o la distancia a la que quedó la última
+     * llave desplazada de su casilla original. */
+    private int agregaRobinHood(K llave, V valor, int p, long caducidad) {
+        int i = p & mascara;
+        int d = 0;
+        while (llavesRH[i] != null) {
+            if (picadillosRH[i] == p && llavesRH[i].equals(llave)) {
+                valoresRH[i] = valor;
+                if (caducidadesRH != null)
+                    caducidadesRH[i] = caducidad;
+                return -1;
+            }
+            int di = distanciaRobinHood(i);
+            if (di < d) {
+                K k = llavesRH[i];
+                V v = valoresRH[i];
+                int q = picadillosRH[i];
+                llavesRH[i] = llave;
+                valoresRH[i] = valor;
+                picadillosRH[i] = p;
+                llave = k;
+                valor = v;
+                p = q;
+                if (caducidadesRH != null) {
+                    long c = caducidadesRH[i];
+                    caducidadesRH[i] = caducidad;
+                    caducidad = c;
+                }
+                d = di;
+            }
+            i = (i + 1) & mascara;
+            ++d;
+        }
+        llavesRH[i] = llave;
+        valoresRH[i] = valor;
+        picadillosRH[i] = p;
+        if (caducidadesRH != null)
+            caducidadesRH[i] = caducidad;
+        return d;
+    }
+
+    /* Regresa un arreglo de caducidades en el que nada caduca. */
+    private static long[] nuevasCaducidades(int n) {
+        long[] caducidades = new long[n];
+        for (int i = 0; i < n; ++i)
+            caducidades[i] = NUNCA;
+        return caducidades;
+    }
+
+    /* Regresa la casilla de la llave en los arreglos abiertos, o -1 si no
+     * está. La búsqueda se detiene en cuanto encontramos una llave más cerca
+     * de su casilla original de lo que estaría la buscada. */
+    private int buscaRobinHood(K llave, int p) {
+        int i = p & mascara;
+        for (int d = 0; llavesRH[i] != null; ++d) {
+            if (distanciaRobinHood(i) < d)
+                return -1;
+            if (picadillosRH[i] == p && llavesRH[i].equals(llave))
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Vacía la casilla i de los arreglos abiertos, recorriendo hacia atrás las
+     * llaves que le siguen y no están en su casilla original. */
+    private void eliminaRobinHood(int i) {
+        int j = (i + 1) & mascara;
+        while (llavesRH[j] != null && distanciaRobinHood(j) > 0) {
+            llavesRH[i] = llavesRH[j];
+            valoresRH[i] = valoresRH[j];
+            picadillosRH[i] = picadillosRH[j];
+            if (caducidadesRH != null)
+                caducidadesRH[i] = caducidadesRH[j];
+            i = j;
+            j = (j + 1) & mascara;
+        }
+        llavesRH[i] = null;
+        valoresRH[i] = null;
+    }
+
+    /* Regresa el valor asociado a la llave, o null si no está. Es visible en
+     * el paquete para que Cache busque con una sola consulta. */
+    V busca(K llave) {
+        if (llave == null)
+            return null;
+        if (caducables)
+            barre(BARRIDO);
+        return busca(llave, picadillo.picadillo(llave));
+    }
+
+    /* Regresa el valor asociado a la llave con el picadillo recibido, o null
+     * si no está. */
+    private V busca(K llave, int p) {
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            int i = buscaRobinHood(llave, p);
+            if (i == -1)
+                return null;
+            if (caducidadesRH != null && caduca(caducidadesRH[i])) {
+                eliminaRobinHood(i);
+                --elementos;
+                return null;
+            }
+            return valoresRH[i];
+        }
+        migra();
+        Lista<Entrada>[] arreglo = arreglo(p);
+        int i = p & (arreglo.length - 1);
+        Entrada e = buscaEntrada(arreglo[i], llave, p);
+        if (e == null)
+            return null;
+        if (caduca(e.caducidad)) {
+            eliminaEntrada(arreglo, i, e);
+            --elementos;
+            return null;
+        }
+        return e.valor;
+    }
+
+    /* Nos dice si ya pasó la caducidad. */
+    private boolean caduca(long caducidad) {
+        return caducidad != NUNCA && caducidad <= reloj.ahora();
+    }
+
+    /* Elimina la entrada de la lista en la casilla i del arreglo. */
+    private void eliminaEntrada(Lista<Entrada>[] arreglo, int i, Entrada e) {
+        arreglo[i].elimina(e);
+        if (arreglo[i].esVacio())
+            arreglo[i] = null;
     }
 
     /**
@@ -135,8 +825,10 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @throws NoSuchElementException si la llave no está en el diccionario.
      */
     public V get(K llave) {
-        // Aquí va su código.
-        return null;
+        V valor = busca(llave);
+        if (valor == null)
+            throw new NoSuchElementException();
+        return valor;
     }
 
     /**
@@ -146,8 +838,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      *         <tt>false</tt> en otro caso.
      */
     public boolean contiene(K llave) {
-        // Aquí va su código.
-        return false;
+        return busca(llave) != null;
     }
 
     /**
@@ -157,7 +848,99 @@ public class Diccionario<K, V> implements Iterable<V> {
      *         el diccionario.
      */
     public void elimina(K llave) {
-        // Aquí va su código.
+        if (llave == null)
+            throw new NoSuchElementException();
+        if (caducables)
+            barre(BARRIDO);
+        int p = picadillo.picadillo(llave);
+        boolean caduca;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            int i = buscaRobinHood(llave, p);
+            if (i == -1)
+                throw new NoSuchElementException();
+            caduca = caducidadesRH != null && caduca(caducidadesRH[i]);
+            eliminaRobinHood(i);
+        } else {
+            migra();
+            Lista<Entrada>[] arreglo = arreglo(p);
+            int i = p & (arreglo.length - 1);
+            Entrada e = buscaEntrada(arreglo[i], llave, p);
+            if (e == null)
+                throw new NoSuchElementException();
+            caduca = caduca(e.caducidad);
+            eliminaEntrada(arreglo, i, e);
+        }
+        --elementos;
+        if (caduca)
+            throw new NoSuchElementException();
+    }
+
+    /**
+     * Revisa el número de casillas recibido, a partir de donde se quedó la
+     * revisión anterior, y elimina las entradas caducas que encuentre. Cada
+     * operación del diccionario ya revisa unas cuantas casillas; este método
+     * permite revisar más, por ejemplo periódicamente. Con el tamaño del
+     * diccionario ({@link #getElementos} entre {@link #carga}) como número de
+     * casillas se revisa todo el diccionario.
+     * @param casillas el número de casillas a revisar.
+     * @return el número de entradas caducas eliminadas.
+     */
+    public int barre(int casillas) {
+        if (!caducables)
+            return 0;
+        long ahora = reloj.ahora();
+        int eliminadas = 0;
+        int k = 0;
+        while (k < casillas) {
+            int i = barrido & mascara;
+            if (tipo == TipoDiccionario.ROBIN_HOOD) {
+                if (llavesRH[i] != null && caducidadesRH[i] <= ahora) {
+                    /* Otra llave pudo recorrerse a la casilla i. */
+                    eliminaRobinHood(i);
+                    ++eliminadas;
+                    continue;
+                }
+            } else if (entradas[i] != null) {
+                Entrada e;
+                while (entradas[i] != null &&
+                       (e = buscaCaducada(entradas[i], ahora)) != null) {
+                    eliminaEntrada(entradas, i, e);
+                    ++eliminadas;
+                }
+            }
+            barrido = (i + 1) & mascara;
+            ++k;
+        }
+        elementos -= eliminadas;
+        return eliminadas;
+    }
+
+    /* Busca una entrada caduca en la lista; regresa null si no hay. */
+    private Entrada buscaCaducada(Lista<Entrada> lista, long ahora) {
+        for (Entrada e : lista)
+            if (e.caducidad <= ahora)
+                return e;
+        return null;
+    }
+
+    /* Elimina todas las entradas caducas. */
+    private void purga() {
+        if (!caducables)
+            return;
+        terminaMigracion();
+        barre(mascara + 1);
+    }
+
+    /**
+     * Define el reloj con el que el diccionario decide si una entrada ya
+     * caducó. Por omisión se usa {@link System#currentTimeMillis}.
+     * @param reloj el reloj a utilizar.
+     * @throws IllegalArgumentException si el reloj es <code>null</code>.
+     */
+    public void setReloj(Reloj reloj) {
+        if (reloj == null)
+            throw new IllegalArgumentException();
+        this.reloj = reloj;
     }
 
     /**
@@ -166,8 +949,9 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return una lista con todas las llaves.
      */
     public Lista<K> llaves() {
-        // Aquí va su código.
-        return null;
+        Lista<K> llaves = new Lista<K>();
+        paraCada((K llave, V valor) -> llaves.agrega(llave));
+        return llaves;
     }
 
     /**
@@ -176,8 +960,9 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return una lista con todos los valores.
      */
     public Lista<V> valores() {
-        // Aquí va su código.
-        return null;
+        Lista<V> valores = new Lista<V>();
+        paraCada((K llave, V valor) -> valores.agrega(valor));
+        return valores;
     }
 
     /**
@@ -185,8 +970,15 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return cuántas colisiones hay en el diccionario.
      */
     public int colisiones() {
-        // Aquí va su código.
-        return 0;
+        purga();
+        if (tipo == TipoDiccionario.ROBIN_HOOD)
+            return colisionesRobinHood(false);
+        terminaMigracion();
+        int colisiones = 0;
+        for (Lista<Entrada> lista : entradas)
+            if (lista != null)
+                colisiones += lista.getLongitud() - 1;
+        return colisiones;
     }
 
     /**
@@ -195,8 +987,44 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return el máximo número de colisiones para una misma llave.
      */
     public int colisionMaxima() {
-        // Aquí va su código.
-        return 0;
+        purga();
+        if (tipo == TipoDiccionario.ROBIN_HOOD)
+            return colisionesRobinHood(true);
+        terminaMigracion();
+        int maxima = 0;
+        for (Lista<Entrada> lista : entradas)
+            if (lista != null && lista.getLongitud() - 1 > maxima)
+                maxima = lista.getLongitud() - 1;
+        return maxima;
+    }
+
+    /* Cuenta las colisiones en los arreglos abiertos con el mismo criterio que
+     * las listas: las llaves que comparten casilla original. Robin Hood deja
+     * juntas a las llaves con la misma casilla original, así que basta contar
+     * rachas, empezando en una casilla vacía (siempre hay una, porque la carga
+     * es menor a uno). */
+    private int colisionesRobinHood(boolean maxima) {
+        int inicio = 0;
+        while (llavesRH[inicio] != null)
+            ++inicio;
+        int total = 0, maximo = 0, racha = 0, anterior = -1;
+        for (int k = 1; k <= mascara + 1; ++k) {
+            int i = (inicio + k) & mascara;
+            if (llavesRH[i] == null) {
+                anterior = -1;
+                continue;
+            }
+            int casilla = picadillosRH[i] & mascara;
+            if (casilla == anterior) {
+                ++total;
+                if (++racha > maximo)
+                    maximo = racha;
+            } else {
+                racha = 0;
+                anterior = casilla;
+            }
+        }
+        return maxima ? maximo : total;
     }
 
     /**
@@ -204,17 +1032,16 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return la carga del diccionario.
      */
     public double carga() {
-        // Aquí va su código.
-        return 0;
+        return (double)elementos / (mascara + 1);
     }
 
     /**
-     * Regresa el número de entradas en el diccionario.
+     * Regresa el número de entradas en el diccionario. Las entradas caducas
+     * cuentan hasta que son eliminadas.
      * @return el número de entradas en el diccionario.
      */
     public int getElementos() {
-        // Aquí va su código.
-        return 0;
+        return elementos;
     }
 
     /**
@@ -226,6 +1053,73 @@ public class Diccionario<K, V> implements Iterable<V> {
         return elementos == 0;
     }
 
+    /**
+     * Regresa cómo guarda sus entradas el diccionario.
+     * @return cómo guarda sus entradas el diccionario.
+     */
+    public TipoDiccionario getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Define si el diccionario crece de manera incremental. Al crecer de
+     * manera incremental, ninguna operación reacomoda más de un número acotado
+     * de casillas; a cambio, mientras dura la migración se conservan los dos
+     * arreglos. Al desactivarlo se termina cualquier migración pendiente.
+     * @param incremental si el diccionario debe crecer de manera incremental.
+     * @throws UnsupportedOperationException si el diccionario no es
+     *         encadenado.
+     */
+    public void setCrecimientoIncremental(boolean incremental) {
+        if (tipo != TipoDiccionario.ENCADENADO)
+            throw new UnsupportedOperationException();
+        this.incremental = incremental;
+        if (!incremental)
+            terminaMigracion();
+    }
+
+    /**
+     * Nos dice si el diccionario crece de manera incremental.
+     * @return <code>true</code> si el diccionario crece de manera incremental,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esCrecimientoIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Hace que el diccionario tome sus picadillos de la familia recibida, con
+     * una semilla aleatoria que vuelve a elegir (reacomodando todas las
+     * entradas) cada vez que una llave agregada colisiona más veces que el
+     * umbral. Si después de cambiar de semilla todavía hay una llave con más
+     * colisiones que el umbral, el umbral se duplica. En el diccionario
+     * {@link TipoDiccionario#ROBIN_HOOD} las colisiones de una llave son la
+     * distancia a su casilla original. Para resistir llaves hostiles la
+     * familia debe ser la de {@link AlgoritmoPicadillo#SIPHASH_STRING}.
+     * @param familia la familia de picadillos, o <code>null</code> para
+     *        dejar de cambiar de semilla (conservando el picadillo actual).
+     * @param umbral las colisiones de una llave a partir de las cuales se
+     *        cambia de semilla.
+     * @throws IllegalArgumentException si el umbral es menor a uno.
+     */
+    public void setResiembra(FamiliaPicadillos<K> familia, int umbral) {
+        if (umbral < 1)
+            throw new IllegalArgumentException();
+        this.familia = familia;
+        this.umbral = umbral;
+        if (familia != null)
+            resiembra();
+    }
+
+    /**
+     * Regresa cuántas veces el diccionario ha cambiado la semilla de su
+     * picadillo.
+     * @return cuántas veces el diccionario ha cambiado de semilla.
+     */
+    public int getResiembras() {
+        return resiembras;
+    }
+
     /**
      * Nos dice si el diccionario es igual al objeto recibido.
      * @param o el objeto que queremos saber si es igual al diccionario.
@@ -237,8 +1131,38 @@ public class Diccionario<K, V> implements Iterable<V> {
         if (!(o instanceof Diccionario))
             return false;
         @SuppressWarnings("unchecked") Diccionario<K, V> d = (Diccionario<K, V>)o;
-        // Aquí va su código.
-        return false;
+        purga();
+        d.purga();
+        if (elementos != d.elementos)
+            return false;
+        /* Si los dos usan el mismo picadillo, le pasamos al otro los
+         * picadillos que ya tenemos guardados. */
+        boolean mismo = picadillo == d.picadillo;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            for (int i = 0; i < llavesRH.length; ++i)
+                if (llavesRH[i] != null &&
+                    !contieneEntrada(d, mismo, llavesRH[i], valoresRH[i],
+                                     picadillosRH[i]))
+                    return false;
+            return true;
+        }
+        terminaMigracion();
+        for (Lista<Entrada> lista : entradas)
+            if (lista != null)
+                for (Entrada e : lista)
+                    if (!contieneEntrada(d, mismo, e.llave, e.valor,
+                                         e.picadillo))
+                        return false;
+        return true;
+    }
+
+    /* Nos dice si el diccionario recibido asocia la llave al valor. */
+    private boolean contieneEntrada(Diccionario<K, V> d, boolean mismo,
+                                    K llave, V valor, int p) {
+        if (!mismo)
+            p = d.picadillo.picadillo(llave);
+        V v = d.busca(llave, p);
+        return v != null && v.equals(valor);
     }
 
     /**
@@ -247,7 +1171,142 @@ public class Diccionario<K, V> implements Iterable<V> {
      * @return un iterador para iterar el diccionario.
      */
     @Override public Iterator<V> iterator() {
-        // Aquí va su código.
-        return null;
+        return new IteradorValores();
+    }
+
+    /**
+     * Regresa un iterador para iterar las entradas del diccionario, sin
+     * ningún orden específico. El iterador regresa las llaves, y con {@link
+     * IteradorDiccionario#getValor} el valor de la última llave regresada;
+     * no crea un objeto por cada entrada. El diccionario no debe modificarse
+     * mientras se itera.
+     * @return un iterador para iterar las entradas del diccionario.
+     */
+    public IteradorDiccionario<K, V> iteradorEntradas() {
+        purga();
+        if (tipo == TipoDiccionario.ROBIN_HOOD)
+            return new IteradorRobinHood();
+        terminaMigracion();
+        return new Iterador();
+    }
+
+    /**
+     * Realiza la acción recibida sobre cada entrada del diccionario, sin
+     * ningún orden específico, recorriendo directamente sus casillas.
+     * @param accion la acción a realizar sobre cada entrada.
+     */
+    public void paraCada(AccionEntrada<K, V> accion) {
+        purga();
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            for (int i = 0; i < llavesRH.length; ++i)
+                if (llavesRH[i] != null)
+                    accion.actua(llavesRH[i], valoresRH[i]);
+            return;
+        }
+        terminaMigracion();
+        for (Lista<Entrada> lista : entradas)
+            if (lista != null)
+                for (Entrada e : lista)
+                    accion.actua(e.llave, e.valor);
+    }
+
+    /**
+     * Realiza la acción recibida sobre las entradas de una de varias partes
+     * del diccionario. Las casillas se dividen en rangos contiguos y sólo se
+     * recorre el rango de la parte recibida; como la casilla de una entrada
+     * sale de su picadillo, cada parte tiene las entradas de un rango de
+     * picadillos, y cada entrada está en exactamente una parte. A diferencia
+     * de {@link #paraCada(AccionEntrada)} este método no modifica el
+     * diccionario, así que varios hilos pueden recorrer partes distintas a la
+     * vez mientras nadie lo modifique. Las entradas caducas se omiten.
+     * @param accion la acción a realizar sobre cada entrada.
+     * @param parte la parte a recorrer, entre 0 y el número de partes.
+     * @param partes el número de partes.
+     * @throws IllegalArgumentException si el número de partes es menor a uno,
+     *         o la parte no está entre 0 y el número de partes.
+     */
+    public void paraCada(AccionEntrada<K, V> accion, int parte, int partes) {
+        if (partes < 1 || parte < 0 || parte >= partes)
+            throw new IllegalArgumentException();
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            int fin = (int)((long)llavesRH.length * (parte + 1) / partes);
+            for (int i = (int)((long)llavesRH.length * parte / partes);
+                 i < fin; ++i)
+                if (llavesRH[i] != null &&
+                    (caducidadesRH == null || !caduca(caducidadesRH[i])))
+                    accion.actua(llavesRH[i], valoresRH[i]);
+            return;
+        }
+        paraCada(entradas, accion, parte, partes);
+        /* Las casillas ya migradas del arreglo anterior son null. */
+        if (viejas != null)
+            paraCada(viejas, accion, parte, partes);
+    }
+
+    /* Realiza la acción sobre las entradas de la parte del arreglo. */
+    private void paraCada(Lista<Entrada>[] arreglo, AccionEntrada<K, V> accion,
+                          int parte, int partes) {
+        int fin = (int)((long)arreglo.length * (parte + 1) / partes);
+        for (int i = (int)((long)arreglo.length * parte / partes); i < fin; ++i)
+            if (arreglo[i] != null)
+                for (Entrada e : arreglo[i])
+                    if (!caduca(e.caducidad))
+                        accion.actua(e.llave, e.valor);
+    }
+
+    /**
+     * Regresa un {@link DiccionarioCongelado} con las entradas del
+     * diccionario: una copia inmutable donde cada búsqueda revisa una sola
+     * casilla. Las entradas con tiempo de vida se copian sin él, y el
+     * diccionario puede seguir modificándose sin afectar la copia.
+     * @return un diccionario congelado con las entradas del diccionario.
+     */
+    public DiccionarioCongelado<K, V> congela() {
+        purga();
+        K[] llaves = nuevoArregloLlaves(elementos);
+        V[] valores = nuevoArregloValores(elementos);
+        int[] picadillos = new int[elementos];
+        int n = 0;
+        if (tipo == TipoDiccionario.ROBIN_HOOD) {
+            for (int i = 0; i < llavesRH.length; ++i) {
+                if (llavesRH[i] == null)
+                    continue;
+                llaves[n] = llavesRH[i];
+                valores[n] = valoresRH[i];
+                picadillos[n++] = picadillosRH[i];
+            }
+        } else {
+            terminaMigracion();
+            for (Lista<Entrada> lista : entradas)
+                if (lista != null)
+                    for (Entrada e : lista) {
+                        llaves[n] = e.llave;
+                        valores[n] = e.valor;
+                        picadillos[n++] = e.picadillo;
+                    }
+        }
+        return new DiccionarioCongelado<K, V>(llaves, valores, picadillos,
+                                              picadillo);
+    }
+
+    /**
+     * Regresa una vista de las llaves del diccionario: un {@link Iterable}
+     * que recorre directamente las casillas del diccionario cada vez que se
+     * itera, en lugar de copiar las llaves a una lista como {@link #llaves}.
+     * @return una vista de las llaves del diccionario.
+     */
+    public Iterable<K> vistaLlaves() {
+        return () -> iteradorEntradas();
+    }
+
+    /**
+     * Regresa una vista de los valores del diccionario: un {@link Iterable}
+     * que recorre directamente las casillas del diccionario cada vez que se
+     * itera, en lugar de copiar los valores a una lista como {@link
+     * #valores}.
+     * @return una vista de los valores del diccionario.
+     */
+    public Iterable<V> vistaValores() {
+        return () -> new IteradorValores();
     }
 }
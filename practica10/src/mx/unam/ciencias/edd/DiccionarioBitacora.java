@@ -0,0 +1,512 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Clase para diccionarios de cadenas durables. Las entradas viven en un
+ * {@link Diccionario} en memoria, y cada {@link #agrega} y {@link #elimina}
+ * además escribe un registro binario en una bitácora (<em>write-ahead
+ * log</em>) dentro de un directorio. Al construir el diccionario sobre el
+ * mismo directorio se carga la última instantánea y se repiten los registros
+ * de la bitácora, así que el diccionario queda como estaba.</p>
+ *
+ * <p>Los registros se acumulan en memoria y llegan al disco con {@link
+ * #sincroniza}, que hace una sola llamada a {@link FileChannel#force} por
+ * todos los registros pendientes. Si varios hilos sincronizan a la vez, uno
+ * escribe y sincroniza los registros de todos mientras los demás esperan, y
+ * los registros que llegan mientras tanto forman el siguiente lote (<em>group
+ * commit</em>). Un registro es durable cuando regresa un {@link
+ * #sincroniza} llamado después de escribirlo.</p>
+ *
+ * <p>Si falla una escritura o una sincronización de la bitácora, no se sabe
+ * qué parte del lote llegó al disco, y un registro a medias haría que al
+ * cargar se descartara todo lo escrito después de él. Por eso la bitácora
+ * queda inválida: {@link #sincroniza} y {@link #compacta} lanzan {@link
+ * IOException}, y {@link #agrega} y {@link #elimina} lanzan {@link
+ * IllegalStateException}, hasta que el diccionario se vuelva a construir
+ * sobre el mismo directorio.</p>
+ *
+ * <p>Cada registro tiene un byte con su tipo, la longitud de la llave, la del
+ * valor si es una inserción, los bytes en UTF-8 de ambos y un CRC32 de todo
+ * lo anterior. Si el sistema cae a la mitad de una escritura, al cargar la
+ * bitácora se descarta desde el primer registro incompleto o con CRC
+ * incorrecto.</p>
+ *
+ * <p>{@link #compacta} escribe una instantánea en el formato de {@link
+ * DiccionarioMapeado} y empieza una bitácora vacía. Sólo bloquea a los demás
+ * hilos mientras cambia de bitácora y copia el diccionario en memoria; la
+ * instantánea se escribe sin bloquearlos. Con {@link #setLimiteBitacora} la
+ * compactación se hace sola en un hilo aparte cuando la bitácora pasa del
+ * límite.</p>
+ */
+public class DiccionarioBitacora {
+
+    /* Registro de inserción. */
+    private static final byte AGREGA = 1;
+    /* Registro de eliminación. */
+    private static final byte ELIMINA = 2;
+    /* Nombre de la instantánea. */
+    private static final String INSTANTANEA = "instantanea.edd";
+    /* Nombre de la bitácora. */
+    private static final String BITACORA = "bitacora.log";
+    /* Nombre de la bitácora anterior mientras se compacta. */
+    private static final String ANTERIOR = "bitacora.log.anterior";
+
+    /* Las entradas. */
+    private Diccionario<String, String> diccionario;
+    /* El directorio. */
+    private Path directorio;
+    /* La bitácora. */
+    private FileChannel bitacora;
+    /* Los registros que no se han escrito. */
+    private ByteBuffer pendientes;
+    /* Los registros que se están escribiendo. */
+    private ByteBuffer escribiendo;
+    /* Para el CRC32 de cada registro. */
+    private CRC32 crc;
+    /* Número de registros escritos en memoria. */
+    private long escritos;
+    /* Número de registros que ya son durables. */
+    private long durables;
+    /* Si algún hilo está sincronizando. */
+    private boolean sincronizando;
+    /* Si se está compactando. */
+    private boolean compactando;
+    /* Bytes de la bitácora a partir de los cuales compactamos; 0 si no
+     * compactamos solos. */
+    private long limite;
+    /* El error de la última compactación en segundo plano, o null. */
+    private IOException error;
+    /* Si el diccionario está cerrado. */
+    private boolean cerrado;
+    /* Si falló una escritura de la bitácora. */
+    private boolean fallida;
+
+    /**
+     * Construye un diccionario durable en el directorio recibido. Si el
+     * directorio ya tiene una instantánea o una bitácora, las carga.
+     * @param directorio el directorio del diccionario.
+     * @throws IOException si ocurre un error al leer o crear los archivos.
+     */
+    public DiccionarioBitacora(Path directorio) throws IOException {
+        this.directorio = directorio;
+        Files.createDirectories(directorio);
+        diccionario = new Diccionario<String, String>();
+        Path instantanea = directorio.resolve(INSTANTANEA);
+        if (Files.exists(instantanea))
+            new DiccionarioMapeado(instantanea).paraCada(
+                (String llave, String valor) -> diccionario.agrega(llave,
+                                                                   valor));
+        Path anterior = directorio.resolve(ANTERIOR);
+        boolean interrumpida = Files.exists(anterior);
+        if (interrumpida)
+            repite(anterior);
+        repite(directorio.resolve(BITACORA));
+        bitacora = FileChannel.open(directorio.resolve(BITACORA),
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.WRITE,
+                                    StandardOpenOption.APPEND);
+        pendientes = ByteBuffer.allocate(1 << 16);
+        escribiendo = ByteBuffer.allocate(1 << 16);
+        crc = new CRC32();
+        /* Una compactación no terminó; la instantánea nueva ya incluye a la
+         * bitácora anterior. */
+        if (interrumpida) {
+            DiccionarioMapeado.guarda(diccionario, instantanea);
+            Files.delete(anterior);
+        }
+    }
+
+    /* Repite los registros de la bitácora, y la trunca en el primer registro
+     * incompleto o corrupto. */
+    private void repite(Path ruta) throws IOException {
+        if (!Files.exists(ruta))
+            return;
+        long buenos = 0;
+        long tam = Files.size(ruta);
+        CRC32 crc = new CRC32();
+        try (DataInputStream entrada = new DataInputStream(
+                 new BufferedInputStream(Files.newInputStream(ruta),
+                                         1 << 16))) {
+            while (true) {
+                int tipo = entrada.read();
+                if (tipo != AGREGA && tipo != ELIMINA)
+                    break;
+                int n = entrada.readInt();
+                int m = tipo == AGREGA ? entrada.readInt() : 0;
+                if (n < 0 || m < 0 || (long)n + m > tam)
+                    break;
+                byte[] datos = new byte[n + m];
+                entrada.readFully(datos);
+                crc.reset();
+                crc.update(tipo);
+                actualiza(crc, n);
+                if (tipo == AGREGA)
+                    actualiza(crc, m);
+                crc.update(datos);
+                if (entrada.readInt() != (int)crc.getValue())
+                    break;
+                String llave = new String(datos, 0, n,
+                                          StandardCharsets.UTF_8);
+                if (tipo == AGREGA)
+                    diccionario.agrega(llave, new String(
+                                           datos, n, m,
+                                           StandardCharsets.UTF_8));
+                else if (diccionario.contiene(llave))
+                    diccionario.elimina(llave);
+                buenos += 1 + 4 + (tipo == AGREGA ? 4 : 0) + n + m + 4;
+            }
+        } catch (EOFException eofe) {}
+        try (FileChannel canal = FileChannel.open(ruta,
+                                                  StandardOpenOption.WRITE)) {
+            if (canal.size() > buenos) {
+                canal.truncate(buenos);
+                canal.force(true);
+            }
+        }
+    }
+
+    /* Actualiza el CRC con los cuatro bytes del entero. */
+    private static void actualiza(CRC32 crc, int n) {
+        crc.update(n >>> 24);
+        crc.update(n >>> 16);
+        crc.update(n >>> 8);
+        crc.update(n);
+    }
+
+    /* Escribe un registro en los pendientes. */
+    private void registra(byte tipo, String llave, String valor) {
+        if (cerrado || fallida)
+            throw new IllegalStateException();
+        byte[] k = llave.getBytes(StandardCharsets.UTF_8);
+        byte[] v = valor == null ? null : valor.getBytes(StandardCharsets.UTF_8);
+        int tam = 1 + 4 + (v == null ? 0 : 4) + k.length +
+            (v == null ? 0 : v.length) + 4;
+        if (pendientes.remaining() < tam) {
+            ByteBuffer nuevo = ByteBuffer.allocate(
+                Math.max(2 * pendientes.capacity(), pendientes.position() + tam));
+            pendientes.flip();
+            nuevo.put(pendientes);
+            pendientes = nuevo;
+        }
+        int inicio = pendientes.position();
+        pendientes.put(tipo);
+        pendientes.putInt(k.length);
+        if (v != null)
+            pendientes.putInt(v.length);
+        pendientes.put(k);
+        if (v != null)
+            pendientes.put(v);
+        crc.reset();
+        crc.update(pendientes.array(), inicio, pendientes.position() - inicio);
+        pendientes.putInt((int)crc.getValue());
+        ++escritos;
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada, y
+     * lo registra en la bitácora. El cambio es durable hasta el siguiente
+     * {@link #sincroniza}.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     * @throws IllegalStateException si el diccionario está cerrado, o si
+     *         falló una escritura de la bitácora.
+     */
+    public synchronized void agrega(String llave, String valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        registra(AGREGA, llave, valor);
+        diccionario.agrega(llave, valor);
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada, y
+     * lo registra en la bitácora. El cambio es durable hasta el siguiente
+     * {@link #sincroniza}.
+     * @param llave la llave del valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en el
+     *         diccionario.
+     * @throws IllegalStateException si el diccionario está cerrado, o si
+     *         falló una escritura de la bitácora.
+     */
+    public synchronized void elimina(String llave) {
+        if (llave == null || !diccionario.contiene(llave))
+            throw new NoSuchElementException();
+        registra(ELIMINA, llave, null);
+        diccionario.elimina(llave);
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public synchronized String get(String llave) {
+        return diccionario.get(llave);
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public synchronized boolean contiene(String llave) {
+        return diccionario.contiene(llave);
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public synchronized int getElementos() {
+        return diccionario.getElementos();
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public synchronized boolean esVacio() {
+        return diccionario.esVacio();
+    }
+
+    /**
+     * Escribe en la bitácora los registros pendientes y los manda al disco,
+     * con una sola sincronización por lote. Si otro hilo está sincronizando,
+     * espera a que termine y sincroniza los registros que falten, incluyendo
+     * los de otros hilos.
+     * @throws IOException si ocurre un error al escribir la bitácora, si ya
+     *         había fallado una escritura, o si falló una compactación en
+     *         segundo plano.
+     */
+    public void sincroniza() throws IOException {
+        long objetivo;
+        synchronized (this) {
+            objetivo = escritos;
+            espera(objetivo);
+            revisaFallida();
+            if (error != null) {
+                IOException e = error;
+                error = null;
+                throw e;
+            }
+            if (durables >= objetivo)
+                return;
+            sincronizando = true;
+            objetivo = escritos;
+            ByteBuffer b = escribiendo;
+            escribiendo = pendientes;
+            pendientes = b;
+            pendientes.clear();
+        }
+        boolean exito = false;
+        try {
+            escribiendo.flip();
+            while (escribiendo.hasRemaining())
+                bitacora.write(escribiendo);
+            bitacora.force(false);
+            exito = true;
+        } finally {
+            synchronized (this) {
+                if (exito)
+                    durables = objetivo;
+                else
+                    fallida = true;
+                sincronizando = false;
+                notifyAll();
+            }
+        }
+        synchronized (this) {
+            if (limite > 0 && !cerrado && bitacora.size() > limite)
+                compactaEnSegundoPlano();
+        }
+    }
+
+    /* Lanza una excepción si falló una escritura de la bitácora. */
+    private void revisaFallida() throws IOException {
+        if (fallida)
+            throw new IOException("Bitácora inválida: " + directorio);
+    }
+
+    /* Espera a que nadie sincronice, o a que los registros hasta el objetivo
+     * sean durables. */
+    private void espera(long objetivo) throws IOException {
+        try {
+            while (sincronizando && durables < objetivo)
+                wait();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * Escribe una instantánea del diccionario y empieza una bitácora vacía.
+     * Si ya se está compactando, no hace nada. Si una compactación anterior
+     * falló, su bitácora se conserva y la actual se le agrega al final, hasta
+     * que una instantánea las incluya a ambas.
+     * @throws IOException si ocurre un error al escribir los archivos, o si
+     *         ya había fallado una escritura de la bitácora.
+     * @throws IllegalStateException si el diccionario está cerrado.
+     */
+    public void compacta() throws IOException {
+        Diccionario<String, String> copia;
+        Path anterior = directorio.resolve(ANTERIOR);
+        synchronized (this) {
+            if (cerrado)
+                throw new IllegalStateException();
+            if (compactando)
+                return;
+            compactando = true;
+            try {
+                espera(Long.MAX_VALUE);
+                revisaFallida();
+                /* Todo lo registrado queda en la bitácora anterior. */
+                fallida = true;
+                pendientes.flip();
+                while (pendientes.hasRemaining())
+                    bitacora.write(pendientes);
+                pendientes.clear();
+                bitacora.force(false);
+                fallida = false;
+                durables = escritos;
+                bitacora.close();
+                if (Files.exists(anterior))
+                    concatena(anterior);
+                else
+                    Files.move(directorio.resolve(BITACORA), anterior,
+                               StandardCopyOption.ATOMIC_MOVE);
+                bitacora = FileChannel.open(directorio.resolve(BITACORA),
+                                            StandardOpenOption.CREATE,
+                                            StandardOpenOption.WRITE,
+                                            StandardOpenOption.APPEND);
+            } catch (IOException ioe) {
+                if (!bitacora.isOpen())
+                    bitacora = FileChannel.open(directorio.resolve(BITACORA),
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.APPEND);
+                compactando = false;
+                notifyAll();
+                throw ioe;
+            }
+            copia = new Diccionario<String, String>(diccionario.getElementos());
+            diccionario.paraCada((String llave, String valor) ->
+                                 copia.agrega(llave, valor));
+        }
+        try {
+            DiccionarioMapeado.guarda(copia, directorio.resolve(INSTANTANEA));
+            Files.delete(anterior);
+        } finally {
+            synchronized (this) {
+                compactando = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /* Una compactación anterior falló y dejó su bitácora, que la instantánea
+     * todavía no incluye; en lugar de reemplazarla, le agregamos al final la
+     * bitácora actual y luego vaciamos ésta. Si el sistema cae entre los dos
+     * pasos, los registros se repiten dos veces al cargar, lo que deja el
+     * diccionario igual. Si la copia falla, la bitácora anterior se trunca a
+     * su tamaño original, para que la siguiente copia no quede detrás de un
+     * registro a medias. */
+    private void concatena(Path anterior) throws IOException {
+        Path ruta = directorio.resolve(BITACORA);
+        try (FileChannel destino = FileChannel.open(anterior,
+                                                    StandardOpenOption.WRITE);
+             FileChannel origen = FileChannel.open(ruta,
+                                                   StandardOpenOption.READ)) {
+            long inicio = destino.size();
+            long tam = origen.size();
+            long copiados = 0;
+            try {
+                while (copiados < tam)
+                    copiados += origen.transferTo(copiados, tam - copiados,
+                                                  destino.position(inicio +
+                                                                   copiados));
+                destino.force(true);
+            } catch (IOException ioe) {
+                destino.truncate(inicio);
+                throw ioe;
+            }
+        }
+        try (FileChannel canal = FileChannel.open(ruta,
+                                                  StandardOpenOption.WRITE)) {
+            canal.truncate(0);
+            canal.force(true);
+        }
+    }
+
+    /* Compacta en un hilo aparte, si no se está compactando ya. */
+    private synchronized void compactaEnSegundoPlano() {
+        if (compactando || cerrado || fallida)
+            return;
+        Thread hilo = new Thread(() -> {
+                try {
+                    compacta();
+                } catch (IOException ioe) {
+                    synchronized (this) {
+                        error = ioe;
+                    }
+                } catch (IllegalStateException ise) {}
+            });
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Define el tamaño en bytes de la bitácora a partir del cual {@link
+     * #sincroniza} compacta el diccionario en un hilo aparte.
+     * @param limite el tamaño máximo de la bitácora, o 0 para no compactar
+     *        automáticamente.
+     * @throws IllegalArgumentException si el límite es negativo.
+     */
+    public synchronized void setLimiteBitacora(long limite) {
+        if (limite < 0)
+            throw new IllegalArgumentException();
+        this.limite = limite;
+    }
+
+    /**
+     * Sincroniza los registros pendientes y cierra la bitácora. Después de
+     * cerrarlo, el diccionario puede consultarse pero no modificarse. La
+     * bitácora se cierra aunque la sincronización falle.
+     * @throws IOException si ocurre un error al escribir la bitácora.
+     */
+    public void cierra() throws IOException {
+        try {
+            sincroniza();
+        } finally {
+            synchronized (this) {
+                try {
+                    while (compactando)
+                        wait();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                cerrado = true;
+                bitacora.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Clase para diccionarios que pueden usarse desde varios hilos a la vez.
+ * Funciona como {@link Diccionario}: usa un {@link Picadillo} y una máscara
+ * para elegir la casilla de cada llave, y reporta las mismas colisiones y la
+ * misma carga.</p>
+ *
+ * <p>Las casillas se reparten entre un número fijo de candados; quien agrega
+ * o elimina sólo bloquea el candado de la casilla que modifica, y únicamente
+ * al crecer se bloquean todos. El candado de una casilla se elige revolviendo
+ * todos los bits de su índice, así que llaves cuyos picadillos sólo difieren
+ * en los bits altos no comparten candado. El diccionario crece cuando el
+ * total de elementos pasa la carga máxima del arreglo completo. Las
+ * búsquedas ({@link #get} y {@link #contiene}) no bloquean nada: las
+ * entradas de una casilla nunca se modifican una vez publicadas (salvo su
+ * valor), y eliminar una entrada reemplaza la cadena de la casilla
+ * completa.</p>
+ *
+ * <p>Los iteradores, {@link #llaves}, {@link #valores} y las colisiones
+ * recorren el diccionario sin bloquearlo, así que pueden o no ver las
+ * modificaciones hechas mientras lo recorren.</p>
+ */
+public class DiccionarioConcurrente<K, V> implements Iterable<V> {
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = Diccionario.MAXIMA_CARGA;
+
+    /* Clase para las entradas del diccionario. */
+    private class Entrada {
+
+        /* La llave. */
+        public final K llave;
+        /* El picadillo de la llave. */
+        public final int picadillo;
+        /* El valor. */
+        public volatile V valor;
+        /* La siguiente entrada en la casilla. */
+        public final Entrada siguiente;
+
+        /* Construye una nueva entrada. */
+        public Entrada(K llave, int picadillo, V valor, Entrada siguiente) {
+            this.llave = llave;
+            this.picadillo = picadillo;
+            this.valor = valor;
+            this.siguiente = siguiente;
+        }
+    }
+
+    /* Clase privada para iteradores de diccionarios concurrentes. */
+    private class Iterador implements Iterator<V> {
+
+        /* El arreglo que recorremos. */
+        private AtomicReferenceArray<Entrada> arreglo;
+        /* En qué casilla estamos. */
+        private int indice;
+        /* La siguiente entrada. */
+        private Entrada siguiente;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            arreglo = entradas;
+            indice = 0;
+            buscaCasilla();
+        }
+
+        /* Mueve el iterador a la siguiente casilla no vacía. */
+        private void buscaCasilla() {
+            while (siguiente == null && indice < arreglo.length())
+                siguiente = arreglo.get(indice++);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            V valor = siguiente.valor;
+            siguiente = siguiente.siguiente;
+            buscaCasilla();
+            return valor;
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
+    private static final int MIN_N = 64;
+    /* Número de candados; 2^6, porque candado() usa los 6 bits altos. */
+    private static final int CANDADOS = 64;
+
+    /* Picadillo. */
+    private Picadillo<K> picadillo;
+    /* Nuestro diccionario; cambia completo al crecer. */
+    private volatile AtomicReferenceArray<Entrada> entradas;
+    /* Los candados para modificar las casillas. */
+    private ReentrantLock[] candados;
+    /* Número de elementos. */
+    private LongAdder elementos;
+
+    /**
+     * Construye un diccionario con un tamaño inicial y picadillo
+     * predeterminados.
+     */
+    public DiccionarioConcurrente() {
+        this(MIN_N, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial definido por el usuario, y
+     * un picadillo predeterminado.
+     * @param tam el tamaño a utilizar.
+     */
+    public DiccionarioConcurrente(int tam) {
+        this(tam, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial predeterminado, y un
+     * picadillo definido por el usuario.
+     * @param picadillo el picadillo a utilizar.
+     */
+    public DiccionarioConcurrente(Picadillo<K> picadillo) {
+        this(MIN_N, picadillo);
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial, y un método de picadillo
+     * definidos por el usuario.
+     * @param tam el tamaño del diccionario.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si el picadillo es nulo.
+     */
+    public DiccionarioConcurrente(int tam, Picadillo<K> picadillo) {
+        if (picadillo == null)
+            throw new IllegalArgumentException();
+        this.picadillo = picadillo;
+        int n = MIN_N;
+        while (n < tam * 2)
+            n <<= 1;
+        entradas = new AtomicReferenceArray<Entrada>(n);
+        candados = new ReentrantLock[CANDADOS];
+        for (int i = 0; i < CANDADOS; ++i)
+            candados[i] = new ReentrantLock();
+        elementos = new LongAdder();
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        int p = picadillo.picadillo(llave);
+        AtomicReferenceArray<Entrada> arreglo = bloquea(p);
+        int n = arreglo.length();
+        int i = p & (n - 1);
+        try {
+            Entrada cabeza = arreglo.get(i);
+            Entrada e = busca(cabeza, llave, p);
+            if (e != null) {
+                e.valor = valor;
+                return;
+            }
+            arreglo.set(i, new Entrada(llave, p, valor, cabeza));
+            elementos.increment();
+        } finally {
+            candados[candado(i)].unlock();
+        }
+        if (elementos.sum() >= MAXIMA_CARGA * n)
+            crece(n);
+    }
+
+    /* Regresa el candado de la casilla i. Revolvemos todos los bits del
+     * índice para que las casillas que se usan se repartan entre todos los
+     * candados, aunque los picadillos coincidan en sus bits bajos. */
+    private static int candado(int i) {
+        return (i * 0x9e3779b9) >>> (32 - 6);
+    }
+
+    /* Bloquea el candado de la casilla del picadillo y regresa el arreglo
+     * que protege. Como el candado depende del tamaño del arreglo, si éste
+     * creció antes de obtenerlo lo soltamos y volvemos a intentar. */
+    private AtomicReferenceArray<Entrada> bloquea(int p) {
+        while (true) {
+            AtomicReferenceArray<Entrada> arreglo = entradas;
+            ReentrantLock candado =
+                candados[candado(p & (arreglo.length() - 1))];
+            candado.lock();
+            if (arreglo == entradas)
+                return arreglo;
+            candado.unlock();
+        }
+    }
+
+    /* Busca la entrada con la llave a partir de la recibida; regresa null si
+     * no está. */
+    private Entrada busca(Entrada e, K llave, int p) {
+        while (e != null) {
+            if (e.picadillo == p && e.llave.equals(llave))
+                return e;
+            e = e.siguiente;
+        }
+        return null;
+    }
+
+    /* Duplica el tamaño del arreglo, si nadie lo hizo ya desde que vimos que
+     * medía n. Para no bloquearse con otro hilo que también quiera crecer,
+     * los candados se toman siempre en el mismo orden. */
+    private void crece(int n) {
+        for (ReentrantLock candado : candados)
+            candado.lock();
+        try {
+            AtomicReferenceArray<Entrada> viejas = entradas;
+            if (viejas.length() != n)
+                return;
+            AtomicReferenceArray<Entrada> nuevas =
+                new AtomicReferenceArray<Entrada>(n * 2);
+            int mascara = n * 2 - 1;
+            for (int i = 0; i < n; ++i) {
+                for (Entrada e = viejas.get(i); e != null; e = e.siguiente) {
+                    int j = e.picadillo & mascara;
+                    nuevas.set(j, new Entrada(e.llave, e.picadillo, e.valor,
+                                              nuevas.get(j)));
+                }
+            }
+            entradas = nuevas;
+        } finally {
+            for (ReentrantLock candado : candados)
+                candado.unlock();
+        }
+    }
+
+    /* Regresa el valor asociado a la llave, o null si no está. */
+    private V busca(K llave) {
+        if (llave == null)
+            return null;
+        int p = picadillo.picadillo(llave);
+        AtomicReferenceArray<Entrada> arreglo = entradas;
+        Entrada e = busca(arreglo.get(p & (arreglo.length() - 1)), llave, p);
+        return e == null ? null : e.valor;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada. No
+     * bloquea ningún candado.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        V valor = busca(llave);
+        if (valor == null)
+            throw new NoSuchElementException();
+        return valor;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario. No bloquea ningún
+     * candado.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return busca(llave) != null;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new NoSuchElementException();
+        int p = picadillo.picadillo(llave);
+        AtomicReferenceArray<Entrada> arreglo = bloquea(p);
+        int i = p & (arreglo.length() - 1);
+        try {
+            Entrada cabeza = arreglo.get(i);
+            Entrada e = busca(cabeza, llave, p);
+            if (e == null)
+                throw new NoSuchElementException();
+            /* Copiamos las entradas anteriores a la eliminada, para que
+             * quien esté leyendo la casilla vea la cadena vieja o la nueva,
+             * pero nunca una a medias. */
+            Entrada cadena = e.siguiente;
+            for (Entrada a = cabeza; a != e; a = a.siguiente)
+                cadena = new Entrada(a.llave, a.picadillo, a.valor, cadena);
+            arreglo.set(i, cadena);
+            elementos.decrement();
+        } finally {
+            candados[candado(i)].unlock();
+        }
+    }
+
+    /**
+     * Regresa una lista con todas las llaves con valores asociados en el
+     * diccionario. La lista no tiene ningún tipo de orden.
+     * @return una lista con todas las llaves.
+     */
+    public Lista<K> llaves() {
+        Lista<K> llaves = new Lista<K>();
+        AtomicReferenceArray<Entrada> arreglo = entradas;
+        for (int i = 0; i < arreglo.length(); ++i)
+            for (Entrada e = arreglo.get(i); e != null; e = e.siguiente)
+                llaves.agrega(e.llave);
+        return llaves;
+    }
+
+    /**
+     * Regresa una lista con todos los valores en el diccionario. La lista no
+     * tiene ningún tipo de orden.
+     * @return una lista con todos los valores.
+     */
+    public Lista<V> valores() {
+        Lista<V> valores = new Lista<V>();
+        for (V valor : this)
+            valores.agrega(valor);
+        return valores;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario.
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        AtomicReferenceArray<Entrada> arreglo = entradas;
+        int colisiones = 0;
+        for (int i = 0; i < arreglo.length(); ++i)
+            for (Entrada e = arreglo.get(i); e != null; e = e.siguiente)
+                if (e.siguiente != null)
+                    ++colisiones;
+        return colisiones;
+    }
+
+    /**
+     * Nos dice el máximo número de colisiones para una misma llave que tenemos
+     * en el diccionario.
+     * @return el máximo número de colisiones para una misma llave.
+     */
+    public int colisionMaxima() {
+        AtomicReferenceArray<Entrada> arreglo = entradas;
+        int maxima = 0;
+        for (int i = 0; i < arreglo.length(); ++i) {
+            int colisiones = -1;
+            for (Entrada e = arreglo.get(i); e != null; e = e.siguiente)
+                ++colisiones;
+            if (colisiones > maxima)
+                maxima = colisiones;
+        }
+        return maxima;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)getElementos() / entradas.length();
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return (int)elementos.sum();
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return getElementos() == 0;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar el diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,318 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios inmutables con picadillo perfecto mínimo. Se
+ * obtienen con {@link Diccionario#congela}, y sirven para tablas que se
+ * construyen una vez y después sólo se consultan.</p>
+ *
+ * <p>Las <em>n</em> llaves y sus valores se guardan en dos arreglos de
+ * tamaño exactamente <em>n</em>, sin listas ni casillas vacías. La casilla
+ * de cada llave se calcula con el algoritmo CHD (<em>hash and
+ * displace</em>): el {@link Picadillo} de la llave la manda a uno de
+ * <em>n</em>/2 grupos, y cada grupo tiene un desplazamiento que, mezclado
+ * con el picadillo, da una casilla distinta para cada llave del grupo. Al
+ * construirlo se busca, de los grupos más grandes a los más chicos, un
+ * desplazamiento con el que todas las llaves del grupo caigan en casillas
+ * libres; a los grupos de una sola llave se les asigna directamente una
+ * casilla libre. Así, {@link #get} hace exactamente un acceso a cada arreglo
+ * y una comparación de llaves, y además de las llaves y los valores el
+ * diccionario sólo usa un entero por cada dos llaves.</p>
+ *
+ * <p>Dos llaves distintas con el mismo picadillo no pueden separarse; si las
+ * hay, se guardan aparte en un {@link Diccionario} pequeño que sólo se
+ * consulta cuando la llave buscada no está en su casilla.</p>
+ */
+public class DiccionarioCongelado<K, V> implements Iterable<V> {
+
+    /* Clase privada para iteradores de diccionarios congelados. */
+    private class Iterador implements Iterator<V> {
+
+        /* La siguiente casilla. */
+        private int indice;
+        /* El iterador de las llaves repetidas; null si no hay. */
+        private Iterator<V> otros;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            otros = repetidas == null ? null : repetidas.iterator();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < valores.length ||
+                (otros != null && otros.hasNext());
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (indice < valores.length)
+                return valores[indice++];
+            if (otros == null)
+                throw new NoSuchElementException();
+            return otros.next();
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Número promedio de llaves por grupo. */
+    private static final int LLAVES_POR_GRUPO = 2;
+
+    /* Las llaves, en su casilla. */
+    private K[] llaves;
+    /* Los valores, en la casilla de su llave. */
+    private V[] valores;
+    /* El desplazamiento de cada grupo; si es negativo, el grupo tiene una
+     * sola llave y su casilla es -(desplazamiento + 1). */
+    private int[] desplazamientos;
+    /* Las llaves con picadillos repetidos; null si no hay. */
+    private Diccionario<K, V> repetidas;
+    /* El picadillo. */
+    private Picadillo<K> picadillo;
+
+    /* Truco para crear el arreglo genérico de llaves. */
+    @SuppressWarnings("unchecked") private K[] nuevoArregloLlaves(int n) {
+        return (K[])(new Object[n]);
+    }
+
+    /* Truco para crear el arreglo genérico de valores. */
+    @SuppressWarnings("unchecked") private V[] nuevoArregloValores(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /**
+     * Construye un diccionario congelado con las llaves, los valores y los
+     * picadillos recibidos, en arreglos paralelos. Las llaves deben ser
+     * distintas y no nulas.
+     * @param llaves las llaves.
+     * @param valores los valores.
+     * @param picadillos los picadillos de las llaves.
+     * @param picadillo el picadillo con que se calcularon los picadillos.
+     */
+    protected DiccionarioCongelado(K[] llaves, V[] valores, int[] picadillos,
+                                   Picadillo<K> picadillo) {
+        this.picadillo = picadillo;
+        int n = separaRepetidas(llaves, valores, picadillos);
+        this.llaves = nuevoArregloLlaves(n);
+        this.valores = nuevoArregloValores(n);
+        desplazamientos = new int[Math.max(1, (n + LLAVES_POR_GRUPO - 1) /
+                                           LLAVES_POR_GRUPO)];
+        if (n == 0)
+            return;
+
+        /* Encadenamos las llaves de cada grupo en arreglos. */
+        int grupos = desplazamientos.length;
+        int[] primera = new int[grupos];
+        int[] siguiente = new int[n];
+        int[] tamanos = new int[grupos];
+        for (int g = 0; g < grupos; ++g)
+            primera[g] = -1;
+        for (int i = 0; i < n; ++i) {
+            int g = grupo(picadillos[i]);
+            siguiente[i] = primera[g];
+            primera[g] = i;
+            ++tamanos[g];
+        }
+
+        /* Ordenamos los grupos del más grande al más chico, por cuentas. */
+        int maximo = 0;
+        for (int t : tamanos)
+            maximo = Math.max(maximo, t);
+        int[] cuentas = new int[maximo + 2];
+        for (int t : tamanos)
+            ++cuentas[maximo - t + 1];
+        for (int t = 1; t < cuentas.length; ++t)
+            cuentas[t] += cuentas[t - 1];
+        int[] orden = new int[grupos];
+        for (int g = 0; g < grupos; ++g)
+            orden[cuentas[maximo - tamanos[g]]++] = g;
+
+        boolean[] ocupadas = new boolean[n];
+        int[] casillas = new int[maximo];
+        int libre = 0;
+        for (int g : orden) {
+            if (tamanos[g] == 0)
+                break;
+            if (tamanos[g] == 1) {
+                while (ocupadas[libre])
+                    ++libre;
+                coloca(primera[g], libre, llaves, valores, ocupadas);
+                desplazamientos[g] = -(libre + 1);
+                continue;
+            }
+            for (int d = 0; ; ++d) {
+                int k = 0;
+                for (int i = primera[g]; i != -1; i = siguiente[i]) {
+                    int c = casilla(picadillos[i], d);
+                    if (ocupadas[c] || repetida(casillas, k, c))
+                        break;
+                    casillas[k++] = c;
+                }
+                if (k < tamanos[g])
+                    continue;
+                k = 0;
+                for (int i = primera[g]; i != -1; i = siguiente[i])
+                    coloca(i, casillas[k++], llaves, valores, ocupadas);
+                desplazamientos[g] = d;
+                break;
+            }
+        }
+    }
+
+    /* Pasa al diccionario de repetidas las llaves cuyo picadillo comparten
+     * con otra llave, y recorre las demás al inicio de los arreglos.
+     * Regresa cuántas llaves quedan. */
+    private int separaRepetidas(K[] llaves, V[] valores, int[] picadillos) {
+        int[] ordenados = picadillos.clone();
+        Arrays.sort(ordenados);
+        boolean hay = false;
+        for (int i = 1; i < ordenados.length && !hay; ++i)
+            hay = ordenados[i] == ordenados[i - 1];
+        if (!hay)
+            return llaves.length;
+        repetidas = new Diccionario<K, V>(picadillo);
+        int n = 0;
+        for (int i = 0; i < llaves.length; ++i) {
+            int j = Arrays.binarySearch(ordenados, picadillos[i]);
+            boolean repetido = (j > 0 && ordenados[j - 1] == picadillos[i]) ||
+                (j + 1 < ordenados.length && ordenados[j + 1] == picadillos[i]);
+            if (repetido) {
+                repetidas.agrega(llaves[i], valores[i]);
+            } else {
+                llaves[n] = llaves[i];
+                valores[n] = valores[i];
+                picadillos[n++] = picadillos[i];
+            }
+        }
+        return n;
+    }
+
+    /* Pone la llave i de los arreglos recibidos en la casilla c. */
+    private void coloca(int i, int c, K[] llaves, V[] valores,
+                        boolean[] ocupadas) {
+        this.llaves[c] = llaves[i];
+        this.valores[c] = valores[i];
+        ocupadas[c] = true;
+    }
+
+    /* Nos dice si c está entre los primeros k elementos del arreglo. */
+    private static boolean repetida(int[] casillas, int k, int c) {
+        for (int i = 0; i < k; ++i)
+            if (casillas[i] == c)
+                return true;
+        return false;
+    }
+
+    /* Regresa el grupo del picadillo. */
+    private int grupo(int p) {
+        long h = FabricaPicadillos.revuelve(p);
+        return (int)(((h >>> 32) * desplazamientos.length) >>> 32);
+    }
+
+    /* Regresa la casilla del picadillo con el desplazamiento d. */
+    private int casilla(int p, int d) {
+        long h = FabricaPicadillos.revuelve((p & 0xffffffffL) ^
+                                            ((long)(d + 1) << 32));
+        return (int)(((h >>> 32) * llaves.length) >>> 32);
+    }
+
+    /* Regresa la casilla donde debe estar la llave con el picadillo. */
+    private int casilla(int p) {
+        int d = desplazamientos[grupo(p)];
+        return d < 0 ? -(d + 1) : casilla(p, d);
+    }
+
+    /* Regresa el valor asociado a la llave, o null si no está. */
+    private V busca(K llave) {
+        if (llave == null)
+            return null;
+        if (llaves.length > 0) {
+            int c = casilla(picadillo.picadillo(llave));
+            if (llaves[c].equals(llave))
+                return valores[c];
+        }
+        if (repetidas != null && repetidas.contiene(llave))
+            return repetidas.get(llave);
+        return null;
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        V valor = busca(llave);
+        if (valor == null)
+            throw new NoSuchElementException();
+        return valor;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return busca(llave) != null;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return llaves.length +
+            (repetidas == null ? 0 : repetidas.getElementos());
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return getElementos() == 0;
+    }
+
+    /**
+     * Realiza la acción recibida sobre cada entrada del diccionario, sin
+     * ningún orden específico.
+     * @param accion la acción a realizar sobre cada entrada.
+     */
+    public void paraCada(AccionEntrada<K, V> accion) {
+        for (int i = 0; i < llaves.length; ++i)
+            accion.actua(llaves[i], valores[i]);
+        if (repetidas != null)
+            repetidas.paraCada(accion);
+    }
+
+    /**
+     * Regresa una lista con todas las llaves del diccionario. La lista no
+     * tiene ningún tipo de orden.
+     * @return una lista con todas las llaves.
+     */
+    public Lista<K> llaves() {
+        Lista<K> lista = new Lista<K>();
+        paraCada((K llave, V valor) -> lista.agrega(llave));
+        return lista;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar el diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
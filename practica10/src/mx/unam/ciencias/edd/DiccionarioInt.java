@@ -0,0 +1,150 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios con llaves de tipo <code>int</code>. Funciona
+ * como {@link Diccionario}, pero las llaves se guardan sin envolver en un
+ * arreglo de enteros, y los valores en un arreglo paralelo; las colisiones se
+ * resuelven buscando la siguiente casilla libre. Así no hay ni un {@link
+ * Integer}, ni una entrada, ni un nodo de lista por cada llave, y {@link
+ * #agrega} y {@link #get} no crean objetos (salvo cuando el diccionario
+ * crece).</p>
+ *
+ * <p>Una casilla está libre si su valor es <code>null</code>, por lo que el
+ * diccionario no acepta valores nulos.</p>
+ */
+public class DiccionarioInt<V> extends DiccionarioPrimitivo<int[], V> {
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = Diccionario.MAXIMA_CARGA;
+
+    /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
+    private static final int MIN_N = 64;
+
+    /**
+     * Construye un diccionario con un tamaño inicial predeterminado.
+     */
+    public DiccionarioInt() {
+        this(MIN_N);
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial definido por el usuario.
+     * @param tam el tamaño del diccionario.
+     */
+    public DiccionarioInt(int tam) {
+        super(tam);
+    }
+
+    /**
+     * Regresa un arreglo nuevo para <code>n</code> llaves.
+     * @param n el número de llaves.
+     * @return un arreglo nuevo para <code>n</code> llaves.
+     */
+    @Override protected int[] nuevasLlaves(int n) {
+        return new int[n];
+    }
+
+    /**
+     * Regresa el picadillo de la llave en una casilla del arreglo recibido.
+     * @param llaves el arreglo de llaves.
+     * @param i la casilla.
+     * @return el picadillo de la llave en la casilla.
+     */
+    @Override protected int picadillo(int[] llaves, int i) {
+        return picadillo(llaves[i]);
+    }
+
+    /**
+     * Copia la llave en una casilla de un arreglo a una casilla de otro (o
+     * del mismo).
+     * @param origen el arreglo de donde se copia la llave.
+     * @param i la casilla de donde se copia la llave.
+     * @param destino el arreglo a donde se copia la llave.
+     * @param j la casilla a donde se copia la llave.
+     */
+    @Override protected void copia(int[] origen, int i, int[] destino, int j) {
+        destino[j] = origen[i];
+    }
+
+    /* Revuelve los bits de la llave, para que llaves consecutivas o múltiplos
+     * de potencias de 2 no caigan juntas al aplicar la máscara. */
+    private static int picadillo(int llave) {
+        int h = llave * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa la casilla de la llave, o -1 si no está. */
+    private int busca(int llave) {
+        int i = picadillo(llave) & mascara;
+        while (valores[i] != null) {
+            if (llaves[i] == llave)
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si el valor es nulo.
+     */
+    public void agrega(int llave, V valor) {
+        if (valor == null)
+            throw new IllegalArgumentException();
+        int i = picadillo(llave) & mascara;
+        while (valores[i] != null) {
+            if (llaves[i] == llave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        llaves[i] = llave;
+        ocupa(i, valor);
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(int llave) {
+        return valor(busca(llave));
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(int llave) {
+        return busca(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(int llave) {
+        libera(busca(llave));
+    }
+
+    /**
+     * Regresa un arreglo con todas las llaves del diccionario. El arreglo no
+     * tiene ningún tipo de orden.
+     * @return un arreglo con todas las llaves.
+     */
+    public int[] llaves() {
+        return copiaLlaves();
+    }
+}
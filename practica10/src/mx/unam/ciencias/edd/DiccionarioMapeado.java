@@ -0,0 +1,345 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios de cadenas de sólo lectura guardados en un
+ * archivo. Con {@link #guarda} un {@link Diccionario} de cadenas se escribe
+ * en un archivo ya como tabla de dispersión; el constructor mapea el archivo
+ * a memoria con {@link FileChannel#map} y {@link #get} busca directamente en
+ * la región mapeada. Cargar el diccionario no lee ni convierte las entradas,
+ * y el sistema operativo trae del disco sólo las páginas que se consultan;
+ * sólo se crea la cadena del valor regresado.</p>
+ *
+ * <p>El archivo tiene un encabezado, una tabla de casillas y los datos. El
+ * encabezado tiene un número mágico, la versión del formato, el {@link
+ * AlgoritmoPicadillo} de las llaves, el número de elementos y el de
+ * casillas. Cada casilla tiene el picadillo de una llave y la posición de su
+ * entrada en el archivo, o 0 si está vacía; las casillas se llenan a lo más
+ * a la mitad, con direccionamiento abierto lineal. Cada entrada tiene la
+ * longitud de la llave, la del valor, y los bytes en UTF-8 de ambos. Los
+ * picadillos se calculan sobre esos mismos bytes con {@link
+ * FabricaPicadillos}, así que no dependen del picadillo del diccionario que
+ * se guardó.</p>
+ *
+ * <p>Como un {@link MappedByteBuffer} no puede pasar de 2 GB, tampoco el
+ * archivo.</p>
+ *
+ * <p>Para no leer el archivo completo, el constructor sólo revisa el
+ * encabezado y que la tabla y los datos quepan en él; cada entrada se revisa
+ * cuando se lee, y si el archivo está corrupto o truncado las consultas
+ * lanzan {@link IllegalStateException} en lugar de leer fuera del mapa. Las
+ * búsquedas revisan a lo más todas las casillas, así que terminan aunque la
+ * tabla esté llena.</p>
+ */
+public class DiccionarioMapeado {
+
+    /* Número mágico del formato ("EDDM"). */
+    private static final int MAGICO = 0x4544444d;
+    /* Versión del formato. */
+    private static final int VERSION = 1;
+    /* Bytes del encabezado. */
+    private static final int ENCABEZADO = 20;
+    /* Bytes de cada casilla. */
+    private static final int CASILLA = 8;
+
+    /* La ruta del archivo. */
+    private Path ruta;
+    /* El archivo mapeado. */
+    private MappedByteBuffer mapa;
+    /* El algoritmo de los picadillos. */
+    private AlgoritmoPicadillo algoritmo;
+    /* Número de elementos. */
+    private int elementos;
+    /* Máscara para no usar módulo. */
+    private int mascara;
+    /* Posición donde empiezan los datos. */
+    private int datos;
+
+    /**
+     * Mapea a memoria el archivo recibido, que debió ser escrito por {@link
+     * #guarda}.
+     * @param ruta la ruta del archivo.
+     * @throws IOException si ocurre un error al leer el archivo, o si el
+     *         archivo no tiene el formato correcto.
+     */
+    public DiccionarioMapeado(Path ruta) throws IOException {
+        this.ruta = ruta;
+        try (FileChannel canal = FileChannel.open(ruta,
+                                                  StandardOpenOption.READ)) {
+            long tam = canal.size();
+            if (tam < ENCABEZADO || tam > Integer.MAX_VALUE)
+                throw new IOException("Archivo inválido: " + ruta);
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tam);
+        }
+        AlgoritmoPicadillo[] algoritmos = AlgoritmoPicadillo.values();
+        int a = mapa.getInt(8);
+        int n = mapa.getInt(12);
+        int casillas = mapa.getInt(16);
+        /* Las casillas se llenan a lo más a la mitad, y cada entrada ocupa al
+         * menos los 8 bytes de las longitudes. */
+        if (mapa.getInt(0) != MAGICO || mapa.getInt(4) != VERSION ||
+            a < 0 || a >= algoritmos.length || casillas <= 0 ||
+            Integer.bitCount(casillas) != 1 || n < 0 || 2L * n > casillas ||
+            ENCABEZADO + (long)casillas * CASILLA + 8L * n > mapa.capacity())
+            throw new IOException("Archivo inválido: " + ruta);
+        algoritmo = algoritmos[a];
+        elementos = n;
+        mascara = casillas - 1;
+        datos = ENCABEZADO + casillas * CASILLA;
+    }
+
+    /**
+     * Escribe el diccionario recibido en el archivo recibido, usando
+     * MurmurHash3 para las llaves.
+     * @param diccionario el diccionario a guardar.
+     * @param ruta la ruta del archivo.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public static void guarda(Diccionario<String, String> diccionario,
+                              Path ruta) throws IOException {
+        guarda(diccionario, ruta, AlgoritmoPicadillo.MURMUR3_STRING);
+    }
+
+    /**
+     * Escribe el diccionario recibido en el archivo recibido, usando el
+     * algoritmo recibido para las llaves. El archivo se escribe primero con
+     * otro nombre y después se renombra, así que si la escritura falla un
+     * archivo anterior queda intacto.
+     * @param diccionario el diccionario a guardar.
+     * @param ruta la ruta del archivo.
+     * @param algoritmo el algoritmo de picadillo para las llaves.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     * @throws IllegalArgumentException si el algoritmo es <code>null</code>,
+     *         o si el archivo pasaría de 2 GB.
+     */
+    public static void guarda(Diccionario<String, String> diccionario,
+                              Path ruta, AlgoritmoPicadillo algoritmo)
+        throws IOException {
+        if (algoritmo == null)
+            throw new IllegalArgumentException();
+        /* No usamos getElementos(): paraCada() purga las entradas caducas,
+         * así que el número de entradas es el que veamos al recorrerlas. */
+        Lista<byte[]> listaLlaves = new Lista<byte[]>();
+        Lista<byte[]> listaValores = new Lista<byte[]>();
+        diccionario.paraCada((String llave, String valor) -> {
+                listaLlaves.agrega(llave.getBytes(StandardCharsets.UTF_8));
+                listaValores.agrega(valor.getBytes(StandardCharsets.UTF_8));
+            });
+        int n = listaLlaves.getLongitud();
+        byte[][] llaves = new byte[n][];
+        byte[][] valores = new byte[n][];
+        int k = 0;
+        for (byte[] llave : listaLlaves)
+            llaves[k++] = llave;
+        k = 0;
+        for (byte[] valor : listaValores)
+            valores[k++] = valor;
+        int casillas = 1;
+        while (casillas < 2 * n)
+            casillas <<= 1;
+
+        /* Calculamos las posiciones de las entradas y llenamos la tabla. */
+        int[] tabla = new int[2 * casillas];
+        int mascara = casillas - 1;
+        long posicion = ENCABEZADO + (long)casillas * CASILLA;
+        for (k = 0; k < n; ++k) {
+            int p = FabricaPicadillos.picadillo(algoritmo, llaves[k], 0,
+                                                llaves[k].length);
+            int i = p & mascara;
+            while (tabla[2 * i + 1] != 0)
+                i = (i + 1) & mascara;
+            tabla[2 * i] = p;
+            tabla[2 * i + 1] = (int)posicion;
+            posicion += 8 + llaves[k].length + valores[k].length;
+            if (posicion > Integer.MAX_VALUE)
+                throw new IllegalArgumentException();
+        }
+
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel canal =
+             FileChannel.open(temporal, StandardOpenOption.CREATE,
+                              StandardOpenOption.WRITE,
+                              StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(canal),
+                                         1 << 16));
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeInt(algoritmo.ordinal());
+            salida.writeInt(n);
+            salida.writeInt(casillas);
+            for (int t : tabla)
+                salida.writeInt(t);
+            for (k = 0; k < n; ++k) {
+                salida.writeInt(llaves[k].length);
+                salida.writeInt(valores[k].length);
+                salida.write(llaves[k]);
+                salida.write(valores[k]);
+            }
+            salida.flush();
+            canal.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* Nos dice si la cadena sólo tiene caracteres ASCII. */
+    private static boolean esAscii(String s) {
+        for (int i = 0; i < s.length(); ++i)
+            if (s.charAt(i) >= 0x80)
+                return false;
+        return true;
+    }
+
+    /* Revisa que la entrada en la posición esté completa dentro de los datos
+     * y regresa la posición siguiente a ella. */
+    private int revisaEntrada(long posicion) {
+        if (posicion < datos || posicion + 8 > mapa.capacity())
+            throw new IllegalStateException("Archivo inválido: " + ruta);
+        int n = mapa.getInt((int)posicion);
+        int m = mapa.getInt((int)posicion + 4);
+        long fin = posicion + 8 + n + m;
+        if (n < 0 || m < 0 || fin > mapa.capacity())
+            throw new IllegalStateException("Archivo inválido: " + ruta);
+        return (int)fin;
+    }
+
+    /* Regresa la posición de la entrada de la llave, o -1 si no está. Si la
+     * llave es ASCII se compara carácter por byte sin crear el arreglo. */
+    private int busca(String llave) {
+        if (llave == null)
+            return -1;
+        byte[] bytes = null;
+        int p;
+        int n;
+        if (esAscii(llave)) {
+            p = FabricaPicadillos.picadillo(algoritmo, llave);
+            n = llave.length();
+        } else {
+            bytes = llave.getBytes(StandardCharsets.UTF_8);
+            p = FabricaPicadillos.picadillo(algoritmo, bytes, 0, bytes.length);
+            n = bytes.length;
+        }
+        int i = p & mascara;
+        for (int k = 0; k <= mascara; ++k) {
+            int casilla = ENCABEZADO + i * CASILLA;
+            int posicion = mapa.getInt(casilla + 4);
+            if (posicion == 0)
+                return -1;
+            if (mapa.getInt(casilla) == p) {
+                revisaEntrada(posicion);
+                if (mapa.getInt(posicion) == n &&
+                    iguales(llave, bytes, posicion + 8, n))
+                    return posicion;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Compara la llave (o sus bytes, si no es null) con los n bytes en la
+     * posición del mapa. */
+    private boolean iguales(String llave, byte[] bytes, int posicion, int n) {
+        for (int j = 0; j < n; ++j) {
+            int b = bytes == null ? llave.charAt(j) : bytes[j];
+            if (mapa.get(posicion + j) != (byte)b)
+                return false;
+        }
+        return true;
+    }
+
+    /* Copia al arreglo los bytes del mapa a partir de la posición. Usamos un
+     * duplicado para no mover la posición del mapa, que comparten todas las
+     * consultas. */
+    private void lee(int posicion, byte[] destino) {
+        ByteBuffer duplicado = mapa.duplicate();
+        duplicado.position(posicion);
+        duplicado.get(destino);
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     * @throws IllegalStateException si el archivo está corrupto.
+     */
+    public String get(String llave) {
+        int posicion = busca(llave);
+        if (posicion == -1)
+            throw new NoSuchElementException();
+        int n = mapa.getInt(posicion);
+        byte[] valor = new byte[mapa.getInt(posicion + 4)];
+        lee(posicion + 8 + n, valor);
+        return new String(valor, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     * @throws IllegalStateException si el archivo está corrupto.
+     */
+    public boolean contiene(String llave) {
+        return busca(llave) != -1;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return elementos == 0;
+    }
+
+    /**
+     * Realiza la acción recibida sobre cada entrada del diccionario,
+     * recorriendo los datos del archivo en orden.
+     * @param accion la acción a realizar sobre cada entrada.
+     * @throws IllegalStateException si el archivo está corrupto o truncado.
+     */
+    public void paraCada(AccionEntrada<String, String> accion) {
+        int posicion = datos;
+        for (int k = 0; k < elementos; ++k) {
+            int siguiente = revisaEntrada(posicion);
+            byte[] llave = new byte[mapa.getInt(posicion)];
+            byte[] valor = new byte[mapa.getInt(posicion + 4)];
+            lee(posicion + 8, llave);
+            lee(posicion + 8 + llave.length, valor);
+            accion.actua(new String(llave, StandardCharsets.UTF_8),
+                         new String(valor, StandardCharsets.UTF_8));
+            posicion = siguiente;
+        }
+    }
+
+    /**
+     * Regresa el algoritmo de picadillo con que se guardaron las llaves.
+     * @return el algoritmo de picadillo de las llaves.
+     */
+    public AlgoritmoPicadillo getAlgoritmo() {
+        return algoritmo;
+    }
+}
@@ -0,0 +1,381 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios ordenados por llave. Las entradas se guardan en
+ * un {@link ArbolRojinegro} comparándolas por su llave, así que {@link #get},
+ * {@link #agrega} y {@link #elimina} toman tiempo <i>O</i>(log <i>n</i>).</p>
+ *
+ * <p>A diferencia de {@link Diccionario}, se puede preguntar por la llave más
+ * cercana a una que no está ({@link #piso} y {@link #techo}), y recorrer en
+ * orden las entradas con llaves dentro de un rango: {@link #iteradorRango}
+ * encuentra la primera en tiempo <i>O</i>(log <i>n</i>) y avanza a cada
+ * sucesora por los vértices del árbol, así que recorrer <i>k</i> entradas
+ * toma tiempo <i>O</i>(log <i>n</i> + <i>k</i>).</p>
+ */
+public class DiccionarioOrdenado<K extends Comparable<K>, V>
+    implements Iterable<V> {
+
+    /* Clase privada para las entradas, comparadas por su llave. */
+    private class Entrada implements Comparable<Entrada> {
+
+        /* La llave. */
+        public K llave;
+        /* El valor. */
+        public V valor;
+
+        /* Construye una nueva entrada. */
+        public Entrada(K llave, V valor) {
+            this.llave = llave;
+            this.valor = valor;
+        }
+
+        /* Compara las llaves de las entradas. */
+        @Override public int compareTo(Entrada e) {
+            return llave.compareTo(e.llave);
+        }
+    }
+
+    /* Clase privada para iterar las entradas en orden hasta una llave. */
+    private class Iterador implements IteradorDiccionario<K, V> {
+
+        /* El vértice de la siguiente entrada. */
+        private VerticeArbolBinario<Entrada> siguiente;
+        /* La entrada de la última llave regresada. */
+        private Entrada actual;
+        /* La llave máxima a regresar, o null si no hay máximo. */
+        private K hasta;
+
+        /* Construye un iterador que empieza en el vértice recibido. */
+        public Iterador(VerticeArbolBinario<Entrada> inicio, K hasta) {
+            this.hasta = hasta;
+            siguiente = inicio;
+            if (siguiente != null && hasta != null &&
+                siguiente.get().llave.compareTo(hasta) > 0)
+                siguiente = null;
+        }
+
+        /* Nos dice si hay una siguiente llave. */
+        @Override public boolean hasNext() {
+            return siguiente != null;
+        }
+
+        /* Regresa la siguiente llave, en orden. */
+        @Override public K next() {
+            if (siguiente == null)
+                throw new NoSuchElementException();
+            actual = siguiente.get();
+            siguiente = sucesor(siguiente);
+            if (siguiente != null && hasta != null &&
+                siguiente.get().llave.compareTo(hasta) > 0)
+                siguiente = null;
+            return actual.llave;
+        }
+
+        /* Regresa el valor de la última llave regresada. */
+        @Override public V getValor() {
+            if (actual == null)
+                throw new NoSuchElementException();
+            return actual.valor;
+        }
+    }
+
+    /* Clase privada para iterar los valores con un iterador de entradas. */
+    private class IteradorValores implements Iterator<V> {
+
+        /* El iterador de entradas. */
+        private IteradorDiccionario<K, V> iterador;
+
+        /* Construye un nuevo iterador. */
+        public IteradorValores() {
+            iterador = iteradorEntradas();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente elemento, en orden de su llave. */
+        @Override public V next() {
+            iterador.next();
+            return iterador.getValor();
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Las entradas. */
+    private ArbolRojinegro<Entrada> arbol;
+
+    /**
+     * Construye un diccionario ordenado vacío.
+     */
+    public DiccionarioOrdenado() {
+        arbol = new ArbolRojinegro<Entrada>();
+    }
+
+    /* Regresa el vértice de la llave, o null si no está. */
+    private VerticeArbolBinario<Entrada> busca(K llave) {
+        if (llave == null)
+            return null;
+        return arbol.busca(new Entrada(llave, null));
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        VerticeArbolBinario<Entrada> v = busca(llave);
+        if (v != null)
+            v.get().valor = valor;
+        else
+            arbol.agrega(new Entrada(llave, valor));
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        VerticeArbolBinario<Entrada> v = busca(llave);
+        if (v == null)
+            throw new NoSuchElementException();
+        return v.get().valor;
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return busca(llave) != null;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws NoSuchElementException si la llave no se encuentra en el
+     *         diccionario.
+     */
+    public void elimina(K llave) {
+        VerticeArbolBinario<Entrada> v = busca(llave);
+        if (v == null)
+            throw new NoSuchElementException();
+        arbol.elimina(v.get());
+    }
+
+    /* Regresa el vértice con la llave más grande menor o igual a la recibida
+     * (si piso es true), o con la más chica mayor o igual (si es false); null
+     * si no hay. */
+    private VerticeArbolBinario<Entrada> cota(K llave, boolean piso) {
+        if (arbol.esVacio())
+            return null;
+        VerticeArbolBinario<Entrada> v = arbol.raiz();
+        VerticeArbolBinario<Entrada> r = null;
+        while (v != null) {
+            int c = llave.compareTo(v.get().llave);
+            if (c == 0)
+                return v;
+            if (c < 0) {
+                if (!piso)
+                    r = v;
+                v = v.hayIzquierdo() ? v.getIzquierdo() : null;
+            } else {
+                if (piso)
+                    r = v;
+                v = v.hayDerecho() ? v.getDerecho() : null;
+            }
+        }
+        return r;
+    }
+
+    /* Regresa el vértice de la entrada siguiente en orden, o null si no hay. */
+    private VerticeArbolBinario<Entrada> sucesor(VerticeArbolBinario<Entrada> v) {
+        if (v.hayDerecho()) {
+            v = v.getDerecho();
+            while (v.hayIzquierdo())
+                v = v.getIzquierdo();
+            return v;
+        }
+        while (v.hayPadre() && v.getPadre().hayDerecho() &&
+               v.getPadre().getDerecho() == v)
+            v = v.getPadre();
+        return v.hayPadre() ? v.getPadre() : null;
+    }
+
+    /* Regresa el vértice de la llave mínima, o null si no hay. */
+    private VerticeArbolBinario<Entrada> primero() {
+        if (arbol.esVacio())
+            return null;
+        VerticeArbolBinario<Entrada> v = arbol.raiz();
+        while (v.hayIzquierdo())
+            v = v.getIzquierdo();
+        return v;
+    }
+
+    /**
+     * Regresa la llave más grande del diccionario que es menor o igual a la
+     * recibida.
+     * @param llave la llave a comparar.
+     * @return la llave más grande menor o igual a la recibida, o
+     *         <code>null</code> si no hay.
+     * @throws IllegalArgumentException si la llave es <code>null</code>.
+     */
+    public K piso(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException();
+        VerticeArbolBinario<Entrada> v = cota(llave, true);
+        return v == null ? null : v.get().llave;
+    }
+
+    /**
+     * Regresa la llave más chica del diccionario que es mayor o igual a la
+     * recibida.
+     * @param llave la llave a comparar.
+     * @return la llave más chica mayor o igual a la recibida, o
+     *         <code>null</code> si no hay.
+     * @throws IllegalArgumentException si la llave es <code>null</code>.
+     */
+    public K techo(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException();
+        VerticeArbolBinario<Entrada> v = cota(llave, false);
+        return v == null ? null : v.get().llave;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave más chica del diccionario que es
+     * mayor o igual a la recibida. Equivale a {@link #get} de {@link
+     * #techo}, pero baja por el árbol una sola vez.
+     * @param llave la llave a comparar.
+     * @return el valor de la llave más chica mayor o igual a la recibida, o
+     *         <code>null</code> si no hay.
+     * @throws IllegalArgumentException si la llave es <code>null</code>.
+     */
+    public V getTecho(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException();
+        VerticeArbolBinario<Entrada> v = cota(llave, false);
+        return v == null ? null : v.get().valor;
+    }
+
+    /**
+     * Regresa la llave mínima del diccionario.
+     * @return la llave mínima del diccionario.
+     * @throws NoSuchElementException si el diccionario es vacío.
+     */
+    public K minimo() {
+        if (arbol.esVacio())
+            throw new NoSuchElementException();
+        return primero().get().llave;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave mínima del diccionario.
+     * @return el valor asociado a la llave mínima del diccionario.
+     * @throws NoSuchElementException si el diccionario es vacío.
+     */
+    public V getMinimo() {
+        if (arbol.esVacio())
+            throw new NoSuchElementException();
+        return primero().get().valor;
+    }
+
+    /**
+     * Regresa la llave máxima del diccionario.
+     * @return la llave máxima del diccionario.
+     * @throws NoSuchElementException si el diccionario es vacío.
+     */
+    public K maximo() {
+        if (arbol.esVacio())
+            throw new NoSuchElementException();
+        VerticeArbolBinario<Entrada> v = arbol.raiz();
+        while (v.hayDerecho())
+            v = v.getDerecho();
+        return v.get().llave;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return arbol.getElementos();
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return arbol.esVacio();
+    }
+
+    /**
+     * Regresa un iterador para iterar las entradas del diccionario en orden
+     * de sus llaves. El iterador regresa las llaves, y con {@link
+     * IteradorDiccionario#getValor} el valor de la última llave regresada. El
+     * diccionario no debe modificarse mientras se itera.
+     * @return un iterador para iterar las entradas del diccionario.
+     */
+    public IteradorDiccionario<K, V> iteradorEntradas() {
+        return new Iterador(primero(), null);
+    }
+
+    /**
+     * Regresa un iterador para iterar en orden las entradas del diccionario
+     * con llaves entre las recibidas, incluyéndolas. Encontrar la primera
+     * entrada toma tiempo <i>O</i>(log <i>n</i>), y cada entrada siguiente
+     * tiempo constante amortizado. El diccionario no debe modificarse
+     * mientras se itera.
+     * @param desde la llave mínima del rango.
+     * @param hasta la llave máxima del rango.
+     * @return un iterador para iterar las entradas del rango.
+     * @throws IllegalArgumentException si alguna de las llaves es
+     *         <code>null</code>.
+     */
+    public IteradorDiccionario<K, V> iteradorRango(K desde, K hasta) {
+        if (desde == null || hasta == null)
+            throw new IllegalArgumentException();
+        return new Iterador(cota(desde, false), hasta);
+    }
+
+    /**
+     * Regresa una lista con las llaves del diccionario, en orden.
+     * @return una lista con las llaves del diccionario, en orden.
+     */
+    public Lista<K> llaves() {
+        Lista<K> llaves = new Lista<K>();
+        IteradorDiccionario<K, V> iterador = iteradorEntradas();
+        while (iterador.hasNext())
+            llaves.agregaFinal(iterador.next());
+        return llaves;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario en orden
+     * de sus llaves.
+     * @return un iterador para iterar el diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
@@ -0,0 +1,233 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase abstracta para diccionarios con llaves de un tipo primitivo. Las
+ * llaves se guardan sin envolver en un arreglo de tipo <code>L</code> (como
+ * <code>int[]</code>), y los valores en un arreglo paralelo; las colisiones se
+ * resuelven buscando la siguiente casilla libre.</p>
+ *
+ * <p>Aquí están el crecimiento, la eliminación con corrimiento hacia atrás y
+ * el iterador, que sólo necesitan el picadillo de la llave de cada casilla.
+ * Las clases herederas buscan y comparan sus llaves, para no tener que
+ * envolverlas en objetos.</p>
+ *
+ * <p>Una casilla está libre si su valor es <code>null</code>, por lo que el
+ * diccionario no acepta valores nulos.</p>
+ */
+public abstract class DiccionarioPrimitivo<L, V> implements Iterable<V> {
+
+    /* Clase privada para iteradores de diccionarios de llaves primitivas. */
+    private class Iterador implements Iterator<V> {
+
+        /* La siguiente casilla ocupada. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = -1;
+            buscaCasilla();
+        }
+
+        /* Mueve el índice a la siguiente casilla ocupada. */
+        private void buscaCasilla() {
+            do {
+                ++indice;
+            } while (indice < valores.length && valores[indice] == null);
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < valores.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            V valor = valores[indice];
+            buscaCasilla();
+            return valor;
+        }
+
+        /* No lo implementamos: siempre lanza una excepción. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /* Tamaño mínimo; decidido arbitrariamente a 2^6. */
+    private static final int MIN_N = 64;
+
+    /** Máscara para no usar módulo. */
+    protected int mascara;
+    /** Las llaves. */
+    protected L llaves;
+    /** Los valores; <code>null</code> en las casillas libres. */
+    protected V[] valores;
+    /** Número de valores. */
+    protected int elementos;
+
+    /* Truco para crear un arreglo genérico. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private V[] nuevoArreglo(int n) {
+        return (V[])(new Object[n]);
+    }
+
+    /**
+     * Construye un diccionario con un tamaño inicial definido por el usuario.
+     * @param tam el tamaño del diccionario.
+     */
+    protected DiccionarioPrimitivo(int tam) {
+        int n = MIN_N;
+        while (n < tam * 2)
+            n <<= 1;
+        mascara = n - 1;
+        llaves = nuevasLlaves(n);
+        valores = nuevoArreglo(n);
+    }
+
+    /**
+     * Regresa un arreglo nuevo para <code>n</code> llaves.
+     * @param n el número de llaves.
+     * @return un arreglo nuevo para <code>n</code> llaves.
+     */
+    protected abstract L nuevasLlaves(int n);
+
+    /**
+     * Regresa el picadillo de la llave en una casilla del arreglo recibido.
+     * @param llaves el arreglo de llaves.
+     * @param i la casilla.
+     * @return el picadillo de la llave en la casilla.
+     */
+    protected abstract int picadillo(L llaves, int i);
+
+    /**
+     * Copia la llave en una casilla de un arreglo a una casilla de otro (o
+     * del mismo).
+     * @param origen el arreglo de donde se copia la llave.
+     * @param i la casilla de donde se copia la llave.
+     * @param destino el arreglo a donde se copia la llave.
+     * @param j la casilla a donde se copia la llave.
+     */
+    protected abstract void copia(L origen, int i, L destino, int j);
+
+    /**
+     * Guarda el valor en una casilla libre, cuya llave ya debe estar en el
+     * arreglo de llaves, y hace crecer el diccionario si es necesario.
+     * @param i la casilla libre.
+     * @param valor el valor a guardar.
+     */
+    protected void ocupa(int i, V valor) {
+        valores[i] = valor;
+        if ((double)++elementos / (mascara + 1) >= Diccionario.MAXIMA_CARGA)
+            crece();
+    }
+
+    /* Duplica el tamaño de los arreglos y reacomoda las llaves. */
+    private void crece() {
+        L llaves = this.llaves;
+        V[] valores = this.valores;
+        int n = (mascara + 1) * 2;
+        mascara = n - 1;
+        this.llaves = nuevasLlaves(n);
+        this.valores = nuevoArreglo(n);
+        for (int j = 0; j < valores.length; ++j) {
+            if (valores[j] == null)
+                continue;
+            int i = picadillo(llaves, j) & mascara;
+            while (this.valores[i] != null)
+                i = (i + 1) & mascara;
+            copia(llaves, j, this.llaves, i);
+            this.valores[i] = valores[j];
+        }
+    }
+
+    /**
+     * Regresa el valor en una casilla.
+     * @param i la casilla, o -1 si la llave no se encontró.
+     * @return el valor en la casilla.
+     * @throws NoSuchElementException si la casilla es -1.
+     */
+    protected V valor(int i) {
+        if (i == -1)
+            throw new NoSuchElementException();
+        return valores[i];
+    }
+
+    /**
+     * Libera una casilla, recorriendo hacia atrás las llaves que le siguen y
+     * que no pueden quedar después de un hueco sin volverse inalcanzables.
+     * @param i la casilla, o -1 si la llave no se encontró.
+     * @throws NoSuchElementException si la casilla es -1.
+     */
+    protected void libera(int i) {
+        if (i == -1)
+            throw new NoSuchElementException();
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (valores[j] == null)
+                break;
+            int k = picadillo(llaves, j) & mascara;
+            if (((j - k) & mascara) >= ((j - i) & mascara)) {
+                copia(llaves, j, llaves, i);
+                valores[i] = valores[j];
+                i = j;
+            }
+        }
+        valores[i] = null;
+        --elementos;
+    }
+
+    /**
+     * Regresa un arreglo con las llaves de las casillas ocupadas, sin ningún
+     * tipo de orden.
+     * @return un arreglo con todas las llaves.
+     */
+    protected L copiaLlaves() {
+        L copia = nuevasLlaves(elementos);
+        int j = 0;
+        for (int i = 0; i < valores.length; ++i)
+            if (valores[i] != null)
+                copia(llaves, i, copia, j++);
+        return copia;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / (mascara + 1);
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacio() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar el diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new Iterador();
+    }
+}
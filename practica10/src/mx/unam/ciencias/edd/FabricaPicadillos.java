@@ -1,10 +1,37 @@
 package mx.unam.ciencias.edd;
 
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
 /**
- * Clase para fabricar picadillos.
+ * <p>Clase para fabricar picadillos.</p>
+ *
+ * <p>Los picadillos se calculan sobre los bytes de la cadena (los mismos que
+ * regresa {@link String#getBytes()}), pero sin crear el arreglo: si la cadena
+ * sólo tiene caracteres ASCII, cada carácter es su propio byte y se lee
+ * directamente. También pueden calcularse sobre una parte de un arreglo de
+ * bytes, o sobre los bytes restantes de un {@link ByteBuffer}.</p>
+ *
+ * <p>Los algoritmos de Bob Jenkins, MurmurHash3, xxHash, wyhash y SipHash
+ * aceptan una semilla, y semillas distintas dan picadillos distintos. Los de
+ * 64 bits se doblan a 32 bits combinando ambas mitades con XOR.</p>
+ *
+ * <p>Como los algoritmos son públicos, con la semilla predeterminada es
+ * posible fabricar muchas llaves con el mismo picadillo. Cambiar la semilla
+ * no basta con los algoritmos que no son criptográficos: MurmurHash3, por
+ * ejemplo, tiene familias de llaves que chocan con cualquier semilla, porque
+ * la diferencia que un bloque introduce en el estado la cancela el bloque
+ * siguiente sin importar el estado. Sólo SipHash, una función pseudoaleatoria
+ * con llave, garantiza que quien no conoce la semilla no puede fabricar
+ * colisiones; por eso es el único algoritmo que acepta {@link
+ * #getFamilia}. Su llave es de 128 bits: la semilla y la semilla
+ * revuelta.</p>
  */
 public class FabricaPicadillos {
 
+    /* Generador de semillas aleatorias. */
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
     /**
      * Regresa una instancia de {@link Picadillo} para cadenas.
      * @param algoritmo el algoritmo de picadillo que se desea.
@@ -13,124 +40,662 @@ public class FabricaPicadillos {
      *         reconocido.
      */
     public static Picadillo<String> getInstancia(AlgoritmoPicadillo algoritmo) {
-        Picadillo<String> bjString = (String objeto) -> {
-            byte[] k = objeto.getBytes();
-            int n = k.length;
-            
-            // Arreglo que representa a las variables a, b, c.
-            // abc[0] = a / abc[1] = b / abc[2] = c.
-            int [] abc = {0x9e3779b9, 0x9e3779b9, 0xffffffff};
-            
-            // Variables que representan los indices del arreglo.
-            int a = 0; 
-            int b = 1; 
-            int c = 2;
-            
-            int l = n;
-            int i = 0;
-        
-            while (l >= 12) {
-                abc[a] += (k[i] + (k[i + 1] << 8) + (k[i + 2]  << 16) + (k[i + 3]  << 24));
-                abc[b] += (k[i + 4] + (k[i + 5] << 8) + (k[i + 6]  << 16) + (k[i + 7]  << 24));
-                abc[c] += (k[i + 8] + (k[i + 9] << 8) + (k[i + 10] << 16) + (k[i + 11] << 24));
-                
-                abc = permutacionesBJ(abc);
-                
-                i += 12;
-                l -= 12;
-            }
-            
-            abc[c] += n;
-            switch (l) {
-                case 11: abc[c] += (k[i + 10] << 24);
-                case 10: abc[c] += (k[i + 9]  << 16);
-                case  9: abc[c] += (k[i + 8]  <<  8);
-            
-                case  8: abc[b] += (k[i + 7]  << 24);
-                case  7: abc[b] += (k[i + 6]  << 16);
-                case  6: abc[b] += (k[i + 5]  <<  8);
-                case  5: abc[b] += k[i + 4];
-            
-                case  4: abc[a] += (k[i + 3]  << 24);
-                case  3: abc[a] += (k[i + 2]  << 16);
-                case  2: abc[a] += (k[i + 1]  <<  8);
-                case  1: abc[a] += k[i];
-            }
-            
-            abc = permutacionesBJ(abc);
-        
-            return (int) abc[c];
-        };
-        
-        Picadillo<String> glibString = (String objeto) -> {
-            byte[] k = objeto.getBytes(); 
-            int n = k.length; 
-            int h = 5381; 
-            for (int i = 0; i < n; ++i) { 
-                char c = (char) k[i]; 
-                h = 33 * h + c; 
-            }
-            
-            return h; 
-
-        };
-        
-        Picadillo<String> xorString = (String objeto) -> {
-            byte[] k = objeto.getBytes();
-            int l = k.length;
-            int r = 0;
-            int i = 0;
-            
-            while (l >= 4) {
-                r ^= (k[i] << 24) | (k[i + 1] << 16) | (k[i + 2] << 8) | k[i + 3];
-                i += 4;
-                l -= 4;
-            }
-            
-            int t = 0;
-            switch (l) {
-                case 3: t |= k[i+2] << 8;
-                case 2: t |= k[i+1] << 16;
-                case 1: t |= k[i]   << 24;
+        return getInstancia(algoritmo, semillaInicial(algoritmo));
+    }
+
+    /**
+     * Regresa una instancia de {@link Picadillo} para cadenas, con la semilla
+     * recibida.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @param semilla la semilla del picadillo.
+     * @return una instancia de {@link Picadillo} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o si el algoritmo no acepta semillas.
+     */
+    public static Picadillo<String> getInstancia(AlgoritmoPicadillo algoritmo,
+                                                 long semilla) {
+        revisaSemilla(algoritmo, semilla);
+        return (String objeto) -> picadillo(algoritmo, semilla, objeto);
+    }
+
+    /**
+     * Regresa una instancia de {@link Picadillo} para arreglos de bytes.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @return una instancia de {@link Picadillo} para arreglos de bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static Picadillo<byte[]> getInstanciaBytes(AlgoritmoPicadillo algoritmo) {
+        return getInstanciaBytes(algoritmo, semillaInicial(algoritmo));
+    }
+
+    /**
+     * Regresa una instancia de {@link Picadillo} para arreglos de bytes, con
+     * la semilla recibida.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @param semilla la semilla del picadillo.
+     * @return una instancia de {@link Picadillo} para arreglos de bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o si el algoritmo no acepta semillas.
+     */
+    public static Picadillo<byte[]> getInstanciaBytes(AlgoritmoPicadillo algoritmo,
+                                                      long semilla) {
+        revisaSemilla(algoritmo, semilla);
+        return (byte[] objeto) ->
+            picadillo(algoritmo, semilla, null, objeto, null, 0, objeto.length);
+    }
+
+    /**
+     * Regresa una instancia de {@link Picadillo} para cadenas, con una
+     * semilla aleatoria distinta en cada llamada.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @return una instancia de {@link Picadillo} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o si el algoritmo no acepta semillas.
+     */
+    public static Picadillo<String> getInstanciaAleatoria(AlgoritmoPicadillo algoritmo) {
+        return getInstancia(algoritmo, semillaAleatoria());
+    }
+
+    /**
+     * Regresa la familia de picadillos para cadenas del algoritmo, donde
+     * cada semilla determina un picadillo distinto. Sólo se aceptan
+     * algoritmos con los que, sin conocer la semilla, no es posible fabricar
+     * llaves que choquen; es decir, {@link AlgoritmoPicadillo#SIPHASH_STRING}.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @return la familia de picadillos para cadenas del algoritmo.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o si el algoritmo no es una función pseudoaleatoria
+     *         con llave.
+     */
+    public static FamiliaPicadillos<String> getFamilia(AlgoritmoPicadillo algoritmo) {
+        if (algoritmo != AlgoritmoPicadillo.SIPHASH_STRING)
+            throw new IllegalArgumentException();
+        return (long semilla) -> getInstancia(algoritmo, semilla);
+    }
+
+    /**
+     * Regresa una semilla aleatoria, tomada de un generador
+     * criptográficamente seguro.
+     * @return una semilla aleatoria.
+     */
+    public static long semillaAleatoria() {
+        return ALEATORIO.nextLong();
+    }
+
+    /**
+     * Nos dice si el algoritmo acepta semillas.
+     * @param algoritmo el algoritmo de picadillo.
+     * @return <code>true</code> si el algoritmo acepta semillas,
+     *         <code>false</code> en otro caso.
+     */
+    public static boolean aceptaSemilla(AlgoritmoPicadillo algoritmo) {
+        return algoritmo != AlgoritmoPicadillo.GLIB_STRING &&
+            algoritmo != AlgoritmoPicadillo.XOR_STRING;
+    }
+
+    /* La semilla que usa el algoritmo cuando no recibe una. */
+    private static long semillaInicial(AlgoritmoPicadillo algoritmo) {
+        if (algoritmo == null)
+            throw new IllegalArgumentException();
+        return algoritmo == AlgoritmoPicadillo.BJ_STRING ? 0xffffffffL : 0;
+    }
+
+    /* Lanza una excepción si el algoritmo no acepta la semilla. */
+    private static void revisaSemilla(AlgoritmoPicadillo algoritmo,
+                                      long semilla) {
+        if (!aceptaSemilla(algoritmo) && semilla != semillaInicial(algoritmo))
+            throw new IllegalArgumentException();
+    }
+
+    /**
+     * Calcula el picadillo de una secuencia de caracteres. El resultado es el
+     * mismo que el del picadillo de los bytes de la cadena.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @param objeto la secuencia de caracteres.
+     * @return el picadillo de la secuencia de caracteres.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static int picadillo(AlgoritmoPicadillo algoritmo,
+                                CharSequence objeto) {
+        return picadillo(algoritmo, semillaInicial(algoritmo), objeto);
+    }
+
+    /* Picadillo de la secuencia de caracteres con la semilla recibida. */
+    private static int picadillo(AlgoritmoPicadillo algoritmo, long semilla,
+                                 CharSequence objeto) {
+        int n = objeto.length();
+        for (int i = 0; i < n; ++i) {
+            if (objeto.charAt(i) >= 0x80) {
+                // Fuera de ASCII un carácter puede ser varios bytes.
+                byte[] k = objeto.toString().getBytes();
+                return picadillo(algoritmo, semilla, null, k, null, 0, k.length);
             }
-            
-            r ^= t;
-            return r;
-        };
-        
+        }
+        return picadillo(algoritmo, semilla, objeto, null, null, 0, n);
+    }
+
+    /**
+     * Calcula el picadillo de una parte de un arreglo de bytes.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @param k el arreglo de bytes.
+     * @param inicio dónde empiezan los bytes en el arreglo.
+     * @param longitud cuántos bytes usar.
+     * @return el picadillo de los bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     * @throws IndexOutOfBoundsException si la parte no está en el arreglo.
+     */
+    public static int picadillo(AlgoritmoPicadillo algoritmo, byte[] k,
+                                int inicio, int longitud) {
+        if (inicio < 0 || longitud < 0 || inicio + longitud > k.length)
+            throw new IndexOutOfBoundsException();
+        return picadillo(algoritmo, semillaInicial(algoritmo),
+                         null, k, null, inicio, longitud);
+    }
+
+    /**
+     * Calcula el picadillo de los bytes entre la posición y el límite de un
+     * {@link ByteBuffer}, sin modificar su posición.
+     * @param algoritmo el algoritmo de picadillo que se desea.
+     * @param buffer el buffer.
+     * @return el picadillo de los bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static int picadillo(AlgoritmoPicadillo algoritmo,
+                                ByteBuffer buffer) {
+        long semilla = semillaInicial(algoritmo);
+        if (buffer.hasArray())
+            return picadillo(algoritmo, semilla, null, buffer.array(),
+                             null, buffer.arrayOffset() + buffer.position(),
+                             buffer.remaining());
+        return picadillo(algoritmo, semilla, null, null, buffer,
+                         buffer.position(), buffer.remaining());
+    }
+
+    /* Sólo una de las tres fuentes de bytes es distinta de null. */
+    private static int picadillo(AlgoritmoPicadillo algoritmo, long semilla,
+                                 CharSequence s, byte[] k, ByteBuffer buffer,
+                                 int inicio, int n) {
         switch (algoritmo) {
-            
+
             case BJ_STRING:
-                return bjString;
-                
+                return bj(s, k, buffer, inicio, n, (int)semilla);
+
             case GLIB_STRING:
-                return glibString;
-                
+                return glib(s, k, buffer, inicio, n);
+
             case XOR_STRING:
-                return xorString;
-                
+                return xor(s, k, buffer, inicio, n);
+
+            case MURMUR3_STRING:
+                return murmur3(s, k, buffer, inicio, n, (int)semilla);
+
+            case XXHASH32_STRING:
+                return xxHash32(s, k, buffer, inicio, n, (int)semilla);
+
+            case XXHASH64_STRING:
+                return dobla(xxHash64(s, k, buffer, inicio, n, semilla));
+
+            case WYHASH_STRING:
+                return dobla(wyhash(s, k, buffer, inicio, n, semilla));
+
+            case SIPHASH_STRING:
+                return dobla(sipHash(s, k, buffer, inicio, n, semilla,
+                                     revuelve(semilla)));
+
             default:
                 throw new IllegalArgumentException();
         }
     }
-    
-    // Metodo auxiliar que permite evitar repetir codigo.
-    // abc[0] = a / abc[1] = b / abc[2] = c.
-    private static int[] permutacionesBJ(int[] abc) {
-        int a = 0;
-        int b = 1;
-        int c = 2;
-        
-        abc[a] -= abc[b]; abc[a] -= abc[c]; abc[a] ^= (abc[c] >>>  13);
-        abc[b] -= abc[c]; abc[b] -= abc[a]; abc[b] ^= (abc[a] << 8);
-        abc[c] -= abc[a]; abc[c] -= abc[b]; abc[c] ^= (abc[b] >>> 13);
-        abc[a] -= abc[b]; abc[a] -= abc[c]; abc[a] ^= (abc[c] >>> 12);
-        abc[b] -= abc[c]; abc[b] -= abc[a]; abc[b] ^= (abc[a] << 16);
-        abc[c] -= abc[a]; abc[c] -= abc[b]; abc[c] ^= (abc[b] >>> 5);
-        abc[a] -= abc[b]; abc[a] -= abc[c]; abc[a] ^= (abc[c] >>> 3);
-        abc[b] -= abc[c]; abc[b] -= abc[a]; abc[b] ^= (abc[a] << 10);
-        abc[c] -= abc[a]; abc[c] -= abc[b]; abc[c] ^= (abc[b] >>> 15);
-        
-        return abc;
+
+    /* Lee el i-ésimo byte de la fuente que no es null, con signo, como lo
+     * regresaría un byte[]. */
+    private static int lee(CharSequence s, byte[] k, ByteBuffer buffer,
+                           int i) {
+        if (k != null)
+            return k[i];
+        if (s != null)
+            return (byte)s.charAt(i);
+        return buffer.get(i);
+    }
+
+    /* Lee cuatro bytes sin signo a partir del i-ésimo, el primero como el
+     * menos significativo. */
+    private static int lee32(CharSequence s, byte[] k, ByteBuffer buffer,
+                             int i) {
+        return (lee(s, k, buffer, i) & 0xff) |
+            (lee(s, k, buffer, i + 1) & 0xff) << 8 |
+            (lee(s, k, buffer, i + 2) & 0xff) << 16 |
+            (lee(s, k, buffer, i + 3) & 0xff) << 24;
+    }
+
+    /* Lee ocho bytes sin signo a partir del i-ésimo, el primero como el menos
+     * significativo. */
+    private static long lee64(CharSequence s, byte[] k, ByteBuffer buffer,
+                              int i) {
+        return (lee32(s, k, buffer, i) & 0xffffffffL) |
+            (long)lee32(s, k, buffer, i + 4) << 32;
+    }
+
+    /* Dobla un picadillo de 64 bits a 32. */
+    private static int dobla(long h) {
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /* Revuelve los 32 bits sin signo del picadillo en 64 con SplitMix64.
+     * Lo usan las estructuras que sacan varias posiciones casi
+     * independientes de un solo picadillo. */
+    static long revuelve(int picadillo) {
+        return revuelve(picadillo & 0xffffffffL);
+    }
+
+    /* SplitMix64: suma la constante de oro y aplica su finalizador. */
+    static long revuelve(long z) {
+        z += 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /* Algoritmo de Bob Jenkins. Las variables a, b y c se mezclan en locales
+     * en cada bloque de 12 bytes, y una última vez con el resto; la semilla
+     * es el valor inicial de c. */
+    private static int bj(CharSequence s, byte[] k, ByteBuffer buffer,
+                          int inicio, int n, int semilla) {
+        int a = 0x9e3779b9;
+        int b = 0x9e3779b9;
+        int c = semilla;
+        int l = n;
+        int i = inicio;
+        boolean ultimo = false;
+
+        do {
+            if (l >= 12) {
+                a += (lee(s, k, buffer, i)           + (lee(s, k, buffer, i + 1) << 8) +
+                      (lee(s, k, buffer, i + 2) << 16) + (lee(s, k, buffer, i + 3) << 24));
+                b += (lee(s, k, buffer, i + 4)       + (lee(s, k, buffer, i + 5) << 8) +
+                      (lee(s, k, buffer, i + 6) << 16) + (lee(s, k, buffer, i + 7) << 24));
+                c += (lee(s, k, buffer, i + 8)       + (lee(s, k, buffer, i + 9) << 8) +
+                      (lee(s, k, buffer, i + 10) << 16) + (lee(s, k, buffer, i + 11) << 24));
+                i += 12;
+                l -= 12;
+            } else {
+                c += n;
+                switch (l) {
+                    case 11: c += (lee(s, k, buffer, i + 10) << 24);
+                    case 10: c += (lee(s, k, buffer, i + 9)  << 16);
+                    case  9: c += (lee(s, k, buffer, i + 8)  <<  8);
+
+                    case  8: b += (lee(s, k, buffer, i + 7)  << 24);
+                    case  7: b += (lee(s, k, buffer, i + 6)  << 16);
+                    case  6: b += (lee(s, k, buffer, i + 5)  <<  8);
+                    case  5: b += lee(s, k, buffer, i + 4);
+
+                    case  4: a += (lee(s, k, buffer, i + 3)  << 24);
+                    case  3: a += (lee(s, k, buffer, i + 2)  << 16);
+                    case  2: a += (lee(s, k, buffer, i + 1)  <<  8);
+                    case  1: a += lee(s, k, buffer, i);
+                }
+                ultimo = true;
+            }
+
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+        } while (!ultimo);
+
+        return c;
+    }
+
+    /* Algoritmo de GLib (djb2). */
+    private static int glib(CharSequence s, byte[] k, ByteBuffer buffer,
+                            int inicio, int n) {
+        int h = 5381;
+        for (int i = inicio; i < inicio + n; ++i) {
+            char c = (char)lee(s, k, buffer, i);
+            h = 33 * h + c;
+        }
+        return h;
+    }
+
+    /* Algoritmo XOR: se combinan bloques de cuatro bytes. */
+    private static int xor(CharSequence s, byte[] k, ByteBuffer buffer,
+                           int inicio, int n) {
+        int l = n;
+        int r = 0;
+        int i = inicio;
+
+        while (l >= 4) {
+            r ^= (lee(s, k, buffer, i) << 24) | (lee(s, k, buffer, i + 1) << 16) |
+                 (lee(s, k, buffer, i + 2) << 8) | lee(s, k, buffer, i + 3);
+            i += 4;
+            l -= 4;
+        }
+
+        int t = 0;
+        switch (l) {
+            case 3: t |= lee(s, k, buffer, i + 2) << 8;
+            case 2: t |= lee(s, k, buffer, i + 1) << 16;
+            case 1: t |= lee(s, k, buffer, i)     << 24;
+        }
+
+        r ^= t;
+        return r;
+    }
+
+    /* Algoritmo MurmurHash3 x86 de 32 bits. */
+    private static int murmur3(CharSequence s, byte[] k, ByteBuffer buffer,
+                               int inicio, int n, int semilla) {
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+        int h = semilla;
+        int i = inicio;
+        int fin = inicio + (n & ~3);
+
+        for (; i < fin; i += 4) {
+            int b = lee32(s, k, buffer, i);
+            b *= c1;
+            b = Integer.rotateLeft(b, 15);
+            b *= c2;
+            h ^= b;
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xe6546b64;
+        }
+
+        int b = 0;
+        switch (n & 3) {
+            case 3: b ^= (lee(s, k, buffer, i + 2) & 0xff) << 16;
+            case 2: b ^= (lee(s, k, buffer, i + 1) & 0xff) << 8;
+            case 1: b ^= lee(s, k, buffer, i) & 0xff;
+                    b *= c1;
+                    b = Integer.rotateLeft(b, 15);
+                    b *= c2;
+                    h ^= b;
+        }
+
+        h ^= n;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /* Primos de xxHash de 32 bits. */
+    private static final int P32_1 = 0x9e3779b1;
+    private static final int P32_2 = 0x85ebca77;
+    private static final int P32_3 = 0xc2b2ae3d;
+    private static final int P32_4 = 0x27d4eb2f;
+    private static final int P32_5 = 0x165667b1;
+
+    /* Una ronda de xxHash de 32 bits. */
+    private static int ronda32(int acumulado, int entrada) {
+        acumulado += entrada * P32_2;
+        acumulado = Integer.rotateLeft(acumulado, 13);
+        return acumulado * P32_1;
+    }
+
+    /* Algoritmo xxHash de 32 bits: cuatro acumuladores independientes por
+     * cada bloque de 16 bytes. */
+    private static int xxHash32(CharSequence s, byte[] k, ByteBuffer buffer,
+                                int inicio, int n, int semilla) {
+        int i = inicio;
+        int fin = inicio + n;
+        int h;
+
+        if (n >= 16) {
+            int v1 = semilla + P32_1 + P32_2;
+            int v2 = semilla + P32_2;
+            int v3 = semilla;
+            int v4 = semilla - P32_1;
+            for (; i <= fin - 16; i += 16) {
+                v1 = ronda32(v1, lee32(s, k, buffer, i));
+                v2 = ronda32(v2, lee32(s, k, buffer, i + 4));
+                v3 = ronda32(v3, lee32(s, k, buffer, i + 8));
+                v4 = ronda32(v4, lee32(s, k, buffer, i + 12));
+            }
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) +
+                Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = semilla + P32_5;
+        }
+
+        h += n;
+        for (; i <= fin - 4; i += 4) {
+            h += lee32(s, k, buffer, i) * P32_3;
+            h = Integer.rotateLeft(h, 17) * P32_4;
+        }
+        for (; i < fin; ++i) {
+            h += (lee(s, k, buffer, i) & 0xff) * P32_5;
+            h = Integer.rotateLeft(h, 11) * P32_1;
+        }
+
+        h ^= h >>> 15;
+        h *= P32_2;
+        h ^= h >>> 13;
+        h *= P32_3;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /* Primos de xxHash de 64 bits. */
+    private static final long P64_1 = 0x9e3779b185ebca87L;
+    private static final long P64_2 = 0xc2b2ae3d27d4eb4fL;
+    private static final long P64_3 = 0x165667b19e3779f9L;
+    private static final long P64_4 = 0x85ebca77c2b2ae63L;
+    private static final long P64_5 = 0x27d4eb2f165667c5L;
+
+    /* Una ronda de xxHash de 64 bits. */
+    private static long ronda64(long acumulado, long entrada) {
+        acumulado += entrada * P64_2;
+        acumulado = Long.rotateLeft(acumulado, 31);
+        return acumulado * P64_1;
+    }
+
+    /* Combina un acumulador de xxHash de 64 bits con el picadillo. */
+    private static long combina64(long h, long acumulado) {
+        h ^= ronda64(0, acumulado);
+        return h * P64_1 + P64_4;
+    }
+
+    /* Algoritmo xxHash de 64 bits: cuatro acumuladores independientes por
+     * cada bloque de 32 bytes. */
+    private static long xxHash64(CharSequence s, byte[] k, ByteBuffer buffer,
+                                 int inicio, int n, long semilla) {
+        int i = inicio;
+        int fin = inicio + n;
+        long h;
+
+        if (n >= 32) {
+            long v1 = semilla + P64_1 + P64_2;
+            long v2 = semilla + P64_2;
+            long v3 = semilla;
+            long v4 = semilla - P64_1;
+            for (; i <= fin - 32; i += 32) {
+                v1 = ronda64(v1, lee64(s, k, buffer, i));
+                v2 = ronda64(v2, lee64(s, k, buffer, i + 8));
+                v3 = ronda64(v3, lee64(s, k, buffer, i + 16));
+                v4 = ronda64(v4, lee64(s, k, buffer, i + 24));
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) +
+                Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = combina64(h, v1);
+            h = combina64(h, v2);
+            h = combina64(h, v3);
+            h = combina64(h, v4);
+        } else {
+            h = semilla + P64_5;
+        }
+
+        h += n;
+        for (; i <= fin - 8; i += 8) {
+            h ^= ronda64(0, lee64(s, k, buffer, i));
+            h = Long.rotateLeft(h, 27) * P64_1 + P64_4;
+        }
+        if (i <= fin - 4) {
+            h ^= (lee32(s, k, buffer, i) & 0xffffffffL) * P64_1;
+            h = Long.rotateLeft(h, 23) * P64_2 + P64_3;
+            i += 4;
+        }
+        for (; i < fin; ++i) {
+            h ^= (lee(s, k, buffer, i) & 0xff) * P64_5;
+            h = Long.rotateLeft(h, 11) * P64_1;
+        }
+
+        h ^= h >>> 33;
+        h *= P64_2;
+        h ^= h >>> 29;
+        h *= P64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /* Constantes secretas de wyhash. */
+    private static final long W0 = 0xa0761d6478bd642fL;
+    private static final long W1 = 0xe7037ed1a0b428dbL;
+    private static final long W2 = 0x8ebc6af09c88c6e3L;
+    private static final long W3 = 0x589965cc75374cc3L;
+
+    /* Los 64 bits altos del producto sin signo de 128 bits, con productos
+     * de las mitades de 32 bits. */
+    private static long productoAlto(long a, long b) {
+        long a0 = a & 0xffffffffL;
+        long a1 = a >>> 32;
+        long b0 = b & 0xffffffffL;
+        long b1 = b >>> 32;
+        long p01 = a0 * b1;
+        long p10 = a1 * b0;
+        long medio = ((a0 * b0) >>> 32) + (p01 & 0xffffffffL) +
+            (p10 & 0xffffffffL);
+        return a1 * b1 + (p01 >>> 32) + (p10 >>> 32) + (medio >>> 32);
+    }
+
+    /* Mezcla de wyhash: XOR de las dos mitades del producto de 128 bits. */
+    private static long mezclaWy(long a, long b) {
+        return a * b ^ productoAlto(a, b);
+    }
+
+    /* Mezclador al estilo de wyhash: bloques de 16 bytes (48 con tres
+     * acumuladores para entradas largas) mezclados con multiplicaciones de
+     * 128 bits. */
+    private static long wyhash(CharSequence s, byte[] k, ByteBuffer buffer,
+                               int inicio, int n, long semilla) {
+        int i = inicio;
+        long a, b;
+        semilla ^= mezclaWy(semilla ^ W0, W1);
+
+        if (n <= 16) {
+            if (n >= 4) {
+                int m = (n >> 3) << 2;
+                a = (lee32(s, k, buffer, i) & 0xffffffffL) << 32 |
+                    (lee32(s, k, buffer, i + m) & 0xffffffffL);
+                b = (lee32(s, k, buffer, i + n - 4) & 0xffffffffL) << 32 |
+                    (lee32(s, k, buffer, i + n - 4 - m) & 0xffffffffL);
+            } else if (n > 0) {
+                a = (lee(s, k, buffer, i) & 0xffL) << 16 |
+                    (lee(s, k, buffer, i + (n >> 1)) & 0xffL) << 8 |
+                    (lee(s, k, buffer, i + n - 1) & 0xffL);
+                b = 0;
+            } else {
+                a = b = 0;
+            }
+        } else {
+            int l = n;
+            if (l > 48) {
+                long s1 = semilla, s2 = semilla;
+                do {
+                    semilla = mezclaWy(lee64(s, k, buffer, i) ^ W1,
+                                       lee64(s, k, buffer, i + 8) ^ semilla);
+                    s1 = mezclaWy(lee64(s, k, buffer, i + 16) ^ W2,
+                                  lee64(s, k, buffer, i + 24) ^ s1);
+                    s2 = mezclaWy(lee64(s, k, buffer, i + 32) ^ W3,
+                                  lee64(s, k, buffer, i + 40) ^ s2);
+                    i += 48;
+                    l -= 48;
+                } while (l > 48);
+                semilla ^= s1 ^ s2;
+            }
+            while (l > 16) {
+                semilla = mezclaWy(lee64(s, k, buffer, i) ^ W1,
+                                   lee64(s, k, buffer, i + 8) ^ semilla);
+                i += 16;
+                l -= 16;
+            }
+            a = lee64(s, k, buffer, i + l - 16);
+            b = lee64(s, k, buffer, i + l - 8);
+        }
+
+        a ^= W1;
+        b ^= semilla;
+        long bajo = a * b;
+        long alto = productoAlto(a, b);
+        return mezclaWy(bajo ^ W0 ^ n, alto ^ W1);
+    }
+
+    /* Constantes iniciales de SipHash. */
+    private static final long S0 = 0x736f6d6570736575L;
+    private static final long S1 = 0x646f72616e646f6dL;
+    private static final long S2 = 0x6c7967656e657261L;
+    private static final long S3 = 0x7465646279746573L;
+
+    /* Algoritmo SipHash-2-4 con la llave (k0, k1): dos rondas por cada
+     * bloque de 8 bytes (el último lleva la longitud en su byte más
+     * significativo) y cuatro al final. */
+    private static long sipHash(CharSequence s, byte[] k, ByteBuffer buffer,
+                                int inicio, int n, long k0, long k1) {
+        long v0 = k0 ^ S0, v1 = k1 ^ S1, v2 = k0 ^ S2, v3 = k1 ^ S3;
+        int i = inicio;
+        int fin = inicio + n;
+        boolean ultimo = false;
+        while (!ultimo) {
+            long m;
+            if (i <= fin - 8) {
+                m = lee64(s, k, buffer, i);
+                i += 8;
+            } else {
+                m = (long)n << 56;
+                for (int j = 0; i < fin; ++i, j += 8)
+                    m |= (lee(s, k, buffer, i) & 0xffL) << j;
+                ultimo = true;
+            }
+            v3 ^= m;
+            for (int r = 0; r < 2; ++r) {
+                v0 += v1;
+                v1 = Long.rotateLeft(v1, 13) ^ v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3;
+                v3 = Long.rotateLeft(v3, 16) ^ v2;
+                v0 += v3;
+                v3 = Long.rotateLeft(v3, 21) ^ v0;
+                v2 += v1;
+                v1 = Long.rotateLeft(v1, 17) ^ v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        v2 ^= 0xff;
+        for (int r = 0; r < 4; ++r) {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13) ^ v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16) ^ v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21) ^ v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17) ^ v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
     }
 }
@@ -0,0 +1,16 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz genérica para familias de picadillos: cada semilla determina un
+ * picadillo distinto de la familia.
+ */
+@FunctionalInterface
+public interface FamiliaPicadillos<T> {
+
+    /**
+     * Regresa el picadillo de la familia que corresponde a la semilla.
+     * @param semilla la semilla del picadillo.
+     * @return el picadillo de la familia que corresponde a la semilla.
+     */
+    public Picadillo<T> getPicadillo(long semilla);
+}
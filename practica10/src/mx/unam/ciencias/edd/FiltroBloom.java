@@ -0,0 +1,193 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para filtros de Bloom. Un filtro de Bloom nos dice si un elemento
+ * <em>no</em> ha sido agregado, sin guardar los elementos: si {@link
+ * #contiene} regresa <code>false</code> el elemento nunca fue agregado, y si
+ * regresa <code>true</code> probablemente lo fue, con una probabilidad de
+ * falso positivo que se define al construir el filtro.</p>
+ *
+ * <p>El filtro es un arreglo de <em>m</em> bits guardados en un arreglo de
+ * <code>long</code>. Cada elemento enciende <em>k</em> bits, cuyas
+ * posiciones se obtienen del {@link Picadillo} del elemento con doble
+ * picadillo: la <em>i</em>-ésima posición es <em>h</em><sub>1</sub> +
+ * <em>i</em> <em>h</em><sub>2</sub>, donde <em>h</em><sub>1</sub> y
+ * <em>h</em><sub>2</sub> son las dos mitades de un revoltijo de 64 bits del
+ * picadillo. Para <em>n</em> elementos y probabilidad <em>p</em> de falso
+ * positivo se usan <em>m</em> = −<em>n</em> ln <em>p</em> / (ln 2)² bits y
+ * <em>k</em> = (<em>m</em>/<em>n</em>) ln 2 posiciones; por ejemplo, con
+ * <em>p</em> = 0.01 son 9.6 bits y 7 posiciones por elemento.</p>
+ *
+ * <p>Como las posiciones salen de un picadillo de 32 bits, un elemento que
+ * no fue agregado pero tiene el mismo picadillo que uno de los <em>n</em>
+ * que sí enciende los mismos bits, y el filtro siempre dice que está. Eso
+ * pone un piso de alrededor de <em>n</em>/2<sup>32</sup> a la probabilidad
+ * de falso positivo, sin importar cuántos bits se usen: 2.3 ×
+ * 10<sup>−4</sup> con 10<sup>6</sup> elementos, y 0.01 con 4.3 ×
+ * 10<sup>7</sup>. Pedir una probabilidad menor a ese piso sólo gasta
+ * bits.</p>
+ *
+ * <p>Puesto frente a un {@link Diccionario} o a una búsqueda en disco,
+ * descarta casi todas las llaves ausentes sin recorrer una lista. Como los
+ * bits de un elemento pueden ser compartidos con otros, no se pueden
+ * eliminar elementos; para eso está {@link FiltroCuco}.</p>
+ */
+public class FiltroBloom<T> {
+
+    /* Los bits del filtro. */
+    private long[] bits;
+    /* Número de bits del filtro. */
+    private int m;
+    /* Número de posiciones por elemento. */
+    private int k;
+    /* Número de elementos agregados. */
+    private int elementos;
+    /* El picadillo. */
+    private Picadillo<T> picadillo;
+
+    /**
+     * Construye un filtro para el número de elementos y la probabilidad de
+     * falso positivo recibidos, con un picadillo predeterminado.
+     * @param n el número esperado de elementos.
+     * @param probabilidad la probabilidad de falso positivo deseada con
+     *        <em>n</em> elementos.
+     * @throws IllegalArgumentException si <em>n</em> es menor a uno, o la
+     *         probabilidad no está en el intervalo (0, 1).
+     */
+    public FiltroBloom(int n, double probabilidad) {
+        this(n, probabilidad, (T elemento) -> elemento.hashCode());
+    }
+
+    /**
+     * Construye un filtro para el número de elementos y la probabilidad de
+     * falso positivo recibidos, con el picadillo recibido.
+     * @param n el número esperado de elementos.
+     * @param probabilidad la probabilidad de falso positivo deseada con
+     *        <em>n</em> elementos.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si <em>n</em> es menor a uno, la
+     *         probabilidad no está en el intervalo (0, 1), o el picadillo es
+     *         <code>null</code>.
+     */
+    public FiltroBloom(int n, double probabilidad, Picadillo<T> picadillo) {
+        if (n < 1 || !(probabilidad > 0.0 && probabilidad < 1.0) ||
+            picadillo == null)
+            throw new IllegalArgumentException();
+        double ln2 = Math.log(2);
+        double bitsPorElemento = -Math.log(probabilidad) / (ln2 * ln2);
+        long total = (long)Math.ceil(n * bitsPorElemento);
+        /* Redondeamos a un múltiplo de 64, sin pasarnos del máximo
+         * que podemos indexar. */
+        total = Math.min((total + 63) & ~63L, Integer.MAX_VALUE & ~63L);
+        m = (int)total;
+        k = Math.max(1, (int)Math.round(bitsPorElemento * ln2));
+        bits = new long[m >>> 6];
+        this.picadillo = picadillo;
+    }
+
+    /* Convierte los 32 bits de h en una posición en [0, m) multiplicando en
+     * vez de usar módulo. */
+    private int posicion(int h) {
+        return (int)(((h & 0xffffffffL) * m) >>> 32);
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32) | 1;
+        for (int i = 0; i < k; ++i) {
+            int p = posicion(h1);
+            bits[p >>> 6] |= 1L << p;
+            h1 += h2;
+        }
+        ++elementos;
+    }
+
+    /**
+     * Nos dice si el elemento pudo haber sido agregado al filtro.
+     * @param elemento el elemento que queremos saber si está en el filtro.
+     * @return <code>false</code> si el elemento definitivamente no ha sido
+     *         agregado; <code>true</code> si probablemente sí.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32) | 1;
+        for (int i = 0; i < k; ++i) {
+            int p = posicion(h1);
+            if ((bits[p >>> 6] & (1L << p)) == 0)
+                return false;
+            h1 += h2;
+        }
+        return true;
+    }
+
+    /**
+     * Combina con este filtro los elementos del filtro recibido. Después de
+     * combinarlos, este filtro contiene los elementos de ambos.
+     * @param filtro el filtro a combinar con éste.
+     * @throws IllegalArgumentException si el filtro recibido no tiene el
+     *         mismo número de bits y de posiciones que éste.
+     */
+    public void combina(FiltroBloom<T> filtro) {
+        if (filtro.m != m || filtro.k != k)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < bits.length; ++i)
+            bits[i] |= filtro.bits[i];
+        elementos += filtro.elementos;
+    }
+
+    /**
+     * Vacía el filtro.
+     */
+    public void limpia() {
+        for (int i = 0; i < bits.length; ++i)
+            bits[i] = 0;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa el número de veces que se han agregado elementos al filtro.
+     * @return el número de veces que se han agregado elementos al filtro.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de bits del filtro.
+     * @return el número de bits del filtro.
+     */
+    public int getBits() {
+        return m;
+    }
+
+    /**
+     * Regresa el número de posiciones que cada elemento enciende.
+     * @return el número de posiciones que cada elemento enciende.
+     */
+    public int getPosiciones() {
+        return k;
+    }
+
+    /**
+     * Estima la probabilidad de falso positivo del filtro, a partir de la
+     * fracción de bits encendidos elevada a la <em>k</em>.
+     * @return la probabilidad estimada de falso positivo.
+     */
+    public double probabilidad() {
+        long encendidos = 0;
+        for (long b : bits)
+            encendidos += Long.bitCount(b);
+        return Math.pow((double)encendidos / m, k);
+    }
+}
@@ -0,0 +1,309 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para filtros cuco (<em>cuckoo filters</em>). Como un {@link
+ * FiltroBloom}, un filtro cuco nos dice si un elemento definitivamente no ha
+ * sido agregado, o si probablemente sí; a diferencia de él, permite eliminar
+ * elementos.</p>
+ *
+ * <p>El filtro guarda una huella de <em>f</em> bits de cada elemento, en una
+ * de dos cubetas de cuatro casillas. Las huellas se empacan una tras otra en
+ * un arreglo de <code>long</code>. La primera cubeta sale del {@link
+ * Picadillo} del elemento, y la segunda de la primera y la huella, así que
+ * una huella puede cambiarse a su otra cubeta sin conocer el elemento: si
+ * las dos cubetas están llenas, la nueva huella expulsa a una de las que ya
+ * estaban, que se muda a su otra cubeta, y así sucesivamente.</p>
+ *
+ * <p>Con probabilidad <em>p</em> de falso positivo se usan <em>f</em> =
+ * ⌈log<sub>2</sub>(8/<em>p</em>)⌉ bits por huella; por ejemplo, con
+ * <em>p</em> = 0.01 son 10 bits por huella, y como las cubetas se llenan
+ * hasta un 95%, alrededor de 10.5 bits por elemento.</p>
+ *
+ * <p>Como las cubetas y la huella salen de un picadillo de 32 bits, un
+ * elemento que no fue agregado pero tiene el mismo picadillo que uno de los
+ * <em>n</em> que sí tiene también sus mismas cubetas y huella, y el filtro
+ * siempre dice que está. Eso pone un piso de alrededor de
+ * <em>n</em>/2<sup>32</sup> a la probabilidad de falso positivo, sin
+ * importar el tamaño de las huellas: 2.3 × 10<sup>−4</sup> con
+ * 10<sup>6</sup> elementos, y 0.01 con 4.3 × 10<sup>7</sup>. Por lo mismo,
+ * eliminar un elemento con el picadillo de otro agregado elimina la huella
+ * de éste.</p>
+ *
+ * <p>Sólo deben eliminarse elementos que hayan sido agregados: eliminar uno
+ * que no lo fue puede eliminar la huella de otro con la misma huella y
+ * cubeta. Un mismo elemento puede agregarse varias veces, y entonces debe
+ * eliminarse el mismo número de veces.</p>
+ */
+public class FiltroCuco<T> {
+
+    /* Casillas por cubeta. */
+    private static final int CASILLAS = 4;
+    /* Máxima carga a la que dimensionamos el filtro. */
+    private static final double CARGA = 0.95;
+    /* Máximo número de expulsiones al agregar una huella. */
+    private static final int MAX_EXPULSIONES = 500;
+
+    /* Las huellas empacadas. */
+    private long[] huellas;
+    /* Bits por huella. */
+    private int f;
+    /* Máscara para los bits de una huella. */
+    private long mascaraHuella;
+    /* Máscara para las cubetas. */
+    private int mascara;
+    /* Número de huellas en el filtro. */
+    private int elementos;
+    /* La huella que no cupo, o 0 si no hay. */
+    private int victima;
+    /* La cubeta de la huella que no cupo. */
+    private int cubetaVictima;
+    /* Estado del generador para elegir qué huella expulsar. */
+    private int aleatorio;
+    /* El picadillo. */
+    private Picadillo<T> picadillo;
+
+    /**
+     * Construye un filtro para el número de elementos y la probabilidad de
+     * falso positivo recibidos, con un picadillo predeterminado.
+     * @param n el número esperado de elementos.
+     * @param probabilidad la probabilidad de falso positivo deseada.
+     * @throws IllegalArgumentException si <em>n</em> es menor a uno, o la
+     *         probabilidad no está en el intervalo (0, 1).
+     */
+    public FiltroCuco(int n, double probabilidad) {
+        this(n, probabilidad, (T elemento) -> elemento.hashCode());
+    }
+
+    /**
+     * Construye un filtro para el número de elementos y la probabilidad de
+     * falso positivo recibidos, con el picadillo recibido.
+     * @param n el número esperado de elementos.
+     * @param probabilidad la probabilidad de falso positivo deseada.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si <em>n</em> es menor a uno, la
+     *         probabilidad no está en el intervalo (0, 1), o el picadillo es
+     *         <code>null</code>.
+     */
+    public FiltroCuco(int n, double probabilidad, Picadillo<T> picadillo) {
+        if (n < 1 || !(probabilidad > 0.0 && probabilidad < 1.0) ||
+            picadillo == null)
+            throw new IllegalArgumentException();
+        f = (int)Math.ceil(Math.log(2.0 * CASILLAS / probabilidad) /
+                           Math.log(2));
+        f = Math.max(4, Math.min(32, f));
+        mascaraHuella = (1L << f) - 1;
+        int cubetas = 2;
+        while (cubetas < Math.ceil(n / (CASILLAS * CARGA)))
+            cubetas <<= 1;
+        mascara = cubetas - 1;
+        long total = (long)cubetas * CASILLAS * f;
+        huellas = new long[(int)((total + 63) >>> 6)];
+        aleatorio = 0x2545f491;
+        this.picadillo = picadillo;
+    }
+
+    /* Regresa la huella, que nunca es 0 (0 marca una casilla libre). El
+     * picadillo revuelto da la cubeta con su mitad baja y la huella con la
+     * alta. */
+    private int huella(long h) {
+        int huella = (int)((h >>> 32) & mascaraHuella);
+        return huella == 0 ? 1 : huella;
+    }
+
+    /* Regresa la otra cubeta de la huella. */
+    private int otra(int cubeta, int huella) {
+        return (cubeta ^ (huella * 0x5bd1e995)) & mascara;
+    }
+
+    /* Regresa la huella en la casilla s. */
+    private int lee(int s) {
+        long bit = (long)s * f;
+        int i = (int)(bit >>> 6);
+        int corrimiento = (int)(bit & 63);
+        long valor = huellas[i] >>> corrimiento;
+        if (corrimiento + f > 64)
+            valor |= huellas[i + 1] << (64 - corrimiento);
+        return (int)(valor & mascaraHuella);
+    }
+
+    /* Escribe la huella en la casilla s. */
+    private void escribe(int s, int huella) {
+        long bit = (long)s * f;
+        int i = (int)(bit >>> 6);
+        int corrimiento = (int)(bit & 63);
+        long h = huella & mascaraHuella;
+        huellas[i] = (huellas[i] & ~(mascaraHuella << corrimiento)) |
+            (h << corrimiento);
+        if (corrimiento + f > 64) {
+            int restantes = 64 - corrimiento;
+            huellas[i + 1] = (huellas[i + 1] & ~(mascaraHuella >>> restantes)) |
+                (h >>> restantes);
+        }
+    }
+
+    /* Pone la huella en una casilla libre de la cubeta; regresa false si la
+     * cubeta está llena. */
+    private boolean pon(int cubeta, int huella) {
+        int s = cubeta * CASILLAS;
+        for (int j = 0; j < CASILLAS; ++j) {
+            if (lee(s + j) == 0) {
+                escribe(s + j, huella);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Nos dice si la huella está en la cubeta. */
+    private boolean esta(int cubeta, int huella) {
+        int s = cubeta * CASILLAS;
+        for (int j = 0; j < CASILLAS; ++j)
+            if (lee(s + j) == huella)
+                return true;
+        return false;
+    }
+
+    /* Quita la huella de la cubeta; regresa false si no estaba. */
+    private boolean quita(int cubeta, int huella) {
+        int s = cubeta * CASILLAS;
+        for (int j = 0; j < CASILLAS; ++j) {
+            if (lee(s + j) == huella) {
+                escribe(s + j, 0);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Siguiente número del generador (xorshift). */
+    private int siguienteAleatorio() {
+        aleatorio ^= aleatorio << 13;
+        aleatorio ^= aleatorio >>> 17;
+        aleatorio ^= aleatorio << 5;
+        return aleatorio;
+    }
+
+    /* Agrega la huella a la cubeta o a su otra cubeta, expulsando huellas si
+     * hace falta; si después de MAX_EXPULSIONES la huella expulsada no cupo,
+     * la guarda como víctima. */
+    private void agrega(int cubeta, int huella) {
+        if (pon(cubeta, huella) || pon(otra(cubeta, huella), huella))
+            return;
+        if ((siguienteAleatorio() & 1) == 1)
+            cubeta = otra(cubeta, huella);
+        for (int i = 0; i < MAX_EXPULSIONES; ++i) {
+            int s = cubeta * CASILLAS + (siguienteAleatorio() & (CASILLAS - 1));
+            int expulsada = lee(s);
+            escribe(s, huella);
+            huella = expulsada;
+            cubeta = otra(cubeta, huella);
+            if (pon(cubeta, huella))
+                return;
+        }
+        victima = huella;
+        cubetaVictima = cubeta;
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     * @param elemento el elemento a agregar.
+     * @return <code>true</code> si el elemento se agregó, <code>false</code>
+     *         si el filtro está lleno.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public boolean agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        if (victima != 0)
+            return false;
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        agrega((int)h & mascara, huella(h));
+        ++elementos;
+        return true;
+    }
+
+    /**
+     * Nos dice si el elemento pudo haber sido agregado al filtro.
+     * @param elemento el elemento que queremos saber si está en el filtro.
+     * @return <code>false</code> si el elemento definitivamente no está en el
+     *         filtro; <code>true</code> si probablemente sí.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int huella = huella(h);
+        int c1 = (int)h & mascara;
+        int c2 = otra(c1, huella);
+        if (esta(c1, huella) || esta(c2, huella))
+            return true;
+        return victima == huella &&
+            (cubetaVictima == c1 || cubetaVictima == c2);
+    }
+
+    /**
+     * Elimina un elemento del filtro. El elemento debe haber sido agregado
+     * antes.
+     * @param elemento el elemento a eliminar.
+     * @return <code>true</code> si se encontró y eliminó una huella del
+     *         elemento, <code>false</code> en otro caso.
+     */
+    public boolean elimina(T elemento) {
+        if (elemento == null)
+            return false;
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int huella = huella(h);
+        int c1 = (int)h & mascara;
+        int c2 = otra(c1, huella);
+        if (victima == huella &&
+            (cubetaVictima == c1 || cubetaVictima == c2)) {
+            victima = 0;
+            --elementos;
+            return true;
+        }
+        if (!quita(c1, huella) && !quita(c2, huella))
+            return false;
+        --elementos;
+        /* Ahora hay una casilla libre; intentamos acomodar a la víctima. */
+        if (victima != 0) {
+            int v = victima;
+            victima = 0;
+            agrega(cubetaVictima, v);
+        }
+        return true;
+    }
+
+    /**
+     * Vacía el filtro.
+     */
+    public void limpia() {
+        for (int i = 0; i < huellas.length; ++i)
+            huellas[i] = 0;
+        elementos = 0;
+        victima = 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el filtro.
+     * @return el número de elementos en el filtro.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de bits de cada huella.
+     * @return el número de bits de cada huella.
+     */
+    public int getBitsHuella() {
+        return f;
+    }
+
+    /**
+     * Nos dice la carga del filtro: la fracción de casillas ocupadas.
+     * @return la carga del filtro.
+     */
+    public double carga() {
+        return (double)elementos / ((mascara + 1) * CASILLAS);
+    }
+}
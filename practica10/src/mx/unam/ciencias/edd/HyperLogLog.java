@@ -0,0 +1,164 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para estimar el número de elementos distintos de un flujo con el
+ * algoritmo HyperLogLog, usando memoria fija en lugar de guardar los
+ * elementos en un {@link Conjunto}.</p>
+ *
+ * <p>El {@link Picadillo} de cada elemento se revuelve a 64 bits; los
+ * primeros <em>b</em> bits (la precisión) eligen uno de <em>m</em> =
+ * 2<sup><em>b</em></sup> registros, y el registro guarda el máximo número de
+ * ceros al inicio (más uno) que ha visto en los bits restantes. La
+ * estimación es la media armónica de 2<sup>registro</sup> corregida, o el
+ * conteo lineal de registros vacíos cuando la estimación es pequeña.</p>
+ *
+ * <p>Cada registro ocupa un byte, así que con precisión 14 el estimador
+ * ocupa 16 KB. El error estándar relativo es 1.04/√<em>m</em>: 0.81% con
+ * precisión 14, 1.6% con precisión 12.</p>
+ *
+ * <p>Como el picadillo es de 32 bits, elementos distintos con el mismo
+ * picadillo cuentan como uno, y lo que se estima en realidad es el número
+ * <em>D</em> de picadillos distintos: sin corregirlo, la estimación quedaría
+ * 1.2% abajo con 10<sup>8</sup> elementos y 11% abajo con 10<sup>9</sup>.
+ * Con <em>n</em> elementos distintos se espera que <em>D</em> =
+ * 2<sup>32</sup>(1 − <em>e</em><sup>−<em>n</em>/2<sup>32</sup></sup>), así
+ * que la estimación se corrige con <em>n</em> = −2<sup>32</sup> ln(1 −
+ * <em>D</em>/2<sup>32</sup>) (la corrección de rango grande del algoritmo
+ * original). La corrección quita el sesgo pero amplifica el error
+ * relativo, multiplicándolo por (<em>e</em><sup><em>x</em></sup> −
+ * 1)/<em>x</em> con <em>x</em> = <em>n</em>/2<sup>32</sup>: por 1.12 con
+ * 10<sup>9</sup> elementos, por 1.7 con 2<sup>32</sup> y por 4 con
+ * 10<sup>10</sup>.</p>
+ *
+ * <p>Dos estimadores con la misma precisión pueden combinarse con {@link
+ * #combina}, por ejemplo para juntar los de varios hilos o archivos.</p>
+ */
+public class HyperLogLog<T> {
+
+    /** Precisión mínima. */
+    public static final int MIN_PRECISION = 4;
+    /** Precisión máxima. */
+    public static final int MAX_PRECISION = 16;
+
+    /* Número de picadillos distintos: 2^32. */
+    private static final double PICADILLOS = 4294967296.0;
+
+    /* Los registros. */
+    private byte[] registros;
+    /* La precisión. */
+    private int b;
+    /* El picadillo. */
+    private Picadillo<T> picadillo;
+
+    /**
+     * Construye un estimador con la precisión recibida y un picadillo
+     * predeterminado.
+     * @param precision el logaritmo base 2 del número de registros.
+     * @throws IllegalArgumentException si la precisión no está entre {@link
+     *         #MIN_PRECISION} y {@link #MAX_PRECISION}.
+     */
+    public HyperLogLog(int precision) {
+        this(precision, (T elemento) -> elemento.hashCode());
+    }
+
+    /**
+     * Construye un estimador con la precisión y el picadillo recibidos.
+     * @param precision el logaritmo base 2 del número de registros.
+     * @param picadillo el picadillo a utilizar.
+     * @throws IllegalArgumentException si la precisión no está entre {@link
+     *         #MIN_PRECISION} y {@link #MAX_PRECISION}, o si el picadillo es
+     *         <code>null</code>.
+     */
+    public HyperLogLog(int precision, Picadillo<T> picadillo) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION ||
+            picadillo == null)
+            throw new IllegalArgumentException();
+        b = precision;
+        registros = new byte[1 << b];
+        this.picadillo = picadillo;
+    }
+
+    /**
+     * Agrega un elemento al estimador.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        long h = FabricaPicadillos.revuelve(picadillo.picadillo(elemento));
+        int i = (int)(h >>> (64 - b));
+        /* El 1 al final acota los ceros a 64 - b. */
+        int ceros = Long.numberOfLeadingZeros((h << b) | (1L << (b - 1))) + 1;
+        if (ceros > registros[i])
+            registros[i] = (byte)ceros;
+    }
+
+    /**
+     * Estima el número de elementos distintos agregados.
+     * @return el número estimado de elementos distintos.
+     */
+    public long estimacion() {
+        int m = registros.length;
+        double suma = 0;
+        int vacios = 0;
+        for (byte r : registros) {
+            suma += Math.scalb(1.0, -r);
+            if (r == 0)
+                vacios++;
+        }
+        double alfa;
+        switch (m) {
+            case 16: alfa = 0.673; break;
+            case 32: alfa = 0.697; break;
+            case 64: alfa = 0.709; break;
+            default: alfa = 0.7213 / (1 + 1.079 / m);
+        }
+        double e = alfa * m * m / suma;
+        if (e <= 2.5 * m && vacios > 0)
+            e = m * Math.log((double)m / vacios);
+        else if (e < PICADILLOS)
+            e = -PICADILLOS * Math.log1p(-e / PICADILLOS);
+        return Math.round(e);
+    }
+
+    /**
+     * Combina con este estimador los elementos del estimador recibido.
+     * Después de combinarlos, este estimador cuenta los elementos distintos
+     * de ambos.
+     * @param estimador el estimador a combinar con éste.
+     * @throws IllegalArgumentException si el estimador recibido no tiene la
+     *         misma precisión que éste.
+     */
+    public void combina(HyperLogLog<T> estimador) {
+        if (estimador.b != b)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < registros.length; ++i)
+            if (estimador.registros[i] > registros[i])
+                registros[i] = estimador.registros[i];
+    }
+
+    /**
+     * Vacía el estimador.
+     */
+    public void limpia() {
+        for (int i = 0; i < registros.length; ++i)
+            registros[i] = 0;
+    }
+
+    /**
+     * Regresa la precisión del estimador.
+     * @return la precisión del estimador.
+     */
+    public int getPrecision() {
+        return b;
+    }
+
+    /**
+     * Regresa el error estándar relativo del estimador, 1.04/√<em>m</em>.
+     * @return el error estándar relativo del estimador.
+     */
+    public double errorEstandar() {
+        return 1.04 / Math.sqrt(registros.length);
+    }
+}
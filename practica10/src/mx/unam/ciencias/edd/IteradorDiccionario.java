@@ -0,0 +1,22 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Interfaz para iteradores de las entradas de un diccionario. El método
+ * {@link Iterator#next} regresa la siguiente llave, y {@link #getValor}
+ * regresa el valor asociado a la última llave regresada; así se recorren las
+ * entradas sin crear un objeto por cada una.
+ */
+public interface IteradorDiccionario<K, V> extends Iterator<K> {
+
+    /**
+     * Regresa el valor asociado a la última llave regresada por {@link
+     * Iterator#next}.
+     * @return el valor asociado a la última llave regresada.
+     * @throws NoSuchElementException si todavía no se ha llamado {@link
+     *         Iterator#next}.
+     */
+    public V getValor();
+}
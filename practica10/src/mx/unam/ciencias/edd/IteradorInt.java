@@ -0,0 +1,25 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Interfaz para iteradores de elementos de tipo <code>int</code>. A
+ * diferencia de {@link java.util.Iterator}, {@link #next} regresa el elemento
+ * sin envolverlo en un {@link Integer}.
+ */
+public interface IteradorInt {
+
+    /**
+     * Nos dice si hay un elemento siguiente.
+     * @return <code>true</code> si hay un elemento siguiente,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean hasNext();
+
+    /**
+     * Regresa el elemento siguiente.
+     * @return el elemento siguiente.
+     * @throws NoSuchElementException si no hay elemento siguiente.
+     */
+    public int next();
+}
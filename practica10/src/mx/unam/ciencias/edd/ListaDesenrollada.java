@@ -0,0 +1,536 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para listas desenrolladas: listas doblemente ligadas de
+ * bloques, donde cada bloque guarda hasta {@link #TAMANO_BLOQUE} elementos
+ * en un arreglo. Tienen los mismos métodos que {@link Lista}, pero usan un
+ * objeto por bloque en lugar de un nodo por elemento, y recorrerlas visita
+ * elementos contiguos en memoria.</p>
+ *
+ * <p>Además de los bloques ligados, la lista guarda un índice con cada bloque
+ * y la posición de su primer elemento, así que {@link #get} busca el bloque
+ * binariamente en lugar de recorrer la lista: toma tiempo
+ * <em>O</em>(log(<em>n</em>/<em>B</em>)). Agregar al final mantiene el
+ * índice al día; cualquier otra modificación lo invalida, y el siguiente
+ * {@link #get} lo reconstruye en tiempo <em>O</em>(<em>n</em>/<em>B</em>).</p>
+ *
+ * <p>Las listas desenrolladas no aceptan a <code>null</code> como
+ * elemento.</p>
+ */
+public class ListaDesenrollada<T> implements Coleccion<T> {
+
+    /* Clase Bloque privada para uso interno de la clase. */
+    private class Bloque {
+        public T[] elementos;
+        public int n;
+        public Bloque anterior;
+        public Bloque siguiente;
+
+        public Bloque() {
+            elementos = nuevoArreglo(TAMANO_BLOQUE);
+        }
+
+        /* Inserta el elemento en la posición i del bloque, que no está
+         * lleno. */
+        public void inserta(int i, T elemento) {
+            System.arraycopy(elementos, i, elementos, i + 1, n - i);
+            elementos[i] = elemento;
+            n++;
+        }
+
+        /* Quita el elemento en la posición i del bloque y lo regresa. */
+        public T quita(int i) {
+            T e = elementos[i];
+            System.arraycopy(elementos, i + 1, elementos, i, n - i - 1);
+            elementos[--n] = null;
+            return e;
+        }
+    }
+
+    /* Clase Iterador privada para iteradores. El iterador está antes del
+     * elemento i de su bloque. */
+    private class Iterador implements IteradorLista<T> {
+        public Bloque bloque;
+        public int i;
+
+        public Iterador() {
+            start();
+        }
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return bloque != null && i < bloque.n;
+        }
+
+        /* Nos da el elemento siguiente. */
+        @Override public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            T e = bloque.elementos[i++];
+            if (i == bloque.n && bloque.siguiente != null) {
+                bloque = bloque.siguiente;
+                i = 0;
+            }
+            return e;
+        }
+
+        /* Nos dice si hay un elemento anterior. */
+        @Override public boolean hasPrevious() {
+            return bloque != null && (i > 0 || bloque.anterior != null);
+        }
+
+        /* Nos da el elemento anterior. */
+        @Override public T previous() {
+            if (!hasPrevious())
+                throw new NoSuchElementException();
+            if (i == 0) {
+                bloque = bloque.anterior;
+                i = bloque.n;
+            }
+            return bloque.elementos[--i];
+        }
+
+        /* Mueve el iterador al inicio de la lista. */
+        @Override public void start() {
+            bloque = cabeza;
+            i = 0;
+        }
+
+        /* Mueve el iterador al final de la lista. */
+        @Override public void end() {
+            bloque = rabo;
+            i = rabo == null ? 0 : rabo.n;
+        }
+
+        /* No implementamos este método. */
+        @Override public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Número máximo de elementos en cada bloque. */
+    public static final int TAMANO_BLOQUE = 64;
+
+    /* Primer bloque de la lista. */
+    private Bloque cabeza;
+    /* Último bloque de la lista. */
+    private Bloque rabo;
+    /* Número de elementos en la lista. */
+    private int longitud;
+    /* Los bloques, en orden, para get. */
+    private Bloque[] indice;
+    /* La posición del primer elemento de cada bloque del índice. */
+    private int[] inicios;
+    /* Número de bloques en el índice. */
+    private int bloques;
+    /* Si el índice ya no corresponde a los bloques. */
+    private boolean sucio;
+
+    /**
+     * Construye una lista desenrollada vacía.
+     */
+    public ListaDesenrollada() {
+        indice = nuevoIndice(4);
+        inicios = new int[4];
+    }
+
+    /* Truco para crear el arreglo genérico de elementos. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /* Truco para crear el arreglo genérico de bloques. */
+    @SuppressWarnings("unchecked") private Bloque[] nuevoIndice(int n) {
+        ListaDesenrollada.Bloque[] arreglo = new ListaDesenrollada.Bloque[n];
+        return (Bloque[])arreglo;
+    }
+
+    /* Agrega el bloque al final del índice. */
+    private void indexa(Bloque b, int inicio) {
+        if (bloques == indice.length) {
+            Bloque[] indice = nuevoIndice(bloques * 2);
+            System.arraycopy(this.indice, 0, indice, 0, bloques);
+            this.indice = indice;
+            inicios = Arrays.copyOf(inicios, bloques * 2);
+        }
+        indice[bloques] = b;
+        inicios[bloques++] = inicio;
+    }
+
+    /* Reconstruye el índice a partir de los bloques. */
+    private void reindexa() {
+        Arrays.fill(indice, 0, bloques, null);
+        bloques = 0;
+        int inicio = 0;
+        for (Bloque b = cabeza; b != null; b = b.siguiente) {
+            indexa(b, inicio);
+            inicio += b.n;
+        }
+        sucio = false;
+    }
+
+    /* Quita el bloque de la lista ligada. */
+    private void desliga(Bloque b) {
+        if (b.anterior == null)
+            cabeza = b.siguiente;
+        else
+            b.anterior.siguiente = b.siguiente;
+        if (b.siguiente == null)
+            rabo = b.anterior;
+        else
+            b.siguiente.anterior = b.anterior;
+    }
+
+    /* Elimina el elemento en la posición i del bloque, y junta el bloque con
+     * un vecino si entre los dos quedan pocos elementos. */
+    private T quita(Bloque b, int i) {
+        T e = b.quita(i);
+        --longitud;
+        sucio = true;
+        if (b.n == 0) {
+            desliga(b);
+            return e;
+        }
+        if (b.anterior != null && b.anterior.n + b.n <= TAMANO_BLOQUE / 2)
+            b = b.anterior;
+        Bloque s = b.siguiente;
+        if (s != null && b.n + s.n <= TAMANO_BLOQUE / 2) {
+            System.arraycopy(s.elementos, 0, b.elementos, b.n, s.n);
+            b.n += s.n;
+            desliga(s);
+        }
+        return e;
+    }
+
+    /**
+     * Regresa la longitud de la lista. El método es idéntico a {@link
+     * #getElementos}.
+     * @return la longitud de la lista, el número de elementos que contiene.
+     */
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Regresa el número elementos en la lista. El método es idéntico a {@link
+     * #getLongitud}.
+     * @return el número elementos en la lista.
+     */
+    @Override public int getElementos() {
+        return longitud;
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <code>true</code> si la lista es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacio() {
+        return longitud == 0;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista. El método es idéntico a {@link
+     * #agregaFinal}.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(T elemento) {
+        agregaFinal(elemento);
+    }
+
+    /**
+     * Agrega un elemento al final de la lista. Si el último bloque está lleno,
+     * se crea uno nuevo.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agregaFinal(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        if (rabo == null || rabo.n == TAMANO_BLOQUE) {
+            Bloque b = new Bloque();
+            b.anterior = rabo;
+            if (rabo == null)
+                cabeza = b;
+            else
+                rabo.siguiente = b;
+            rabo = b;
+            if (!sucio)
+                indexa(b, longitud);
+        }
+        rabo.elementos[rabo.n++] = elemento;
+        ++longitud;
+    }
+
+    /**
+     * Agrega un elemento al inicio de la lista. Si el primer bloque está
+     * lleno, se crea uno nuevo.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agregaInicio(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException();
+        if (cabeza == null || cabeza.n == TAMANO_BLOQUE) {
+            Bloque b = new Bloque();
+            b.siguiente = cabeza;
+            if (cabeza == null)
+                rabo = b;
+            else
+                cabeza.anterior = b;
+            cabeza = b;
+        }
+        cabeza.inserta(0, elemento);
+        ++longitud;
+        sucio = true;
+    }
+
+    /**
+     * Elimina un elemento de la lista. Si el elemento no está contenido en la
+     * lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    @Override public void elimina(T elemento) {
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.n; i++)
+                if (b.elementos[i].equals(elemento)) {
+                    quita(b, i);
+                    return;
+                }
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa.
+     * @return el primer elemento de la lista antes de eliminarlo.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        return quita(cabeza, 0);
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista antes de eliminarlo.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T eliminaUltimo() {
+        if (rabo == null)
+            throw new NoSuchElementException();
+        return quita(rabo, rabo.n - 1);
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return indiceDe(elemento) != -1;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar el método.
+     */
+    public ListaDesenrollada<T> reversa() {
+        ListaDesenrollada<T> lista = new ListaDesenrollada<T>();
+        for (Bloque b = rabo; b != null; b = b.anterior)
+            for (int i = b.n - 1; i >= 0; i--)
+                lista.agregaFinal(b.elementos[i]);
+        return lista;
+    }
+
+    /**
+     * Regresa una copia de la lista. La copia tiene los mismos elementos que la
+     * lista que manda llamar el método, en el mismo orden.
+     * @return una copia de la lista.
+     */
+    public ListaDesenrollada<T> copia() {
+        ListaDesenrollada<T> lista = new ListaDesenrollada<T>();
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.n; i++)
+                lista.agregaFinal(b.elementos[i]);
+        return lista;
+    }
+
+    /**
+     * Limpia la lista de elementos. El llamar este método es equivalente a
+     * eliminar todos los elementos de la lista.
+     */
+    public void limpia() {
+        cabeza = null;
+        rabo = null;
+        longitud = 0;
+        Arrays.fill(indice, 0, bloques, null);
+        bloques = 0;
+        sucio = false;
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getPrimero() {
+        if (cabeza == null)
+            throw new NoSuchElementException();
+        return cabeza.elementos[0];
+    }
+
+    /**
+     * Regresa el último elemento de la lista.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    public T getUltimo() {
+        if (rabo == null)
+            throw new NoSuchElementException();
+        return rabo.elementos[rabo.n - 1];
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista. Busca el bloque del
+     * elemento en el índice, reconstruyéndolo si la lista cambió.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     */
+    public T get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido();
+        if (sucio)
+            reindexa();
+        /* El último bloque del índice que empieza en i o antes. */
+        int ini = 0, fin = bloques - 1;
+        while (ini < fin) {
+            int m = (ini + fin + 1) >>> 1;
+            if (inicios[m] <= i)
+                ini = m;
+            else
+                fin = m - 1;
+        }
+        return indice[ini].elementos[i - inicios[ini]];
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si
+     *         el elemento no está contenido en la lista.
+     */
+    public int indiceDe(T elemento) {
+        int contador = 0;
+        for (Bloque b = cabeza; b != null; b = b.siguiente) {
+            for (int i = 0; i < b.n; i++)
+                if (b.elementos[i].equals(elemento))
+                    return contador + i;
+            contador += b.n;
+        }
+        return -1;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        StringBuilder s = new StringBuilder("[");
+        for (Bloque b = cabeza; b != null; b = b.siguiente)
+            for (int i = 0; i < b.n; i++) {
+                if (s.length() > 1)
+                    s.append(", ");
+                s.append(b.elementos[i].toString());
+            }
+        return s.append("]").toString();
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param o el objeto con el que hay que comparar.
+     * @return <tt>true</tt> si la lista es igual al objeto recibido;
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (!(o instanceof ListaDesenrollada))
+            return false;
+        @SuppressWarnings("unchecked") ListaDesenrollada<T> lista =
+            (ListaDesenrollada<T>)o;
+        if (longitud != lista.longitud)
+            return false;
+        Iterator<T> i = lista.iterator();
+        for (T e : this)
+            if (!e.equals(i.next()))
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista en una dirección.
+     * @return un iterador para recorrer la lista en una dirección.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista en ambas direcciones.
+     * @return un iterador para recorrer la lista en ambas direcciones.
+     */
+    public IteradorLista<T> iteradorLista() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa una copia de la lista recibida, pero ordenada. La lista recibida
+     * tiene que contener nada más elementos que implementan la interfaz {@link
+     * Comparable}. Los elementos se copian a un arreglo y se ordenan ahí con
+     * un algoritmo estable.
+     * @param <T> tipo del que puede ser la lista.
+     * @param l la lista que se ordenará.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static <T extends Comparable<T>>
+    ListaDesenrollada<T> mergeSort(ListaDesenrollada<T> l) {
+        Object[] arreglo = new Object[l.longitud];
+        int k = 0;
+        for (T e : l)
+            arreglo[k++] = e;
+        Arrays.sort(arreglo);
+        ListaDesenrollada<T> lista = new ListaDesenrollada<T>();
+        for (Object e : arreglo) {
+            @SuppressWarnings("unchecked") T t = (T)e;
+            lista.agregaFinal(t);
+        }
+        return lista;
+    }
+
+    /**
+     * Busca un elemento en una lista ordenada. La lista recibida tiene que
+     * contener nada más elementos que implementan la interfaz {@link
+     * Comparable}, y se da por hecho que está ordenada.
+     * @param <T> tipo del que puede ser la lista.
+     * @param l la lista donde se buscará.
+     * @param e el elemento a buscar.
+     * @return <tt>true</tt> si e está contenido en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public static <T extends Comparable<T>>
+    boolean busquedaLineal(ListaDesenrollada<T> l, T e) {
+        for (T elemento : l)
+            if (elemento.compareTo(e) == 0)
+                return true;
+        return false;
+    }
+}
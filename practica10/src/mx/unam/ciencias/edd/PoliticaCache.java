@@ -0,0 +1,17 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para las políticas con que un {@link Cache} decide qué entrada
+ * desalojar.
+ */
+public enum PoliticaCache {
+    /** Desaloja la entrada usada hace más tiempo. */
+    LRU,
+    /** Desaloja la entrada usada menos veces; entre varias, la usada hace
+     *  más tiempo. */
+    LFU,
+    /** Una ventana LRU pequeña, seguida de una región principal en la que
+     *  sólo se admite una entrada si ha sido más frecuente que la que
+     *  desalojaría. */
+    W_TINY_LFU;
+}
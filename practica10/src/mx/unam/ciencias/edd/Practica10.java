@@ -77,5 +77,23 @@ public class Practica10 {
         System.out.printf("%2.9f segundos en llenar un conjunto " +
                           "con %s elementos.\n",
                           (tiempoTotal/1000000000.0), nf.format(N));
+
+        DiccionarioInt<Integer> diccInt = new DiccionarioInt<Integer>();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            diccInt.agrega(arreglo[i], arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un diccionario " +
+                          "de enteros con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+
+        ConjuntoInt conjuntoInt = new ConjuntoInt();
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < N; i++)
+            conjuntoInt.agrega(arreglo[i]);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar un conjunto " +
+                          "de enteros con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
     }
 }
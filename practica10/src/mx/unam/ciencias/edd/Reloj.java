@@ -0,0 +1,14 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para relojes que miden el tiempo en milisegundos.
+ */
+@FunctionalInterface
+public interface Reloj {
+
+    /**
+     * Regresa el tiempo actual en milisegundos.
+     * @return el tiempo actual en milisegundos.
+     */
+    public long ahora();
+}
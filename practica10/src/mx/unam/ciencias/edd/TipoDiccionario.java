@@ -0,0 +1,12 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para las distintas maneras en que un {@link Diccionario} puede
+ * guardar sus entradas.
+ */
+public enum TipoDiccionario {
+    /** Cada casilla del arreglo es una lista de entradas. */
+    ENCADENADO,
+    /** Direccionamiento abierto con desplazamiento <em>Robin Hood</em>. */
+    ROBIN_HOOD;
+}
@@ -0,0 +1,134 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AnilloConsistente;
+import mx.unam.ciencias.edd.Diccionario;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnilloConsistente}.
+ */
+public class TestAnilloConsistente {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestAnilloConsistente() {
+        random = new Random();
+        total = 10000 + random.nextInt(10000);
+    }
+
+    /* Cuenta cuántas llaves le tocan a cada miembro. */
+    private Diccionario<String, Integer> cuenta(AnilloConsistente<Integer> anillo,
+                                                int ini) {
+        Diccionario<String, Integer> cuentas = new Diccionario<String, Integer>();
+        for (int i = 0; i < total; i++) {
+            String m = anillo.get(ini + i);
+            cuentas.agrega(m, cuentas.contiene(m) ? cuentas.get(m) + 1 : 1);
+        }
+        return cuentas;
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agrega} y {@link
+     * AnilloConsistente#get}.
+     */
+    @Test public void testAgregaGet() {
+        AnilloConsistente<Integer> anillo = new AnilloConsistente<Integer>();
+        try {
+            anillo.get(1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < 8; i++)
+            anillo.agrega("miembro" + i);
+        Assert.assertTrue(anillo.getMiembros() == 8);
+        Assert.assertTrue(anillo.getPuntos() <= 8 *
+                          AnilloConsistente.NODOS_VIRTUALES);
+        Assert.assertTrue(anillo.contiene("miembro3"));
+        Assert.assertFalse(anillo.contiene("miembro8"));
+        try {
+            anillo.agrega("miembro0");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            anillo.agrega("otro", 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Diccionario<String, Integer> cuentas = cuenta(anillo,
+                                                      random.nextInt(1000000));
+        Assert.assertTrue(cuentas.getElementos() == 8);
+        for (Integer c : cuentas)
+            Assert.assertTrue(c > total / 8 / 2 && c < total / 8 * 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agrega} con pesos.
+     */
+    @Test public void testPesos() {
+        AnilloConsistente<Integer> anillo = new AnilloConsistente<Integer>();
+        anillo.agrega("a", 1);
+        anillo.agrega("b", 3);
+        Assert.assertTrue(anillo.getPeso("b") == 3);
+        Diccionario<String, Integer> cuentas = cuenta(anillo, 0);
+        double proporcion = (double)cuentas.get("b") / total;
+        Assert.assertTrue(proporcion > 0.6 && proporcion < 0.9);
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agrega} y {@link
+     * AnilloConsistente#elimina}: sólo se mueven las llaves del miembro
+     * agregado o eliminado.
+     */
+    @Test public void testMovimientos() {
+        AnilloConsistente<Integer> anillo = new AnilloConsistente<Integer>();
+        int n = 4 + random.nextInt(8);
+        for (int i = 0; i < n; i++)
+            anillo.agrega("miembro" + i);
+        String[] antes = new String[total];
+        for (int i = 0; i < total; i++)
+            antes[i] = anillo.get(i);
+        anillo.agrega("nuevo");
+        int movidas = 0;
+        for (int i = 0; i < total; i++) {
+            String m = anillo.get(i);
+            if (!m.equals(antes[i])) {
+                Assert.assertTrue(m.equals("nuevo"));
+                movidas++;
+            }
+        }
+        Assert.assertTrue(movidas > total / (n + 1) / 2);
+        Assert.assertTrue(movidas < total / (n + 1) * 2);
+        anillo.elimina("nuevo");
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(anillo.get(i).equals(antes[i]));
+        anillo.elimina("miembro0");
+        for (int i = 0; i < total; i++)
+            if (!antes[i].equals("miembro0"))
+                Assert.assertTrue(anillo.get(i).equals(antes[i]));
+        try {
+            anillo.elimina("miembro0");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente}: el orden en que se
+     * agregan los miembros no importa.
+     */
+    @Test public void testOrden() {
+        AnilloConsistente<Integer> a = new AnilloConsistente<Integer>();
+        AnilloConsistente<Integer> b = new AnilloConsistente<Integer>();
+        for (int i = 0; i < 10; i++) {
+            a.agrega("miembro" + i);
+            b.agrega("miembro" + (9 - i));
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(a.get(i).equals(b.get(i)));
+    }
+}
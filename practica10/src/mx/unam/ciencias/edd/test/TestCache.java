@@ -0,0 +1,170 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Cache;
+import mx.unam.ciencias.edd.PoliticaCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Cache}.
+ */
+public class TestCache {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestCache() {
+        random = new Random();
+        total = 100 + random.nextInt(100);
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#Cache}.
+     */
+    @Test public void testConstructor() {
+        for (PoliticaCache politica : PoliticaCache.values()) {
+            Cache<String, String> cache =
+                new Cache<String, String>(total, politica);
+            Assert.assertTrue(cache.getPolitica() == politica);
+            Assert.assertTrue(cache.getPesoMaximo() == total);
+            Assert.assertTrue(cache.getElementos() == 0);
+            Assert.assertTrue(cache.getPeso() == 0);
+        }
+        try {
+            new Cache<String, String>(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Cache<String, String>(total, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Cache#agrega}, {@link Cache#get}, {@link
+     * Cache#contiene} y {@link Cache#elimina} con todas las políticas.
+     */
+    @Test public void testAgregaGet() {
+        for (PoliticaCache politica : PoliticaCache.values()) {
+            Cache<Integer, String> cache =
+                new Cache<Integer, String>(total * 10, politica);
+            for (int i = 0; i < total; i++)
+                cache.agrega(i, String.valueOf(i));
+            Assert.assertTrue(cache.getElementos() == total);
+            Assert.assertTrue(cache.getPeso() == total);
+            for (int i = 0; i < total; i++)
+                Assert.assertTrue(cache.get(i).equals(String.valueOf(i)));
+            Assert.assertTrue(cache.get(-1) == null);
+            Assert.assertTrue(cache.getAciertos() == total);
+            Assert.assertTrue(cache.getFallos() == 1);
+            cache.agrega(0, "cero", 5);
+            Assert.assertTrue(cache.get(0).equals("cero"));
+            Assert.assertTrue(cache.getPeso() == total + 4);
+            cache.elimina(0);
+            cache.elimina(-1);
+            Assert.assertFalse(cache.contiene(0));
+            Assert.assertTrue(cache.getPeso() == total - 1);
+            Assert.assertTrue(cache.getDesalojos() == 0);
+            cache.limpia();
+            Assert.assertTrue(cache.getElementos() == 0);
+            Assert.assertTrue(cache.getPeso() == 0);
+            try {
+                cache.agrega(null, "a");
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                cache.agrega(1, "a", -1);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para el peso máximo con todas las políticas.
+     */
+    @Test public void testPesoMaximo() {
+        for (PoliticaCache politica : PoliticaCache.values()) {
+            Cache<Integer, Integer> cache =
+                new Cache<Integer, Integer>(total, politica);
+            for (int i = 0; i < total * 10; i++) {
+                cache.agrega(i, i, 1 + random.nextInt(3));
+                Assert.assertTrue(cache.getPeso() <= total);
+                cache.get(random.nextInt(i + 1));
+            }
+            Assert.assertTrue(cache.getDesalojos() > 0);
+            Assert.assertTrue(cache.getElementos() + cache.getDesalojos() ==
+                              total * 10);
+            int elementos = cache.getElementos();
+            cache.agrega(-1, -1, total + 1);
+            Assert.assertFalse(cache.contiene(-1));
+            Assert.assertTrue(cache.getElementos() == elementos);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCache#LRU}.
+     */
+    @Test public void testLRU() {
+        Cache<Integer, Integer> cache = new Cache<Integer, Integer>(3);
+        cache.agrega(1, 1);
+        cache.agrega(2, 2);
+        cache.agrega(3, 3);
+        cache.get(1);
+        cache.agrega(4, 4);
+        Assert.assertTrue(cache.contiene(1));
+        Assert.assertFalse(cache.contiene(2));
+        Assert.assertTrue(cache.contiene(3));
+        Assert.assertTrue(cache.contiene(4));
+        Assert.assertTrue(cache.getDesalojos() == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCache#LFU}.
+     */
+    @Test public void testLFU() {
+        Cache<Integer, Integer> cache =
+            new Cache<Integer, Integer>(3, PoliticaCache.LFU);
+        cache.agrega(1, 1);
+        cache.agrega(2, 2);
+        cache.agrega(3, 3);
+        cache.get(1);
+        cache.get(1);
+        cache.get(3);
+        cache.agrega(4, 4);
+        Assert.assertTrue(cache.contiene(1));
+        Assert.assertFalse(cache.contiene(2));
+        Assert.assertTrue(cache.contiene(3));
+        Assert.assertTrue(cache.contiene(4));
+        cache.agrega(5, 5);
+        Assert.assertFalse(cache.contiene(4));
+        Assert.assertTrue(cache.contiene(5));
+    }
+
+    /**
+     * Prueba unitaria para {@link PoliticaCache#W_TINY_LFU}: un barrido de
+     * llaves que se usan una sola vez no desaloja a las llaves frecuentes.
+     */
+    @Test public void testWTinyLFU() {
+        int n = 1000;
+        Cache<Integer, Integer> cache =
+            new Cache<Integer, Integer>(n, PoliticaCache.W_TINY_LFU);
+        for (int r = 0; r < 5; r++)
+            for (int i = 0; i < n / 2; i++)
+                if (cache.get(i) == null)
+                    cache.agrega(i, i);
+        for (int i = n; i < n * 20; i++)
+            if (cache.get(i) == null)
+                cache.agrega(i, i);
+        int presentes = 0;
+        for (int i = 0; i < n / 2; i++)
+            if (cache.contiene(i))
+                presentes++;
+        Assert.assertTrue(presentes > n / 2 * 9 / 10);
+        Assert.assertTrue(cache.getElementos() <= n);
+    }
+}
@@ -185,6 +185,95 @@ public class TestConjunto {
             Assert.assertTrue(union.contiene(n));
     }
 
+    /* Regresa un conjunto con n elementos aleatorios en [0, rango). */
+    private Conjunto<Integer> aleatorio(int n, int rango) {
+        Conjunto<Integer> c = new Conjunto<Integer>();
+        for (int i = 0; i < n; i++)
+            c.agrega(random.nextInt(rango));
+        return c;
+    }
+
+    /* Nos dice si n debe estar en el resultado de la operación: 0
+     * intersección, 1 diferencia, 2 diferencia simétrica. */
+    private boolean esta(Integer n, Conjunto<Integer> a, Conjunto<Integer> b,
+                         int operacion) {
+        boolean enA = a.contiene(n), enB = b.contiene(n);
+        return operacion == 0 ? enA && enB :
+            operacion == 1 ? enA && !enB : enA != enB;
+    }
+
+    /* Revisa que el resultado tenga exactamente los elementos de a o b que
+     * cumplen la operación. */
+    private void revisa(Conjunto<Integer> resultado, Conjunto<Integer> a,
+                        Conjunto<Integer> b, int operacion) {
+        for (Integer n : a)
+            Assert.assertTrue(resultado.contiene(n) == esta(n, a, b, operacion));
+        for (Integer n : b)
+            Assert.assertTrue(resultado.contiene(n) == esta(n, a, b, operacion));
+        int c = 0;
+        for (Integer n : resultado)
+            c++;
+        Assert.assertTrue(c == resultado.getElementos());
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#diferencia} y {@link
+     * Conjunto#diferenciaSimetrica}.
+     */
+    @Test public void testDiferencias() {
+        Conjunto<Integer> a = aleatorio(total, total * 2);
+        Conjunto<Integer> b = aleatorio(total * 3, total * 2);
+        revisa(a.interseccion(b), a, b, 0);
+        revisa(b.interseccion(a), a, b, 0);
+        revisa(a.diferencia(b), a, b, 1);
+        revisa(b.diferencia(a), b, a, 1);
+        revisa(a.diferenciaSimetrica(b), a, b, 2);
+        Assert.assertTrue(a.diferenciaSimetrica(b).equals(
+                              b.diferenciaSimetrica(a)));
+        Assert.assertTrue(a.diferencia(a).esVacio());
+        Assert.assertTrue(a.diferenciaSimetrica(conjunto).equals(a));
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#agregaTodos}, {@link
+     * Conjunto#retenTodos} y {@link Conjunto#eliminaTodos}.
+     */
+    @Test public void testTodos() {
+        for (int tamaño : new int[] { total / 2, total * 3 }) {
+            Conjunto<Integer> a = aleatorio(total, total * 2);
+            Conjunto<Integer> b = aleatorio(tamaño, total * 2);
+            Conjunto<Integer> c = aleatorio(total, total * 2);
+            c.agregaTodos(b);
+            Assert.assertTrue(c.equals(c.union(b)));
+            for (Integer n : b)
+                Assert.assertTrue(c.contiene(n));
+            c = a.union(conjunto);
+            c.retenTodos(b);
+            Assert.assertTrue(c.equals(a.interseccion(b)));
+            c = a.union(conjunto);
+            c.eliminaTodos(b);
+            Assert.assertTrue(c.equals(a.diferencia(b)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Conjunto#interseccionParalela}, {@link
+     * Conjunto#diferenciaParalela} y {@link
+     * Conjunto#diferenciaSimetricaParalela}.
+     */
+    @Test public void testParalelas() {
+        int n = Conjunto.MIN_PARALELO * 2 + random.nextInt(total * 100);
+        Conjunto<Integer> a = aleatorio(n, n * 2);
+        Conjunto<Integer> b = aleatorio(n, n * 2);
+        Assert.assertTrue(a.interseccionParalela(b).equals(a.interseccion(b)));
+        Assert.assertTrue(a.diferenciaParalela(b).equals(a.diferencia(b)));
+        Assert.assertTrue(a.diferenciaSimetricaParalela(b).equals(
+                              a.diferenciaSimetrica(b)));
+        Conjunto<Integer> c = aleatorio(total, n * 2);
+        Assert.assertTrue(c.interseccionParalela(a).equals(c.interseccion(a)));
+        Assert.assertTrue(c.diferenciaParalela(a).equals(c.diferencia(a)));
+    }
+
     /**
      * Prueba unitaria para {@link Conjunto#iterator}.
      */
@@ -0,0 +1,150 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntoBits;
+import mx.unam.ciencias.edd.ConjuntoInt;
+import mx.unam.ciencias.edd.IteradorInt;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntoBits}.
+ */
+public class TestConjuntoBits {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestConjuntoBits() {
+        random = new Random();
+        total = 20000 + random.nextInt(20000);
+    }
+
+    /* Llena un conjunto de bits y uno normal con los mismos elementos: unos
+     * dispersos, unos densos y unos en rangos, para tener los tres tipos de
+     * contenedores. */
+    private ConjuntoBits llena(ConjuntoInt conjunto) {
+        ConjuntoBits bits = new ConjuntoBits();
+        for (int i = 0; i < total / 4; i++) {
+            int n = random.nextInt();
+            bits.agrega(n);
+            conjunto.agrega(n);
+        }
+        int base = random.nextInt(1 << 20);
+        for (int i = 0; i < total; i++) {
+            int n = base + random.nextInt(1 << 17);
+            bits.agrega(n);
+            conjunto.agrega(n);
+        }
+        base = -random.nextInt(1 << 20);
+        for (int i = 0; i < total; i++) {
+            bits.agrega(base + i);
+            conjunto.agrega(base + i);
+        }
+        return bits;
+    }
+
+    /* Revisa que el conjunto de bits tenga en orden los elementos del
+     * conjunto. */
+    private void revisa(ConjuntoBits bits, ConjuntoInt conjunto) {
+        Assert.assertTrue(bits.getElementos() == conjunto.getElementos());
+        IteradorInt iterador = bits.iterador();
+        int c = 0;
+        long anterior = Long.MIN_VALUE;
+        while (iterador.hasNext()) {
+            int n = iterador.next();
+            Assert.assertTrue(conjunto.contiene(n));
+            Assert.assertTrue(anterior < n);
+            anterior = n;
+            c++;
+        }
+        Assert.assertTrue(c == conjunto.getElementos());
+        for (int n : conjunto.arreglo())
+            Assert.assertTrue(bits.contiene(n));
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoBits#agrega}, {@link
+     * ConjuntoBits#contiene} y {@link ConjuntoBits#elimina}.
+     */
+    @Test public void testAgregaContieneElimina() {
+        ConjuntoInt conjunto = new ConjuntoInt();
+        ConjuntoBits bits = llena(conjunto);
+        revisa(bits, conjunto);
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(1 << 21) - (1 << 20);
+            Assert.assertTrue(bits.contiene(n) == conjunto.contiene(n));
+        }
+        int[] elementos = conjunto.arreglo();
+        for (int i = 0; i < elementos.length; i += 2) {
+            bits.elimina(elementos[i]);
+            conjunto.elimina(elementos[i]);
+        }
+        bits.elimina(elementos[0]);
+        revisa(bits, conjunto);
+        for (int n : elementos) {
+            bits.elimina(n);
+            Assert.assertFalse(bits.contiene(n));
+        }
+        Assert.assertTrue(bits.esVacio());
+        IteradorInt iterador = bits.iterador();
+        Assert.assertFalse(iterador.hasNext());
+        try {
+            iterador.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoBits#optimiza}.
+     */
+    @Test public void testOptimiza() {
+        ConjuntoInt conjunto = new ConjuntoInt();
+        ConjuntoBits bits = llena(conjunto);
+        int[] antes = bits.arreglo();
+        bits.optimiza();
+        Assert.assertTrue(Arrays.equals(antes, bits.arreglo()));
+        revisa(bits, conjunto);
+        for (int i = 0; i < total; i++) {
+            int n = antes[random.nextInt(antes.length)];
+            bits.elimina(n);
+            conjunto.elimina(n);
+            n = random.nextInt(1 << 21) - (1 << 20);
+            bits.agrega(n);
+            conjunto.agrega(n);
+        }
+        revisa(bits, conjunto);
+        bits.optimiza();
+        revisa(bits, conjunto);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoBits#interseccion} y {@link
+     * ConjuntoBits#union}.
+     */
+    @Test public void testInterseccionUnion() {
+        ConjuntoInt ca = new ConjuntoInt(), cb = new ConjuntoInt();
+        ConjuntoBits a = llena(ca), b = llena(cb);
+        for (int optimiza = 0; optimiza < 2; optimiza++) {
+            revisa(a.interseccion(b), ca.interseccion(cb));
+            revisa(a.union(b), ca.union(cb));
+            Assert.assertTrue(a.interseccion(b).equals(b.interseccion(a)));
+            Assert.assertTrue(a.union(b).equals(b.union(a)));
+            Assert.assertTrue(a.interseccion(a).equals(a));
+            Assert.assertTrue(a.union(a).equals(a));
+            a.optimiza();
+        }
+        Assert.assertTrue(a.interseccion(new ConjuntoBits()).esVacio());
+        Assert.assertTrue(a.union(new ConjuntoBits()).equals(a));
+        ConjuntoBits u = a.union(b);
+        u.agrega(7);
+        u.elimina(a.arreglo()[0]);
+        revisa(a, ca);
+    }
+}
@@ -0,0 +1,82 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ConjuntoInt;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntoInt}.
+ */
+public class TestConjuntoInt {
+
+    private Random random;
+    private int total;
+    private ConjuntoInt conjunto;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba, un
+     * número total de elementos para nuestro conjunto, y un conjunto.
+     */
+    public TestConjuntoInt() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        conjunto = new ConjuntoInt();
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#agrega} y {@link
+     * ConjuntoInt#contiene}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(conjunto.esVacio());
+        int ini = random.nextInt(total) - total / 2;
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(ini + i);
+            conjunto.agrega(ini + i);
+        }
+        Assert.assertTrue(conjunto.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(conjunto.contiene(ini + i));
+        Assert.assertFalse(conjunto.contiene(ini - 1));
+        Assert.assertFalse(conjunto.contiene(ini + total));
+        Assert.assertTrue(conjunto.carga() < ConjuntoInt.MAXIMA_CARGA);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            conjunto.agrega(i * 64);
+        for (int i = 0; i < total; i += 2) {
+            conjunto.elimina(i * 64);
+            Assert.assertFalse(conjunto.contiene(i * 64));
+        }
+        for (int i = 1; i < total; i += 2)
+            Assert.assertTrue(conjunto.contiene(i * 64));
+        Assert.assertTrue(conjunto.getElementos() == total / 2);
+        conjunto.elimina(-1);
+        Assert.assertTrue(conjunto.getElementos() == total / 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoInt#union} y {@link
+     * ConjuntoInt#interseccion}.
+     */
+    @Test public void testUnionInterseccion() {
+        ConjuntoInt otro = new ConjuntoInt();
+        for (int i = 0; i < total; i++) {
+            conjunto.agrega(i);
+            otro.agrega(i + total / 2);
+        }
+        ConjuntoInt union = conjunto.union(otro);
+        ConjuntoInt interseccion = conjunto.interseccion(otro);
+        Assert.assertTrue(union.getElementos() == total + total / 2);
+        Assert.assertTrue(interseccion.getElementos() == total - total / 2);
+        for (int e : interseccion.arreglo())
+            Assert.assertTrue(conjunto.contiene(e) && otro.contiene(e));
+        Assert.assertTrue(union.interseccion(conjunto).equals(conjunto));
+        Assert.assertFalse(union.equals(conjunto));
+    }
+}
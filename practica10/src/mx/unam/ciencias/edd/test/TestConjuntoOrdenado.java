@@ -0,0 +1,116 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Conjunto;
+import mx.unam.ciencias.edd.ConjuntoOrdenado;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ConjuntoOrdenado}.
+ */
+public class TestConjuntoOrdenado {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestConjuntoOrdenado() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /* Regresa un conjunto con n elementos aleatorios en [0, rango). */
+    private Conjunto<Integer> aleatorio(int n, int rango) {
+        Conjunto<Integer> c = new Conjunto<Integer>();
+        for (int i = 0; i < n; i++)
+            c.agrega(random.nextInt(rango));
+        return c;
+    }
+
+    /* Revisa que el conjunto ordenado tenga en orden los elementos del
+     * conjunto. */
+    private void revisa(ConjuntoOrdenado<Integer> ordenado,
+                        Conjunto<Integer> conjunto) {
+        Assert.assertTrue(ordenado.getElementos() == conjunto.getElementos());
+        Integer anterior = null;
+        int c = 0;
+        for (Integer n : ordenado) {
+            Assert.assertTrue(conjunto.contiene(n));
+            Assert.assertTrue(anterior == null || anterior < n);
+            anterior = n;
+            c++;
+        }
+        Assert.assertTrue(c == conjunto.getElementos());
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoOrdenado#ConjuntoOrdenado} y
+     * {@link ConjuntoOrdenado#contiene}.
+     */
+    @Test public void testConstructorContiene() {
+        Lista<Integer> lista = new Lista<Integer>();
+        Conjunto<Integer> conjunto = new Conjunto<Integer>();
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(total);
+            lista.agrega(n);
+            conjunto.agrega(n);
+        }
+        ConjuntoOrdenado<Integer> ordenado =
+            new ConjuntoOrdenado<Integer>(lista);
+        revisa(ordenado, conjunto);
+        for (int n = -1; n <= total; n++)
+            Assert.assertTrue(ordenado.contiene(n) == conjunto.contiene(n));
+        Assert.assertFalse(ordenado.contiene(null));
+        for (int i = 1; i < ordenado.getElementos(); i++)
+            Assert.assertTrue(ordenado.get(i - 1) < ordenado.get(i));
+        try {
+            ordenado.get(ordenado.getElementos());
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            new ConjuntoOrdenado<Integer>(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        ordenado = new ConjuntoOrdenado<Integer>(new Lista<Integer>());
+        Assert.assertTrue(ordenado.esVacio());
+        Assert.assertFalse(ordenado.contiene(0));
+        Iterator<Integer> iterador = ordenado.iterator();
+        Assert.assertFalse(iterador.hasNext());
+        try {
+            iterador.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ConjuntoOrdenado#interseccion} y {@link
+     * ConjuntoOrdenado#union}, recorriendo y galopando.
+     */
+    @Test public void testInterseccionUnion() {
+        int[] tamaños = { 0, 1, total / 100, total / 10, total, total * 3 };
+        for (int n : tamaños)
+            for (int m : tamaños) {
+                Conjunto<Integer> a = aleatorio(n, total * 2);
+                Conjunto<Integer> b = aleatorio(m, total * 2);
+                ConjuntoOrdenado<Integer> oa = new ConjuntoOrdenado<Integer>(a);
+                ConjuntoOrdenado<Integer> ob = new ConjuntoOrdenado<Integer>(b);
+                revisa(oa.interseccion(ob), a.interseccion(b));
+                revisa(oa.union(ob), a.union(b));
+                Assert.assertTrue(oa.interseccion(ob).equals(ob.interseccion(oa)));
+                Assert.assertTrue(oa.union(ob).equals(ob.union(oa)));
+            }
+        Conjunto<Integer> a = aleatorio(total, total * 2);
+        ConjuntoOrdenado<Integer> oa = new ConjuntoOrdenado<Integer>(a);
+        Assert.assertTrue(oa.interseccion(oa).equals(oa));
+        Assert.assertTrue(oa.union(oa).equals(oa));
+        Assert.assertFalse(oa.equals(a));
+    }
+}
@@ -0,0 +1,101 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.CountMinSketch;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CountMinSketch}.
+ */
+public class TestCountMinSketch {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestCountMinSketch() {
+        random = new Random();
+        total = 10000 + random.nextInt(10000);
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMinSketch#CountMinSketch}.
+     */
+    @Test public void testConstructor() {
+        CountMinSketch<String> cms = new CountMinSketch<String>(0.001, 0.01);
+        Assert.assertTrue(cms.getColumnas() == 2719);
+        Assert.assertTrue(cms.getRenglones() == 5);
+        Assert.assertTrue(cms.getTotal() == 0);
+        Assert.assertTrue(cms.frecuencia("a") == 0);
+        try {
+            new CountMinSketch<String>(0, 0.01);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new CountMinSketch<String>(0.01, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMinSketch#agrega} y {@link
+     * CountMinSketch#frecuencia}.
+     */
+    @Test public void testFrecuencia() {
+        double epsilon = 0.001;
+        CountMinSketch<Integer> cms = new CountMinSketch<Integer>(epsilon, 0.01);
+        int[] frecuencias = new int[total];
+        for (int i = 0; i < total * 10; i++) {
+            /* Unos pocos elementos muy frecuentes y muchos raros. */
+            int e = random.nextInt(4) == 0 ? random.nextInt(10)
+                : random.nextInt(total);
+            frecuencias[e]++;
+            cms.agrega(e);
+        }
+        cms.agrega(0, 1000);
+        frecuencias[0] += 1000;
+        Assert.assertTrue(cms.getTotal() == total * 10 + 1000);
+        int malos = 0;
+        for (int e = 0; e < total; e++) {
+            long f = cms.frecuencia(e);
+            Assert.assertTrue(f >= frecuencias[e]);
+            if (f > frecuencias[e] + epsilon * cms.getTotal())
+                malos++;
+        }
+        Assert.assertTrue(malos < total * 0.02);
+        try {
+            cms.agrega(1, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link CountMinSketch#combina}, {@link
+     * CountMinSketch#envejece} y {@link CountMinSketch#limpia}.
+     */
+    @Test public void testCombina() {
+        CountMinSketch<String> c1 = new CountMinSketch<String>(0.01, 0.01);
+        CountMinSketch<String> c2 = new CountMinSketch<String>(0.01, 0.01);
+        c1.agrega("a", 10);
+        c2.agrega("a", 5);
+        c2.agrega("b");
+        c1.combina(c2);
+        Assert.assertTrue(c1.getTotal() == 16);
+        Assert.assertTrue(c1.frecuencia("a") >= 15);
+        Assert.assertTrue(c1.frecuencia("b") >= 1);
+        try {
+            c1.combina(new CountMinSketch<String>(0.1, 0.01));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        c1.envejece();
+        Assert.assertTrue(c1.getTotal() == 8);
+        Assert.assertTrue(c1.frecuencia("a") >= 7);
+        c1.limpia();
+        Assert.assertTrue(c1.getTotal() == 0);
+        Assert.assertTrue(c1.frecuencia("a") == 0);
+    }
+}
@@ -5,9 +5,12 @@ import java.util.Random;
 import mx.unam.ciencias.edd.AlgoritmoPicadillo;
 import mx.unam.ciencias.edd.Arreglos;
 import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.FamiliaPicadillos;
+import mx.unam.ciencias.edd.IteradorDiccionario;
 import mx.unam.ciencias.edd.Picadillo;
 import mx.unam.ciencias.edd.FabricaPicadillos;
 import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TipoDiccionario;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -304,4 +307,515 @@ public class TestDiccionario {
             diccionario.elimina(llave);
         for (String s : diccionario);
     }
+
+    /**
+     * Prueba unitaria para {@link Diccionario} con {@link
+     * TipoDiccionario#ROBIN_HOOD}.
+     */
+    @Test public void testRobinHood() {
+        Diccionario<String, String> rh =
+            new Diccionario<String, String>(TipoDiccionario.ROBIN_HOOD);
+        Assert.assertTrue(rh.getTipo() == TipoDiccionario.ROBIN_HOOD);
+        int ini = random.nextInt(10000);
+        String[] a = new String[total * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(rh.contiene(a[i]));
+            rh.agrega(a[i], a[i]);
+            diccionario.agrega(a[i], a[i]);
+            Assert.assertTrue(rh.get(a[i]).equals(a[i]));
+            Assert.assertTrue(rh.carga() < Diccionario.MAXIMA_CARGA);
+        }
+        Assert.assertTrue(rh.getElementos() == a.length);
+        Assert.assertTrue(rh.equals(diccionario));
+        Assert.assertTrue(diccionario.equals(rh));
+        for (int i = 0; i < a.length; i += 2) {
+            rh.elimina(a[i]);
+            Assert.assertFalse(rh.contiene(a[i]));
+            try {
+                rh.get(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+        for (int i = 1; i < a.length; i += 2)
+            Assert.assertTrue(rh.get(a[i]).equals(a[i]));
+        Assert.assertTrue(rh.getElementos() == a.length / 2);
+        Assert.assertTrue(rh.llaves().getLongitud() == a.length / 2);
+        int c = 0;
+        for (String s : rh)
+            c++;
+        Assert.assertTrue(c == a.length / 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#colisiones} y {@link
+     * Diccionario#colisionMaxima} con {@link TipoDiccionario#ROBIN_HOOD}.
+     */
+    @Test public void testColisionesRobinHood() {
+        Picadillo<String> hd = (String s) -> s.length();
+        Diccionario<String, String> rh =
+            new Diccionario<String, String>(total, hd,
+                                            TipoDiccionario.ROBIN_HOOD);
+        rh.agrega("a", "a");
+        rh.agrega("b", "b");
+        rh.agrega("c", "c");
+        rh.agrega("dd", "dd");
+        rh.agrega("ee", "ee");
+        Assert.assertTrue(rh.colisiones() == 3);
+        Assert.assertTrue(rh.colisionMaxima() == 2);
+        Assert.assertTrue(rh.get("ee").equals("ee"));
+        rh.elimina("a");
+        Assert.assertTrue(rh.colisiones() == 2);
+        Assert.assertTrue(rh.colisionMaxima() == 1);
+        Assert.assertTrue(rh.get("c").equals("c"));
+        Assert.assertTrue(rh.get("dd").equals("dd"));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#setCrecimientoIncremental}.
+     */
+    @Test public void testCrecimientoIncremental() {
+        diccionario.setCrecimientoIncremental(true);
+        Assert.assertTrue(diccionario.esCrecimientoIncremental());
+        int ini = random.nextInt(10000);
+        String[] a = new String[total * 8];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = String.format("%x", ini + i * 1000);
+            diccionario.agrega(a[i], a[i]);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.carga() < Diccionario.MAXIMA_CARGA);
+            for (int j = 0; j <= i; j += 1 + i / 8)
+                Assert.assertTrue(diccionario.get(a[j]).equals(a[j]));
+        }
+        for (int i = 0; i < a.length; i += 2) {
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+        }
+        for (int i = 1; i < a.length; i += 2)
+            Assert.assertTrue(diccionario.get(a[i]).equals(a[i]));
+        Assert.assertTrue(diccionario.llaves().getLongitud() == a.length / 2);
+        diccionario.setCrecimientoIncremental(false);
+        Assert.assertFalse(diccionario.esCrecimientoIncremental());
+        try {
+            new Diccionario<String, String>(TipoDiccionario.ROBIN_HOOD)
+                .setCrecimientoIncremental(true);
+            Assert.fail();
+        } catch (UnsupportedOperationException uoe) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#setResiembra} y {@link
+     * Diccionario#getResiembras}.
+     */
+    @Test public void testResiembra() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            /* El primer picadillo de la familia manda todas las llaves a la
+             * misma casilla; los demás son MurmurHash3 con semilla. */
+            int[] llamadas = { 0 };
+            FamiliaPicadillos<String> familia = (long semilla) -> {
+                if (llamadas[0]++ == 0)
+                    return (String s) -> 0;
+                return FabricaPicadillos.getInstancia(
+                    AlgoritmoPicadillo.MURMUR3_STRING, semilla);
+            };
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(total, (String s) -> 0, tipo);
+            d.setResiembra(familia, 16);
+            Assert.assertTrue(d.getResiembras() == 1);
+            String[] a = new String[total * 4];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = String.valueOf(i);
+                d.agrega(a[i], a[i]);
+            }
+            Assert.assertTrue(d.getResiembras() == 2);
+            Assert.assertTrue(d.getElementos() == a.length);
+            Assert.assertTrue(d.colisionMaxima() <= 16);
+            for (String s : a)
+                Assert.assertTrue(d.get(s).equals(s));
+            for (int i = 0; i < a.length; i += 2)
+                d.elimina(a[i]);
+            for (int i = 0; i < a.length; i++)
+                Assert.assertTrue(d.contiene(a[i]) == (i % 2 == 1));
+        }
+        try {
+            diccionario.setResiembra(FabricaPicadillos.getFamilia(
+                                         AlgoritmoPicadillo.SIPHASH_STRING), 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /* Mezcla de un bloque de MurmurHash3 antes de combinarlo con el estado. */
+    private static int mezclaMurmur(int k) {
+        return Integer.rotateLeft(k * 0xcc9e2d51, 15) * 0x1b873593;
+    }
+
+    /* Inverso multiplicativo de un entero impar módulo 2^32. */
+    private static int inverso(int a) {
+        int x = a;
+        for (int i = 0; i < 5; i++)
+            x *= 2 - a * x;
+        return x;
+    }
+
+    /* Regresa el bloque cuya mezcla de MurmurHash3 es la recibida. */
+    private static int desmezclaMurmur(int k) {
+        return Integer.rotateRight(k * inverso(0x1b873593), 15) *
+            inverso(0xcc9e2d51);
+    }
+
+    /* Nos dice si los cuatro bytes del bloque son ASCII distinto de 0, para
+     * que cada carácter de la cadena sea un byte. */
+    private static boolean ascii(int b) {
+        for (int i = 0; i < 32; i += 8)
+            if (((b >>> i) & 0xff) == 0 || ((b >>> i) & 0xff) >= 0x80)
+                return false;
+        return true;
+    }
+
+    /* Regresa un bloque aleatorio de ASCII imprimible cuya mezcla, con el
+     * bit recibido cambiado, es la de un bloque ASCII; en la posición 1 del
+     * arreglo regresa ese otro bloque. */
+    private int[] parMurmur(int bit) {
+        while (true) {
+            int a = 0;
+            for (int i = 0; i < 32; i += 8)
+                a |= (0x20 + random.nextInt(0x5f)) << i;
+            int b = desmezclaMurmur(mezclaMurmur(a) ^ bit);
+            if (ascii(b))
+                return new int[] { a, b };
+        }
+    }
+
+    /* Agrega a la cadena los cuatro bytes del bloque, el menos significativo
+     * primero. */
+    private static void agregaBloque(StringBuilder sb, int b) {
+        for (int i = 0; i < 32; i += 8)
+            sb.append((char)((b >>> i) & 0xff));
+    }
+
+    /* Regresa 2^m llaves que chocan en MurmurHash3 con cualquier semilla.
+     * Cada llave tiene m pares de bloques, y cada par es uno de dos: el
+     * primer bloque de uno difiere del del otro en el bit 18 de su mezcla,
+     * lo que tras la rotación y la multiplicación por 5 del estado deja
+     * sólo el bit 31 distinto; el segundo bloque difiere justo en el bit
+     * 31 de su mezcla, y lo cancela. */
+    private String[] inundacionMurmur(int m) {
+        int[][] primeros = new int[m][];
+        int[][] segundos = new int[m][];
+        for (int j = 0; j < m; j++) {
+            primeros[j] = parMurmur(1 << 18);
+            segundos[j] = parMurmur(1 << 31);
+        }
+        String[] llaves = new String[1 << m];
+        for (int i = 0; i < llaves.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < m; j++) {
+                agregaBloque(sb, primeros[j][(i >>> j) & 1]);
+                agregaBloque(sb, segundos[j][(i >>> j) & 1]);
+            }
+            llaves[i] = sb.toString();
+        }
+        return llaves;
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#setResiembra} con llaves que
+     * chocan en MurmurHash3 con cualquier semilla: cambiar de semilla no las
+     * separa, pero con {@link AlgoritmoPicadillo#SIPHASH_STRING} sí.
+     */
+    @Test public void testResiembraInundacion() {
+        String[] llaves = inundacionMurmur(10);
+        for (int i = 0; i < 2; i++) {
+            Picadillo<String> murmur = FabricaPicadillos.getInstancia(
+                AlgoritmoPicadillo.MURMUR3_STRING,
+                FabricaPicadillos.semillaAleatoria());
+            for (String llave : llaves)
+                Assert.assertTrue(murmur.picadillo(llave) ==
+                                  murmur.picadillo(llaves[0]));
+        }
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(llaves.length,
+                                                (String s) -> s.hashCode(),
+                                                tipo);
+            d.setResiembra(FabricaPicadillos.getFamilia(
+                               AlgoritmoPicadillo.SIPHASH_STRING), 16);
+            for (String llave : llaves)
+                d.agrega(llave, llave);
+            Assert.assertTrue(d.getResiembras() == 1);
+            Assert.assertTrue(d.colisionMaxima() <= 16);
+            for (String llave : llaves)
+                Assert.assertTrue(d.get(llave).equals(llave));
+        }
+    }
+
+    /**
+     * Prueba unitaria que verifica que {@link Diccionario} no vuelve a
+     * calcular los picadillos de sus llaves al crecer o al compararse con
+     * {@link Diccionario#equals}.
+     */
+    @Test public void testPicadillosGuardados() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            int[] llamadas = { 0 };
+            Picadillo<String> hd = (String s) -> {
+                llamadas[0]++;
+                return s.hashCode();
+            };
+            Diccionario<String, String> d1 =
+                new Diccionario<String, String>(1, hd, tipo);
+            Diccionario<String, String> d2 =
+                new Diccionario<String, String>(1, hd, tipo);
+            String[] a = new String[total * 8];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = String.valueOf(i);
+                d1.agrega(a[i], a[i]);
+                d2.agrega(a[i], a[i]);
+            }
+            Assert.assertTrue(llamadas[0] == 2 * a.length);
+            Assert.assertTrue(d1.equals(d2));
+            Assert.assertTrue(llamadas[0] == 2 * a.length);
+            for (String s : a)
+                Assert.assertTrue(d1.get(s).equals(s));
+            Assert.assertTrue(llamadas[0] == 3 * a.length);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega(Object, Object, long)},
+     * {@link Diccionario#barre} y {@link Diccionario#setReloj}.
+     */
+    @Test public void testCaducidad() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            long[] tiempo = { 1000 };
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(total,
+                                                (String s) -> s.hashCode(),
+                                                tipo);
+            d.setReloj(() -> tiempo[0]);
+            String[] a = new String[total * 4];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = String.valueOf(i);
+                if (i % 2 == 0)
+                    d.agrega(a[i], a[i], 10 + i % 4);
+                else
+                    d.agrega(a[i], a[i]);
+            }
+            tiempo[0] += 9;
+            for (int i = 0; i < a.length; i++)
+                Assert.assertTrue(d.get(a[i]).equals(a[i]));
+            tiempo[0] += 1;
+            /* Las llaves i con i % 4 == 0 ya caducaron. */
+            Assert.assertFalse(d.contiene(a[0]));
+            Assert.assertTrue(d.contiene(a[2]));
+            try {
+                d.get(a[4]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            try {
+                d.elimina(a[8]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            d.agrega(a[2], "x");
+            tiempo[0] += 10;
+            Assert.assertTrue(d.get(a[2]).equals("x"));
+            d.barre((int)(d.getElementos() / d.carga()));
+            Assert.assertTrue(d.getElementos() == a.length / 2 + 1);
+            Assert.assertTrue(d.llaves().getLongitud() == a.length / 2 + 1);
+            int c = 0;
+            for (String v : d)
+                c++;
+            Assert.assertTrue(c == a.length / 2 + 1);
+            for (int i = 1; i < a.length; i += 2)
+                Assert.assertTrue(d.get(a[i]).equals(a[i]));
+            try {
+                d.agrega("a", "a", 0);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        Assert.assertTrue(diccionario.barre(100) == 0);
+        try {
+            diccionario.setReloj(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega(Object, Object, long)}
+     * con operaciones que eliminan las entradas caducas poco a poco, sin
+     * llamar a {@link Diccionario#barre}.
+     */
+    @Test public void testCaducidadIncremental() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            long[] tiempo = { 0 };
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(tipo);
+            d.setReloj(() -> tiempo[0]);
+            for (int i = 0; i < total * 8; i++) {
+                String s = String.valueOf(i);
+                d.agrega(s, s, 5);
+                tiempo[0]++;
+                Assert.assertTrue(d.getElementos() <= total * 8);
+            }
+            /* Sólo deben quedar entradas vivas, y las caducas que no se
+             * han revisado. */
+            tiempo[0] += 5;
+            for (int i = 0; i < total * 64; i++)
+                d.contiene("x");
+            Assert.assertTrue(d.getElementos() == 0);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#iteradorEntradas}.
+     */
+    @Test public void testIteradorEntradas() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            Diccionario<String, Integer> d =
+                new Diccionario<String, Integer>(tipo);
+            IteradorDiccionario<String, Integer> vacio = d.iteradorEntradas();
+            Assert.assertFalse(vacio.hasNext());
+            try {
+                vacio.getValor();
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+            for (int i = 0; i < total; i++)
+                d.agrega(String.valueOf(i), i);
+            boolean[] vistos = new boolean[total];
+            IteradorDiccionario<String, Integer> iterador =
+                d.iteradorEntradas();
+            while (iterador.hasNext()) {
+                String llave = iterador.next();
+                int valor = iterador.getValor();
+                Assert.assertTrue(llave.equals(String.valueOf(valor)));
+                Assert.assertFalse(vistos[valor]);
+                vistos[valor] = true;
+            }
+            for (boolean visto : vistos)
+                Assert.assertTrue(visto);
+            try {
+                iterador.next();
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#paraCada}.
+     */
+    @Test public void testParaCada() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            Diccionario<String, Integer> d =
+                new Diccionario<String, Integer>(tipo);
+            for (int i = 0; i < total; i++)
+                d.agrega(String.valueOf(i), i);
+            int[] suma = { 0 };
+            int[] cuenta = { 0 };
+            d.paraCada((String llave, Integer valor) -> {
+                    Assert.assertTrue(llave.equals(String.valueOf(valor)));
+                    suma[0] += valor;
+                    cuenta[0]++;
+                });
+            Assert.assertTrue(cuenta[0] == total);
+            Assert.assertTrue(suma[0] == total * (total - 1) / 2);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#vistaLlaves} y {@link
+     * Diccionario#vistaValores}.
+     */
+    @Test public void testVistas() {
+        Iterable<String> llaves = diccionario.vistaLlaves();
+        Iterable<String> valores = diccionario.vistaValores();
+        Assert.assertFalse(llaves.iterator().hasNext());
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(String.valueOf(i), "v" + i);
+        int c = 0;
+        for (String llave : llaves) {
+            Assert.assertTrue(diccionario.get(llave).equals("v" + llave));
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        c = 0;
+        for (String valor : valores) {
+            Assert.assertTrue(valor.startsWith("v"));
+            c++;
+        }
+        Assert.assertTrue(c == total);
+        diccionario.elimina("0");
+        c = 0;
+        for (String llave : llaves)
+            c++;
+        Assert.assertTrue(c == total - 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agregaTodos} y {@link
+     * Diccionario#getTodos}.
+     */
+    @Test public void testAgregaGetTodos() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            Diccionario<String, String> d =
+                new Diccionario<String, String>(tipo);
+            String[] llaves = new String[total * 16];
+            String[] valores = new String[llaves.length];
+            for (int i = 0; i < llaves.length; i++) {
+                llaves[i] = String.valueOf(i % (total * 8));
+                valores[i] = "v" + i;
+            }
+            d.agregaTodos(llaves, valores);
+            Assert.assertTrue(d.getElementos() == total * 8);
+            Assert.assertTrue(d.carga() < Diccionario.MAXIMA_CARGA);
+            for (int i = 0; i < total * 8; i++)
+                Assert.assertTrue(d.get(llaves[i]).equals(
+                                      valores[i + total * 8]));
+            String[] buscadas = new String[total * 2];
+            for (int i = 0; i < buscadas.length; i++)
+                buscadas[i] = String.valueOf(i * 4);
+            buscadas[0] = null;
+            String[] salida = new String[buscadas.length];
+            int encontradas = d.getTodos(buscadas, salida);
+            Assert.assertTrue(encontradas == buscadas.length - 1);
+            Assert.assertTrue(salida[0] == null);
+            for (int i = 1; i < buscadas.length; i++)
+                Assert.assertTrue(salida[i].equals(d.get(buscadas[i])));
+            try {
+                d.agregaTodos(new String[] { "a", null },
+                              new String[] { "a", "b" });
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            Assert.assertFalse(d.contiene("a"));
+            try {
+                d.agregaTodos(new String[] { "a" }, new String[0]);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                d.getTodos(buscadas, new String[1]);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agregaTodos} y {@link
+     * Diccionario#getTodos} con colecciones.
+     */
+    @Test public void testAgregaGetTodosColeccion() {
+        Lista<String> llaves = new Lista<String>();
+        Lista<String> valores = new Lista<String>();
+        for (int i = 0; i < total; i++) {
+            llaves.agrega(String.valueOf(i));
+            valores.agrega("v" + i);
+        }
+        diccionario.agregaTodos(llaves, valores);
+        Assert.assertTrue(diccionario.getElementos() == total);
+        llaves.agrega("x");
+        Lista<String> salida = new Lista<String>();
+        Assert.assertTrue(diccionario.getTodos(llaves, salida) == total);
+        Assert.assertTrue(salida.equals(valores));
+        try {
+            diccionario.agregaTodos(llaves, valores);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
 }
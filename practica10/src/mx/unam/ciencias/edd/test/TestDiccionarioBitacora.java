@@ -0,0 +1,275 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Stream;
+import mx.unam.ciencias.edd.DiccionarioBitacora;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioBitacora}.
+ */
+public class TestDiccionarioBitacora {
+
+    private Random random;
+    private int total;
+    private Path directorio;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestDiccionarioBitacora() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /**
+     * Crea un directorio temporal para los archivos de cada prueba.
+     * @throws IOException si no puede crearse el directorio.
+     */
+    @Before public void creaDirectorio() throws IOException {
+        directorio = Files.createTempDirectory("edd");
+    }
+
+    /**
+     * Borra el directorio temporal de cada prueba.
+     * @throws IOException si no puede borrarse el directorio.
+     */
+    @After public void borraDirectorio() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : (Iterable<Path>)archivos::iterator)
+                Files.delete(archivo);
+        }
+        Files.delete(directorio);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioBitacora#agrega}, {@link
+     * DiccionarioBitacora#elimina} y la carga de la bitácora.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testRepite() throws IOException {
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.esVacio());
+        for (int i = 0; i < total; i++)
+            dicc.agrega("llave" + i, "valor" + i);
+        dicc.agrega("llave0", "otro");
+        for (int i = 1; i < total; i += 2)
+            dicc.elimina("llave" + i);
+        try {
+            dicc.elimina("llave1");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        dicc.sincroniza();
+        dicc.agrega("año", "niño");
+        dicc.cierra();
+        try {
+            dicc.agrega("a", "b");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == (total + 1) / 2 + 1);
+        Assert.assertTrue(dicc.get("llave0").equals("otro"));
+        Assert.assertTrue(dicc.get("año").equals("niño"));
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(dicc.contiene("llave" + i) == (i % 2 == 0));
+        dicc.cierra();
+    }
+
+    /**
+     * Prueba unitaria para la carga de una bitácora con el último registro
+     * incompleto.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testRegistroIncompleto() throws IOException {
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        dicc.agrega("a", "1");
+        dicc.agrega("b", "2");
+        dicc.cierra();
+        Path bitacora = directorio.resolve("bitacora.log");
+        try (FileChannel canal = FileChannel.open(bitacora,
+                                                  StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 1);
+        }
+        long tam = Files.size(bitacora);
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 1);
+        Assert.assertTrue(dicc.get("a").equals("1"));
+        Assert.assertFalse(dicc.contiene("b"));
+        Assert.assertTrue(Files.size(bitacora) < tam);
+        dicc.agrega("c", "3");
+        dicc.cierra();
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 2);
+        Assert.assertTrue(dicc.get("c").equals("3"));
+        dicc.cierra();
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioBitacora#compacta}.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testCompacta() throws IOException {
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        for (int i = 0; i < total; i++)
+            dicc.agrega("llave" + (i % 100), "valor" + i);
+        dicc.compacta();
+        Assert.assertTrue(Files.size(directorio.resolve("bitacora.log")) == 0);
+        Assert.assertTrue(Files.exists(directorio.resolve("instantanea.edd")));
+        dicc.elimina("llave0");
+        dicc.agrega("llave1", "nuevo");
+        dicc.cierra();
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 99);
+        Assert.assertFalse(dicc.contiene("llave0"));
+        Assert.assertTrue(dicc.get("llave1").equals("nuevo"));
+        for (int i = total - 100; i < total; i++)
+            if (i % 100 > 1)
+                Assert.assertTrue(dicc.get("llave" + (i % 100)).equals(
+                                      "valor" + i));
+        dicc.cierra();
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioBitacora#compacta} cuando falla
+     * dos veces seguidas: no se pierden registros durables.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testCompactaFallida() throws IOException {
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        /* Un directorio no vacío en lugar de la instantánea hace que no
+         * pueda escribirse. */
+        Path instantanea = directorio.resolve("instantanea.edd");
+        Path estorbo = instantanea.resolve("estorbo");
+        Files.createDirectories(instantanea);
+        Files.createFile(estorbo);
+        for (int i = 0; i < 3; i++) {
+            dicc.agrega("llave" + i, "valor" + i);
+            dicc.sincroniza();
+            try {
+                dicc.compacta();
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        dicc.agrega("llave3", "valor3");
+        dicc.cierra();
+        Files.delete(estorbo);
+        Files.delete(instantanea);
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 4);
+        for (int i = 0; i < 4; i++)
+            Assert.assertTrue(dicc.get("llave" + i).equals("valor" + i));
+        dicc.compacta();
+        Assert.assertFalse(Files.exists(
+                               directorio.resolve("bitacora.log.anterior")));
+        dicc.cierra();
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 4);
+        dicc.cierra();
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioBitacora#sincroniza} cuando
+     * falla la escritura: la bitácora queda inválida y no se reporta como
+     * durable nada que no llegó al disco.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testEscrituraFallida() throws IOException {
+        /* Escribir en /dev/full siempre falla por falta de espacio. */
+        Path lleno = Paths.get("/dev/full");
+        if (!Files.isWritable(lleno))
+            return;
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        dicc.agrega("a", "1");
+        dicc.compacta();
+        dicc.cierra();
+        Path bitacora = directorio.resolve("bitacora.log");
+        Files.delete(bitacora);
+        Files.createSymbolicLink(bitacora, lleno);
+        dicc = new DiccionarioBitacora(directorio);
+        dicc.agrega("b", "2");
+        try {
+            dicc.sincroniza();
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try {
+            dicc.agrega("c", "3");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        try {
+            dicc.elimina("a");
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        try {
+            dicc.sincroniza();
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try {
+            dicc.compacta();
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try {
+            dicc.cierra();
+            Assert.fail();
+        } catch (IOException ioe) {}
+        Files.delete(bitacora);
+        dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == 1);
+        Assert.assertTrue(dicc.get("a").equals("1"));
+        Assert.assertFalse(dicc.contiene("b"));
+        dicc.cierra();
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioBitacora#sincroniza} desde
+     * varios hilos.
+     * @throws Exception si ocurre un error en algún hilo.
+     */
+    @Test public void testSincronizaHilos() throws Exception {
+        DiccionarioBitacora compartido = new DiccionarioBitacora(directorio);
+        compartido.setLimiteBitacora(1 << 12);
+        Thread[] hilos = new Thread[4];
+        IOException[] errores = new IOException[hilos.length];
+        for (int h = 0; h < hilos.length; h++) {
+            int id = h;
+            hilos[h] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 200; i++) {
+                            compartido.agrega(id + ":" + i,
+                                              String.valueOf(i));
+                            if (i % 10 == 0)
+                                compartido.sincroniza();
+                        }
+                        compartido.sincroniza();
+                    } catch (IOException ioe) {
+                        errores[id] = ioe;
+                    }
+                });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (IOException e : errores)
+            if (e != null)
+                throw e;
+        compartido.cierra();
+        DiccionarioBitacora dicc = new DiccionarioBitacora(directorio);
+        Assert.assertTrue(dicc.getElementos() == hilos.length * 200);
+        for (int h = 0; h < hilos.length; h++)
+            for (int i = 0; i < 200; i++)
+                Assert.assertTrue(dicc.get(h + ":" + i).equals(
+                                      String.valueOf(i)));
+        dicc.cierra();
+    }
+}
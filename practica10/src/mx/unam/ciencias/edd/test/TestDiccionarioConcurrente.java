@@ -0,0 +1,150 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoPicadillo;
+import mx.unam.ciencias.edd.DiccionarioConcurrente;
+import mx.unam.ciencias.edd.FabricaPicadillos;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.Picadillo;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioConcurrente}.
+ */
+public class TestDiccionarioConcurrente {
+
+    private int total;
+    private Random random;
+    private DiccionarioConcurrente<String, String> diccionario;
+
+    private static final int N = 64;
+    private static final int HILOS = 8;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioConcurrente() {
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioConcurrente<String, String>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#agrega}, {@link
+     * DiccionarioConcurrente#get} y {@link DiccionarioConcurrente#elimina}.
+     */
+    @Test public void testAgregaGetElimina() {
+        Assert.assertTrue(diccionario.esVacio());
+        int ini = random.nextInt(10000);
+        String[] a = new String[total * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = String.format("%x", ini + i * 1000);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            diccionario.agrega(a[i], a[i]);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.get(a[i]).equals(a[i]));
+            Assert.assertTrue(diccionario.carga() <
+                              DiccionarioConcurrente.MAXIMA_CARGA);
+        }
+        diccionario.agrega(a[0], a[1]);
+        Assert.assertTrue(diccionario.get(a[0]).equals(a[1]));
+        Assert.assertTrue(diccionario.getElementos() == a.length);
+        Lista<String> llaves = diccionario.llaves();
+        Assert.assertTrue(llaves.getLongitud() == a.length);
+        for (int i = 0; i < a.length; i++) {
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+            Assert.assertTrue(diccionario.getElementos() == a.length - (i+1));
+            try {
+                diccionario.get(a[i]);
+                Assert.fail();
+            } catch (NoSuchElementException nsee) {}
+        }
+        try {
+            diccionario.elimina(a[0]);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            diccionario.agrega(null, "X");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#colisiones} y {@link
+     * DiccionarioConcurrente#colisionMaxima}.
+     */
+    @Test public void testColisiones() {
+        Picadillo<String> hd;
+        hd = FabricaPicadillos.getInstancia(AlgoritmoPicadillo.XOR_STRING);
+        diccionario = new DiccionarioConcurrente<String, String>(total, hd);
+        byte[] bs1 = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08 };
+        byte[] bs2 = { 0x05, 0x06, 0x07, 0x08, 0x01, 0x02, 0x03, 0x04 };
+        diccionario.agrega(new String(bs1), "a");
+        Assert.assertTrue(diccionario.colisiones() == 0);
+        Assert.assertTrue(diccionario.colisionMaxima() == 0);
+        diccionario.agrega(new String(bs2), "b");
+        Assert.assertTrue(diccionario.colisiones() == 1);
+        Assert.assertTrue(diccionario.colisionMaxima() == 1);
+        diccionario.elimina(new String(bs1));
+        Assert.assertTrue(diccionario.get(new String(bs2)).equals("b"));
+        Assert.assertTrue(diccionario.colisiones() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente#carga} con llaves
+     * cuyos picadillos coinciden en los bits bajos.
+     */
+    @Test public void testCarga() {
+        DiccionarioConcurrente<Integer, Integer> d =
+            new DiccionarioConcurrente<Integer, Integer>();
+        int n = total * 1000;
+        for (int i = 0; i < n; i++)
+            d.agrega(i * 64, i);
+        Assert.assertTrue(d.getElementos() == n);
+        Assert.assertTrue(d.carga() > DiccionarioConcurrente.MAXIMA_CARGA / 4);
+        Assert.assertTrue(d.carga() < DiccionarioConcurrente.MAXIMA_CARGA);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(d.get(i * 64) == i);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioConcurrente} con varios hilos
+     * agregando, buscando y eliminando al mismo tiempo.
+     */
+    @Test public void testHilos() throws InterruptedException {
+        final int porHilo = total * 16;
+        Thread[] hilos = new Thread[HILOS];
+        final boolean[] errores = new boolean[HILOS];
+        for (int h = 0; h < HILOS; h++) {
+            final int hilo = h;
+            hilos[h] = new Thread(() -> {
+                for (int i = 0; i < porHilo; i++) {
+                    String s = hilo + ":" + i;
+                    diccionario.agrega(s, s);
+                    if (!diccionario.get(s).equals(s))
+                        errores[hilo] = true;
+                }
+                for (int i = 0; i < porHilo; i += 2)
+                    diccionario.elimina(hilo + ":" + i);
+                for (int i = 0; i < porHilo; i++)
+                    if (diccionario.contiene(hilo + ":" + i) != (i % 2 == 1))
+                        errores[hilo] = true;
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (boolean error : errores)
+            Assert.assertFalse(error);
+        Assert.assertTrue(diccionario.getElementos() == HILOS * porHilo / 2);
+        int c = 0;
+        for (String s : diccionario)
+            c++;
+        Assert.assertTrue(c == HILOS * porHilo / 2);
+        Assert.assertTrue(diccionario.carga() <
+                          DiccionarioConcurrente.MAXIMA_CARGA);
+    }
+}
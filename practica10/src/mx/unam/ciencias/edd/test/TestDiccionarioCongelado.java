@@ -0,0 +1,135 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.DiccionarioCongelado;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TipoDiccionario;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioCongelado}.
+ */
+public class TestDiccionarioCongelado {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestDiccionarioCongelado() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /* Llena un diccionario del tipo recibido con llaves distintas. */
+    private Diccionario<Integer, String> llena(TipoDiccionario tipo,
+                                                Lista<Integer> llaves) {
+        Diccionario<Integer, String> dicc =
+            new Diccionario<Integer, String>(tipo);
+        while (dicc.getElementos() < total) {
+            int n = random.nextInt(total * 100);
+            if (dicc.contiene(n))
+                continue;
+            dicc.agrega(n, String.valueOf(n));
+            llaves.agrega(n);
+        }
+        return dicc;
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#congela} y {@link
+     * DiccionarioCongelado#get}.
+     */
+    @Test public void testGet() {
+        for (TipoDiccionario tipo : TipoDiccionario.values()) {
+            Lista<Integer> llaves = new Lista<Integer>();
+            Diccionario<Integer, String> dicc = llena(tipo, llaves);
+            DiccionarioCongelado<Integer, String> congelado = dicc.congela();
+            Assert.assertTrue(congelado.getElementos() == total);
+            Assert.assertFalse(congelado.esVacio());
+            for (Integer n : llaves) {
+                Assert.assertTrue(congelado.contiene(n));
+                Assert.assertTrue(congelado.get(n).equals(String.valueOf(n)));
+            }
+            for (int i = 0; i < total; i++) {
+                int n = total * 100 + random.nextInt(total);
+                Assert.assertFalse(congelado.contiene(n));
+                try {
+                    congelado.get(n);
+                    Assert.fail();
+                } catch (NoSuchElementException nsee) {}
+            }
+            Assert.assertFalse(congelado.contiene(null));
+            /* La copia no cambia con el diccionario. */
+            dicc.elimina(llaves.getPrimero());
+            Assert.assertTrue(congelado.contiene(llaves.getPrimero()));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#congela} con un diccionario
+     * vacío.
+     */
+    @Test public void testVacio() {
+        DiccionarioCongelado<Integer, String> congelado =
+            new Diccionario<Integer, String>().congela();
+        Assert.assertTrue(congelado.esVacio());
+        Assert.assertFalse(congelado.contiene(1));
+        Assert.assertFalse(congelado.iterator().hasNext());
+        try {
+            congelado.get(1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#congela} con llaves distintas
+     * que tienen el mismo picadillo.
+     */
+    @Test public void testPicadillosRepetidos() {
+        Diccionario<Integer, String> dicc =
+            new Diccionario<Integer, String>(16, (Integer n) -> n / 4);
+        for (int i = 0; i < total; i++)
+            dicc.agrega(i, String.valueOf(i));
+        DiccionarioCongelado<Integer, String> congelado = dicc.congela();
+        Assert.assertTrue(congelado.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(congelado.get(i).equals(String.valueOf(i)));
+        Assert.assertFalse(congelado.contiene(total + 4));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioCongelado#iterator}, {@link
+     * DiccionarioCongelado#paraCada} y {@link DiccionarioCongelado#llaves}.
+     */
+    @Test public void testRecorridos() {
+        Lista<Integer> llaves = new Lista<Integer>();
+        Diccionario<Integer, String> dicc =
+            llena(TipoDiccionario.ENCADENADO, llaves);
+        dicc.agrega(-1, "x");
+        dicc.agrega(-2, "y");
+        DiccionarioCongelado<Integer, String> congelado = dicc.congela();
+        int c = 0;
+        Lista<String> valores = dicc.valores();
+        for (String v : congelado) {
+            Assert.assertTrue(valores.contiene(v));
+            c++;
+        }
+        Assert.assertTrue(c == total + 2);
+        Lista<Integer> todas = congelado.llaves();
+        Assert.assertTrue(todas.getLongitud() == total + 2);
+        for (Integer n : todas)
+            Assert.assertTrue(dicc.contiene(n));
+        int[] cuenta = new int[1];
+        congelado.paraCada((Integer n, String v) -> {
+                Assert.assertTrue(dicc.get(n).equals(v));
+                cuenta[0]++;
+            });
+        Assert.assertTrue(cuenta[0] == total + 2);
+    }
+}
@@ -0,0 +1,83 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioInt;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioInt}.
+ */
+public class TestDiccionarioInt {
+
+    private int total;
+    private Random random;
+    private DiccionarioInt<String> diccionario;
+
+    private static final int N = 64;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioInt() {
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioInt<String>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioInt#agrega} y {@link
+     * DiccionarioInt#get}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(diccionario.esVacio());
+        int ini = random.nextInt(10000) - 5000;
+        for (int i = 0; i < total * 4; i++) {
+            int k = ini + i * 1024;
+            Assert.assertFalse(diccionario.contiene(k));
+            diccionario.agrega(k, String.valueOf(k));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.get(k).equals(String.valueOf(k)));
+            Assert.assertTrue(diccionario.carga() < DiccionarioInt.MAXIMA_CARGA);
+        }
+        diccionario.agrega(ini, "X");
+        Assert.assertTrue(diccionario.get(ini).equals("X"));
+        Assert.assertTrue(diccionario.getElementos() == total * 4);
+        Assert.assertTrue(diccionario.llaves().length == total * 4);
+        try {
+            diccionario.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.get(ini - 1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioInt#elimina}.
+     */
+    @Test public void testElimina() {
+        int[] a = new int[total * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextBoolean() ? i : -i * 7919;
+            diccionario.agrega(a[i], String.valueOf(a[i]));
+        }
+        for (int i = 0; i < a.length; i += 2) {
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+        }
+        for (int i = 1; i < a.length; i += 2)
+            Assert.assertTrue(diccionario.get(a[i]).equals(String.valueOf(a[i])));
+        Assert.assertTrue(diccionario.getElementos() == a.length / 2);
+        int c = 0;
+        for (String s : diccionario)
+            c++;
+        Assert.assertTrue(c == a.length / 2);
+        try {
+            diccionario.elimina(a[0]);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
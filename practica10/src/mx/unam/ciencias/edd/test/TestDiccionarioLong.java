@@ -0,0 +1,83 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioLong}.
+ */
+public class TestDiccionarioLong {
+
+    private int total;
+    private Random random;
+    private DiccionarioLong<String> diccionario;
+
+    private static final int N = 64;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionarioLong() {
+        random = new Random();
+        total = N + random.nextInt(N);
+        diccionario = new DiccionarioLong<String>(total);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLong#agrega} y {@link
+     * DiccionarioLong#get}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(diccionario.esVacio());
+        int ini = random.nextInt(10000) - 5000;
+        for (int i = 0; i < total * 4; i++) {
+            long k = ini + i * (1L << 33);
+            Assert.assertFalse(diccionario.contiene(k));
+            diccionario.agrega(k, String.valueOf(k));
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.get(k).equals(String.valueOf(k)));
+            Assert.assertTrue(diccionario.carga() < DiccionarioLong.MAXIMA_CARGA);
+        }
+        diccionario.agrega(ini, "X");
+        Assert.assertTrue(diccionario.get(ini).equals("X"));
+        Assert.assertTrue(diccionario.getElementos() == total * 4);
+        Assert.assertTrue(diccionario.llaves().length == total * 4);
+        try {
+            diccionario.agrega(0, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.get(ini + (1L << 32));
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioLong#elimina}.
+     */
+    @Test public void testElimina() {
+        long[] a = new long[total * 4];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextBoolean() ? i : -i * 7919L << 32;
+            diccionario.agrega(a[i], String.valueOf(a[i]));
+        }
+        for (int i = 0; i < a.length; i += 2) {
+            diccionario.elimina(a[i]);
+            Assert.assertFalse(diccionario.contiene(a[i]));
+        }
+        for (int i = 1; i < a.length; i += 2)
+            Assert.assertTrue(diccionario.get(a[i]).equals(String.valueOf(a[i])));
+        Assert.assertTrue(diccionario.getElementos() == a.length / 2);
+        int c = 0;
+        for (String s : diccionario)
+            c++;
+        Assert.assertTrue(c == a.length / 2);
+        try {
+            diccionario.elimina(a[0]);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,227 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoPicadillo;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.DiccionarioMapeado;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioMapeado}.
+ */
+public class TestDiccionarioMapeado {
+
+    private Random random;
+    private int total;
+    private Path directorio;
+    private Path archivo;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestDiccionarioMapeado() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /**
+     * Crea un directorio temporal para los archivos de cada prueba.
+     * @throws IOException si no puede crearse el directorio.
+     */
+    @Before public void creaDirectorio() throws IOException {
+        directorio = Files.createTempDirectory("edd");
+        archivo = directorio.resolve("diccionario.edd");
+    }
+
+    /**
+     * Borra el directorio temporal de cada prueba.
+     * @throws IOException si no puede borrarse el directorio.
+     */
+    @After public void borraDirectorio() throws IOException {
+        Files.deleteIfExists(archivo);
+        Files.deleteIfExists(directorio);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioMapeado#guarda} y {@link
+     * DiccionarioMapeado#get}.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testGuardaGet() throws IOException {
+        Diccionario<String, String> dicc = new Diccionario<String, String>();
+        for (int i = 0; i < total; i++)
+            dicc.agrega("llave" + i, "valor" + random.nextInt());
+        dicc.agrega("año", "niño");
+        dicc.agrega("", "vacía");
+        DiccionarioMapeado.guarda(dicc, archivo);
+        DiccionarioMapeado mapeado = new DiccionarioMapeado(archivo);
+        Assert.assertTrue(mapeado.getElementos() == total + 2);
+        Assert.assertFalse(mapeado.esVacio());
+        Assert.assertTrue(mapeado.getAlgoritmo() ==
+                          AlgoritmoPicadillo.MURMUR3_STRING);
+        for (String llave : dicc.llaves()) {
+            Assert.assertTrue(mapeado.contiene(llave));
+            Assert.assertTrue(mapeado.get(llave).equals(dicc.get(llave)));
+        }
+        Assert.assertFalse(mapeado.contiene("llave" + total));
+        Assert.assertFalse(mapeado.contiene("ano"));
+        Assert.assertFalse(mapeado.contiene(null));
+        try {
+            mapeado.get("llave" + total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioMapeado#guarda} con un
+     * diccionario que tiene entradas caducas.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testGuardaCaducas() throws IOException {
+        long[] tiempo = { 1000 };
+        Diccionario<String, String> dicc = new Diccionario<String, String>();
+        dicc.setReloj(() -> tiempo[0]);
+        for (int i = 0; i < total; i++) {
+            if (i % 2 == 0)
+                dicc.agrega("llave" + i, "valor" + i, 10);
+            else
+                dicc.agrega("llave" + i, "valor" + i);
+        }
+        tiempo[0] += 10;
+        DiccionarioMapeado.guarda(dicc, archivo);
+        DiccionarioMapeado mapeado = new DiccionarioMapeado(archivo);
+        Assert.assertTrue(mapeado.getElementos() == total / 2);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(mapeado.contiene("llave" + i) == (i % 2 == 1));
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioMapeado#guarda} sobre un archivo
+     * existente y con otro algoritmo.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testReemplaza() throws IOException {
+        Diccionario<String, String> dicc = new Diccionario<String, String>();
+        DiccionarioMapeado.guarda(dicc, archivo);
+        DiccionarioMapeado mapeado = new DiccionarioMapeado(archivo);
+        Assert.assertTrue(mapeado.esVacio());
+        Assert.assertFalse(mapeado.contiene("a"));
+        dicc.agrega("a", "b");
+        DiccionarioMapeado.guarda(dicc, archivo,
+                                  AlgoritmoPicadillo.XXHASH64_STRING);
+        mapeado = new DiccionarioMapeado(archivo);
+        Assert.assertTrue(mapeado.getElementos() == 1);
+        Assert.assertTrue(mapeado.get("a").equals("b"));
+        Assert.assertTrue(mapeado.getAlgoritmo() ==
+                          AlgoritmoPicadillo.XXHASH64_STRING);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioMapeado#DiccionarioMapeado} con
+     * un archivo inválido.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testArchivoInvalido() throws IOException {
+        Files.write(archivo, new byte[] { 1, 2, 3 });
+        try {
+            new DiccionarioMapeado(archivo);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        Files.write(archivo, new byte[64]);
+        try {
+            new DiccionarioMapeado(archivo);
+            Assert.fail();
+        } catch (IOException ioe) {}
+    }
+
+    /* Guarda un diccionario con total entradas y regresa los bytes del
+     * archivo. */
+    private byte[] guardaBytes() throws IOException {
+        Diccionario<String, String> dicc = new Diccionario<String, String>();
+        for (int i = 0; i < total; i++)
+            dicc.agrega("llave" + i, "valor" + i);
+        DiccionarioMapeado.guarda(dicc, archivo);
+        return Files.readAllBytes(archivo);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioMapeado} con un archivo truncado
+     * o corrupto.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testArchivoCorrupto() throws IOException {
+        byte[] bytes = guardaBytes();
+        int casillas = ByteBuffer.wrap(bytes).getInt(16);
+        int datos = 20 + casillas * 8;
+
+        /* Los datos no alcanzan para las entradas del encabezado. */
+        Files.write(archivo, Arrays.copyOf(bytes, datos + 8));
+        try {
+            new DiccionarioMapeado(archivo);
+            Assert.fail();
+        } catch (IOException ioe) {}
+
+        /* Más elementos que la mitad de las casillas. */
+        byte[] copia = bytes.clone();
+        ByteBuffer.wrap(copia).putInt(12, casillas);
+        Files.write(archivo, copia);
+        try {
+            new DiccionarioMapeado(archivo);
+            Assert.fail();
+        } catch (IOException ioe) {}
+
+        /* La última entrada está truncada. */
+        Files.write(archivo, Arrays.copyOf(bytes, bytes.length - 1));
+        DiccionarioMapeado mapeado = new DiccionarioMapeado(archivo);
+        try {
+            mapeado.paraCada((llave, valor) -> {});
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+        boolean invalida = false;
+        for (int i = 0; i < total; i++) {
+            try {
+                mapeado.contiene("llave" + i);
+            } catch (IllegalStateException ise) {
+                invalida = true;
+            }
+        }
+        Assert.assertTrue(invalida);
+
+        /* Todas las casillas apuntan fuera del archivo. */
+        copia = bytes.clone();
+        ByteBuffer buffer = ByteBuffer.wrap(copia);
+        for (int i = 0; i < casillas; i++)
+            buffer.putInt(20 + i * 8 + 4, Integer.MAX_VALUE);
+        Files.write(archivo, copia);
+        mapeado = new DiccionarioMapeado(archivo);
+        for (int i = 0; i < total; i++) {
+            try {
+                mapeado.get("llave" + i);
+                Assert.fail();
+            } catch (IllegalStateException ise) {}
+        }
+
+        /* La tabla está llena y ningún picadillo coincide: la búsqueda
+         * termina sin encontrar la llave. */
+        copia = bytes.clone();
+        buffer = ByteBuffer.wrap(copia);
+        for (int i = 0; i < casillas; i++) {
+            buffer.putInt(20 + i * 8, 0);
+            buffer.putInt(20 + i * 8 + 4, datos);
+        }
+        Files.write(archivo, copia);
+        mapeado = new DiccionarioMapeado(archivo);
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(mapeado.contiene("llave" + i + "x"));
+    }
+}
@@ -0,0 +1,177 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.DiccionarioOrdenado;
+import mx.unam.ciencias.edd.IteradorDiccionario;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioOrdenado}.
+ */
+public class TestDiccionarioOrdenado {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestDiccionarioOrdenado() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /* Llena un diccionario ordenado y uno normal con las mismas entradas, y
+     * elimina algunas de ambos. */
+    private DiccionarioOrdenado<Integer, String>
+    llena(Diccionario<Integer, String> dicc) {
+        DiccionarioOrdenado<Integer, String> ordenado =
+            new DiccionarioOrdenado<Integer, String>();
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(total * 10);
+            ordenado.agrega(n, String.valueOf(n));
+            dicc.agrega(n, String.valueOf(n));
+        }
+        for (int i = 0; i < total / 2; i++) {
+            int n = random.nextInt(total * 10);
+            if (!dicc.contiene(n))
+                continue;
+            ordenado.elimina(n);
+            dicc.elimina(n);
+        }
+        return ordenado;
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioOrdenado#agrega}, {@link
+     * DiccionarioOrdenado#get} y {@link DiccionarioOrdenado#elimina}.
+     */
+    @Test public void testAgregaGetElimina() {
+        Diccionario<Integer, String> dicc = new Diccionario<Integer, String>();
+        DiccionarioOrdenado<Integer, String> ordenado = llena(dicc);
+        Assert.assertTrue(ordenado.getElementos() == dicc.getElementos());
+        for (int n = 0; n < total * 10; n++) {
+            Assert.assertTrue(ordenado.contiene(n) == dicc.contiene(n));
+            if (dicc.contiene(n))
+                Assert.assertTrue(ordenado.get(n).equals(dicc.get(n)));
+        }
+        int n = dicc.llaves().getPrimero();
+        ordenado.agrega(n, "otro");
+        Assert.assertTrue(ordenado.get(n).equals("otro"));
+        Assert.assertTrue(ordenado.getElementos() == dicc.getElementos());
+        try {
+            ordenado.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            ordenado.elimina(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            ordenado.agrega(null, "a");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertFalse(ordenado.contiene(null));
+        for (Integer llave : dicc.llaves())
+            ordenado.elimina(llave);
+        Assert.assertTrue(ordenado.esVacio());
+        Assert.assertTrue(ordenado.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioOrdenado#iteradorEntradas} y
+     * {@link DiccionarioOrdenado#llaves}.
+     */
+    @Test public void testOrden() {
+        Diccionario<Integer, String> dicc = new Diccionario<Integer, String>();
+        DiccionarioOrdenado<Integer, String> ordenado = llena(dicc);
+        Lista<Integer> llaves = Lista.mergeSort(dicc.llaves());
+        Assert.assertTrue(ordenado.llaves().equals(llaves));
+        Assert.assertTrue(ordenado.minimo().equals(llaves.getPrimero()));
+        Assert.assertTrue(ordenado.maximo().equals(llaves.getUltimo()));
+        IteradorDiccionario<Integer, String> iterador =
+            ordenado.iteradorEntradas();
+        for (Integer llave : llaves) {
+            Assert.assertTrue(iterador.next().equals(llave));
+            Assert.assertTrue(iterador.getValor().equals(dicc.get(llave)));
+        }
+        Assert.assertFalse(iterador.hasNext());
+        int c = 0;
+        for (String valor : ordenado)
+            Assert.assertTrue(valor.equals(String.valueOf(llaves.get(c++))));
+        ordenado = new DiccionarioOrdenado<Integer, String>();
+        Assert.assertFalse(ordenado.iteradorEntradas().hasNext());
+        try {
+            ordenado.minimo();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioOrdenado#piso}, {@link
+     * DiccionarioOrdenado#techo}, {@link DiccionarioOrdenado#getTecho} y
+     * {@link DiccionarioOrdenado#getMinimo}.
+     */
+    @Test public void testPisoTecho() {
+        Diccionario<Integer, String> dicc = new Diccionario<Integer, String>();
+        DiccionarioOrdenado<Integer, String> ordenado = llena(dicc);
+        Integer piso = null;
+        for (int n = -1; n <= total * 10; n++) {
+            if (dicc.contiene(n))
+                piso = n;
+            Integer p = ordenado.piso(n);
+            Assert.assertTrue(p == null ? piso == null : p.equals(piso));
+        }
+        Integer techo = null;
+        for (int n = total * 10; n >= -1; n--) {
+            if (dicc.contiene(n))
+                techo = n;
+            Integer t = ordenado.techo(n);
+            Assert.assertTrue(t == null ? techo == null : t.equals(techo));
+            String v = ordenado.getTecho(n);
+            Assert.assertTrue(v == null ? techo == null :
+                              v.equals(dicc.get(techo)));
+        }
+        if (!ordenado.esVacio())
+            Assert.assertTrue(ordenado.getMinimo().equals(
+                                  dicc.get(ordenado.minimo())));
+        ordenado = new DiccionarioOrdenado<Integer, String>();
+        Assert.assertTrue(ordenado.getTecho(0) == null);
+        try {
+            ordenado.getMinimo();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DiccionarioOrdenado#iteradorRango}.
+     */
+    @Test public void testIteradorRango() {
+        Diccionario<Integer, String> dicc = new Diccionario<Integer, String>();
+        DiccionarioOrdenado<Integer, String> ordenado = llena(dicc);
+        for (int i = 0; i < 100; i++) {
+            int desde = random.nextInt(total * 10);
+            int hasta = desde + random.nextInt(total);
+            IteradorDiccionario<Integer, String> iterador =
+                ordenado.iteradorRango(desde, hasta);
+            for (int n = desde; n <= hasta; n++) {
+                if (!dicc.contiene(n))
+                    continue;
+                Assert.assertTrue(iterador.hasNext());
+                Assert.assertTrue(iterador.next() == n);
+                Assert.assertTrue(iterador.getValor().equals(dicc.get(n)));
+            }
+            Assert.assertFalse(iterador.hasNext());
+        }
+        Assert.assertFalse(ordenado.iteradorRango(5, 4).hasNext());
+        try {
+            ordenado.iteradorRango(null, 4);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -1,8 +1,10 @@
 package mx.unam.ciencias.edd.test;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
 import mx.unam.ciencias.edd.AlgoritmoPicadillo;
 import mx.unam.ciencias.edd.FabricaPicadillos;
+import mx.unam.ciencias.edd.FamiliaPicadillos;
 import mx.unam.ciencias.edd.Picadillo;
 import org.junit.Assert;
 import org.junit.Test;
@@ -104,4 +106,143 @@ public class TestFabricaPicadillos {
         for (String mensaje : mensajes)
             Assert.assertTrue(bj.picadillo(mensaje) == picadillosXOR[i++]);
     }
+
+    /**
+     * Prueba unitaria para {@link FabricaPicadillos#picadillo} con partes de
+     * arreglos de bytes, {@link ByteBuffer}s y secuencias de caracteres.
+     */
+    @Test public void testPicadilloFuentes() {
+        for (AlgoritmoPicadillo algoritmo : AlgoritmoPicadillo.values()) {
+            Picadillo<String> p = FabricaPicadillos.getInstancia(algoritmo);
+            for (String mensaje : mensajes) {
+                int h = p.picadillo(mensaje);
+                byte[] k = ("xy" + mensaje + "z").getBytes();
+                int n = mensaje.length();
+                Assert.assertTrue(FabricaPicadillos.picadillo(algoritmo, k, 2, n) == h);
+                ByteBuffer b = ByteBuffer.wrap(k, 2, n);
+                Assert.assertTrue(FabricaPicadillos.picadillo(algoritmo, b) == h);
+                Assert.assertTrue(b.position() == 2);
+                ByteBuffer d = ByteBuffer.allocateDirect(n);
+                d.put(mensaje.getBytes()).flip();
+                Assert.assertTrue(FabricaPicadillos.picadillo(algoritmo, d) == h);
+                StringBuilder sb = new StringBuilder(mensaje);
+                Assert.assertTrue(FabricaPicadillos.picadillo(algoritmo, sb) == h);
+            }
+            String noAscii = "añoñería ÿ €";
+            byte[] k = noAscii.getBytes();
+            Assert.assertTrue(p.picadillo(noAscii) ==
+                              FabricaPicadillos.picadillo(algoritmo, k, 0, k.length));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaPicadillos#getInstancia} con los
+     * vectores de referencia de MurmurHash3 y xxHash.
+     */
+    @Test public void testGetInstanciaReferencia() {
+        Picadillo<String> murmur =
+            FabricaPicadillos.getInstancia(AlgoritmoPicadillo.MURMUR3_STRING);
+        Assert.assertTrue(murmur.picadillo("") == 0);
+        Assert.assertTrue(FabricaPicadillos.getInstancia(
+            AlgoritmoPicadillo.MURMUR3_STRING, 1).picadillo("") == 0x514e28b7);
+        Assert.assertTrue(murmur.picadillo(
+            "The quick brown fox jumps over the lazy dog") == 0x2e4ff723);
+        Picadillo<String> xx32 =
+            FabricaPicadillos.getInstancia(AlgoritmoPicadillo.XXHASH32_STRING);
+        Assert.assertTrue(xx32.picadillo("") == 0x02cc5d05);
+        Assert.assertTrue(xx32.picadillo("abc") == 0x32d153ff);
+        Assert.assertTrue(xx32.picadillo(
+            "Nobody inspects the spammish repetition") == 0xe2293b2f);
+        Picadillo<String> xx64 =
+            FabricaPicadillos.getInstancia(AlgoritmoPicadillo.XXHASH64_STRING);
+        Assert.assertTrue(xx64.picadillo("") == dobla(0xef46db3751d8e999L));
+        Assert.assertTrue(xx64.picadillo("abc") == dobla(0x44bc2cf5ad770999L));
+        Assert.assertTrue(xx64.picadillo(
+            "Nobody inspects the spammish repetition") ==
+                          dobla(0xfbcea83c8a378bf1L));
+    }
+
+    private static int dobla(long h) {
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaPicadillos#getInstancia} con
+     * semilla, y {@link FabricaPicadillos#getInstanciaBytes}.
+     */
+    @Test public void testGetInstanciaSemilla() {
+        Random random = new Random();
+        for (AlgoritmoPicadillo algoritmo : AlgoritmoPicadillo.values()) {
+            Picadillo<String> p = FabricaPicadillos.getInstancia(algoritmo);
+            Picadillo<byte[]> b = FabricaPicadillos.getInstanciaBytes(algoritmo);
+            for (String mensaje : mensajes)
+                Assert.assertTrue(p.picadillo(mensaje) ==
+                                  b.picadillo(mensaje.getBytes()));
+            if (!FabricaPicadillos.aceptaSemilla(algoritmo)) {
+                try {
+                    FabricaPicadillos.getInstancia(algoritmo, 1);
+                    Assert.fail();
+                } catch (IllegalArgumentException iae) {}
+                continue;
+            }
+            long semilla = random.nextLong() | 1;
+            Picadillo<String> q =
+                FabricaPicadillos.getInstancia(algoritmo, semilla);
+            Picadillo<byte[]> c =
+                FabricaPicadillos.getInstanciaBytes(algoritmo, semilla);
+            int distintos = 0;
+            for (String mensaje : mensajes) {
+                Assert.assertTrue(q.picadillo(mensaje) ==
+                                  c.picadillo(mensaje.getBytes()));
+                if (q.picadillo(mensaje) != p.picadillo(mensaje))
+                    distintos++;
+            }
+            Assert.assertTrue(distintos > mensajes.length / 2);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaPicadillos#getInstanciaAleatoria} y
+     * {@link FabricaPicadillos#getFamilia}.
+     */
+    @Test public void testGetInstanciaAleatoria() {
+        for (AlgoritmoPicadillo algoritmo : AlgoritmoPicadillo.values()) {
+            if (algoritmo != AlgoritmoPicadillo.SIPHASH_STRING) {
+                try {
+                    FabricaPicadillos.getFamilia(algoritmo);
+                    Assert.fail();
+                } catch (IllegalArgumentException iae) {}
+            }
+            if (!FabricaPicadillos.aceptaSemilla(algoritmo)) {
+                try {
+                    FabricaPicadillos.getInstanciaAleatoria(algoritmo);
+                    Assert.fail();
+                } catch (IllegalArgumentException iae) {}
+                continue;
+            }
+            Picadillo<String> p =
+                FabricaPicadillos.getInstanciaAleatoria(algoritmo);
+            Picadillo<String> q =
+                FabricaPicadillos.getInstanciaAleatoria(algoritmo);
+            int distintos = 0;
+            for (String mensaje : mensajes) {
+                Assert.assertTrue(p.picadillo(mensaje) == p.picadillo(mensaje));
+                if (p.picadillo(mensaje) != q.picadillo(mensaje))
+                    distintos++;
+            }
+            Assert.assertTrue(distintos > mensajes.length / 2);
+        }
+        FamiliaPicadillos<String> familia =
+            FabricaPicadillos.getFamilia(AlgoritmoPicadillo.SIPHASH_STRING);
+        long semilla = FabricaPicadillos.semillaAleatoria();
+        Picadillo<String> r = familia.getPicadillo(semilla);
+        Picadillo<String> s = FabricaPicadillos.getInstancia(
+            AlgoritmoPicadillo.SIPHASH_STRING, semilla);
+        for (String mensaje : mensajes)
+            Assert.assertTrue(r.picadillo(mensaje) == s.picadillo(mensaje));
+        try {
+            FabricaPicadillos.getFamilia(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
 }
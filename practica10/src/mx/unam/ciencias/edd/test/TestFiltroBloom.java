@@ -0,0 +1,101 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoPicadillo;
+import mx.unam.ciencias.edd.FabricaPicadillos;
+import mx.unam.ciencias.edd.FiltroBloom;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroBloom}.
+ */
+public class TestFiltroBloom {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestFiltroBloom() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#FiltroBloom}.
+     */
+    @Test public void testConstructor() {
+        FiltroBloom<String> filtro = new FiltroBloom<String>(total, 0.01);
+        Assert.assertTrue(filtro.getElementos() == 0);
+        Assert.assertTrue(filtro.getBits() % 64 == 0);
+        Assert.assertTrue(filtro.getBits() >= total * 9);
+        Assert.assertTrue(filtro.getPosiciones() == 7);
+        Assert.assertTrue(filtro.probabilidad() == 0.0);
+        try {
+            new FiltroBloom<String>(0, 0.01);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroBloom<String>(total, 1.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#agrega} y {@link
+     * FiltroBloom#contiene}.
+     */
+    @Test public void testAgregaContiene() {
+        double probabilidad = 0.01;
+        FiltroBloom<String> filtro =
+            new FiltroBloom<String>(total, probabilidad,
+                                    FabricaPicadillos.getInstancia(
+                                        AlgoritmoPicadillo.MURMUR3_STRING));
+        int ini = random.nextInt(1000000);
+        for (int i = 0; i < total; i++)
+            filtro.agrega(String.valueOf(ini + i));
+        Assert.assertTrue(filtro.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(filtro.contiene(String.valueOf(ini + i)));
+        int falsos = 0;
+        int pruebas = total * 10;
+        for (int i = 0; i < pruebas; i++)
+            if (filtro.contiene("x" + (ini + i)))
+                falsos++;
+        Assert.assertTrue(falsos < pruebas * probabilidad * 2);
+        Assert.assertTrue(filtro.probabilidad() < probabilidad * 2);
+        Assert.assertFalse(filtro.contiene(null));
+        try {
+            filtro.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#combina} y {@link
+     * FiltroBloom#limpia}.
+     */
+    @Test public void testCombinaLimpia() {
+        FiltroBloom<Integer> f1 = new FiltroBloom<Integer>(total, 0.01);
+        FiltroBloom<Integer> f2 = new FiltroBloom<Integer>(total, 0.01);
+        for (int i = 0; i < total; i++) {
+            f1.agrega(2 * i);
+            f2.agrega(2 * i + 1);
+        }
+        f1.combina(f2);
+        Assert.assertTrue(f1.getElementos() == 2 * total);
+        for (int i = 0; i < 2 * total; i++)
+            Assert.assertTrue(f1.contiene(i));
+        try {
+            f1.combina(new FiltroBloom<Integer>(total * 2, 0.01));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        f1.limpia();
+        Assert.assertTrue(f1.getElementos() == 0);
+        for (int i = 0; i < 2 * total; i++)
+            Assert.assertFalse(f1.contiene(i));
+    }
+}
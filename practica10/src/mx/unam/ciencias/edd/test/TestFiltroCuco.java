@@ -0,0 +1,113 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.FiltroCuco;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroCuco}.
+ */
+public class TestFiltroCuco {
+
+    private Random random;
+    private int total;
+    private FiltroCuco<String> filtro;
+
+    /**
+     * Crea un generador de números aleatorios, un número total de elementos
+     * y un filtro para cada prueba.
+     */
+    public TestFiltroCuco() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+        filtro = new FiltroCuco<String>(total, 0.01);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroCuco#FiltroCuco}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(filtro.getElementos() == 0);
+        Assert.assertTrue(filtro.getBitsHuella() == 10);
+        Assert.assertTrue(filtro.carga() == 0.0);
+        Assert.assertTrue(new FiltroCuco<String>(total, 0.5).getBitsHuella() == 4);
+        try {
+            new FiltroCuco<String>(0, 0.01);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroCuco<String>(total, 0.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroCuco#agrega} y {@link
+     * FiltroCuco#contiene}.
+     */
+    @Test public void testAgregaContiene() {
+        int ini = random.nextInt(1000000);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(filtro.agrega(String.valueOf(ini + i)));
+        Assert.assertTrue(filtro.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(filtro.contiene(String.valueOf(ini + i)));
+        int falsos = 0;
+        int pruebas = total * 10;
+        for (int i = 0; i < pruebas; i++)
+            if (filtro.contiene("x" + (ini + i)))
+                falsos++;
+        Assert.assertTrue(falsos < pruebas * 0.02);
+        Assert.assertFalse(filtro.contiene(null));
+        try {
+            filtro.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroCuco#elimina}.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            filtro.agrega(String.valueOf(i));
+        for (int i = 0; i < total; i += 2)
+            Assert.assertTrue(filtro.elimina(String.valueOf(i)));
+        Assert.assertTrue(filtro.getElementos() == total - (total + 1) / 2);
+        for (int i = 1; i < total; i += 2)
+            Assert.assertTrue(filtro.contiene(String.valueOf(i)));
+        int falsos = 0;
+        for (int i = 0; i < total; i += 2)
+            if (filtro.contiene(String.valueOf(i)))
+                falsos++;
+        Assert.assertTrue(falsos < total * 0.02);
+        filtro.agrega("a");
+        filtro.agrega("a");
+        Assert.assertTrue(filtro.elimina("a"));
+        Assert.assertTrue(filtro.contiene("a"));
+        Assert.assertTrue(filtro.elimina("a"));
+        filtro.limpia();
+        Assert.assertTrue(filtro.getElementos() == 0);
+        Assert.assertFalse(filtro.elimina("1"));
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroCuco#agrega} cuando el filtro se
+     * llena.
+     */
+    @Test public void testLleno() {
+        int agregados = 0;
+        while (filtro.agrega(String.valueOf(agregados)))
+            agregados++;
+        Assert.assertTrue(filtro.getElementos() == agregados);
+        Assert.assertTrue(filtro.carga() > 0.9);
+        for (int i = 0; i < agregados; i++)
+            Assert.assertTrue(filtro.contiene(String.valueOf(i)));
+        for (int i = 0; i < agregados; i += 2)
+            Assert.assertTrue(filtro.elimina(String.valueOf(i)));
+        Assert.assertTrue(filtro.agrega(String.valueOf(agregados)));
+        for (int i = 1; i <= agregados; i += 2)
+            Assert.assertTrue(filtro.contiene(String.valueOf(i)));
+    }
+}
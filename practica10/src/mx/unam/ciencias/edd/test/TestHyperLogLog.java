@@ -0,0 +1,115 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoPicadillo;
+import mx.unam.ciencias.edd.FabricaPicadillos;
+import mx.unam.ciencias.edd.HyperLogLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HyperLogLog}.
+ */
+public class TestHyperLogLog {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestHyperLogLog() {
+        random = new Random();
+        total = 50000 + random.nextInt(50000);
+    }
+
+    /* Nos dice si la estimación está a menos de cinco errores estándar del
+     * valor real. */
+    private static boolean cerca(HyperLogLog<?> hll, long real) {
+        double error = Math.abs(hll.estimacion() - real) / (double)real;
+        return error < 5 * hll.errorEstandar();
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#HyperLogLog}.
+     */
+    @Test public void testConstructor() {
+        HyperLogLog<String> hll = new HyperLogLog<String>(12);
+        Assert.assertTrue(hll.getPrecision() == 12);
+        Assert.assertTrue(hll.estimacion() == 0);
+        Assert.assertTrue(Math.abs(hll.errorEstandar() - 1.04 / 64) < 1e-9);
+        try {
+            new HyperLogLog<String>(HyperLogLog.MIN_PRECISION - 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new HyperLogLog<String>(HyperLogLog.MAX_PRECISION + 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#agrega} y {@link
+     * HyperLogLog#estimacion}.
+     */
+    @Test public void testEstimacion() {
+        HyperLogLog<String> hll =
+            new HyperLogLog<String>(12, FabricaPicadillos.getInstancia(
+                                        AlgoritmoPicadillo.MURMUR3_STRING));
+        for (int i = 0; i < 100; i++)
+            hll.agrega(String.valueOf(i));
+        Assert.assertTrue(cerca(hll, 100));
+        int ini = random.nextInt(1000000);
+        for (int i = 0; i < total; i++) {
+            String s = String.valueOf(ini + i);
+            hll.agrega(s);
+            hll.agrega(s);
+        }
+        Assert.assertTrue(cerca(hll, total + 100));
+        try {
+            hll.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#estimacion} con cientos de
+     * millones de elementos, donde muchos comparten picadillo.
+     */
+    @Test public void testEstimacionGrande() {
+        /* El finalizador de MurmurHash3 de 64 bits, para que los picadillos
+         * choquen como si fueran aleatorios. */
+        HyperLogLog<Integer> hll = new HyperLogLog<Integer>(16, (Integer n) -> {
+                long z = n + 0x9e3779b97f4a7c15L;
+                z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+                z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+                return (int)((z ^ (z >>> 33)) >>> 32);
+            });
+        int n = 200000000 + random.nextInt(total);
+        for (int i = 0; i < n; i++)
+            hll.agrega(i);
+        Assert.assertTrue(cerca(hll, n));
+    }
+
+    /**
+     * Prueba unitaria para {@link HyperLogLog#combina} y {@link
+     * HyperLogLog#limpia}.
+     */
+    @Test public void testCombina() {
+        HyperLogLog<Integer> h1 = new HyperLogLog<Integer>(14);
+        HyperLogLog<Integer> h2 = new HyperLogLog<Integer>(14);
+        for (int i = 0; i < total; i++) {
+            h1.agrega(i);
+            h2.agrega(i + total / 2);
+        }
+        h1.combina(h2);
+        Assert.assertTrue(cerca(h1, total + total / 2));
+        try {
+            h1.combina(new HyperLogLog<Integer>(10));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        h1.limpia();
+        Assert.assertTrue(h1.estimacion() == 0);
+    }
+}
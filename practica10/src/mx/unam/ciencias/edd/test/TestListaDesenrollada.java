@@ -0,0 +1,197 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.IteradorLista;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.ListaDesenrollada;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ListaDesenrollada}.
+ */
+public class TestListaDesenrollada {
+
+    private Random random;
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios y un número total de elementos
+     * para cada prueba.
+     */
+    public TestListaDesenrollada() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+    }
+
+    /* Revisa que la lista desenrollada tenga los elementos de la lista, en el
+     * mismo orden. */
+    private void revisa(ListaDesenrollada<Integer> desenrollada,
+                        Lista<Integer> lista) {
+        Assert.assertTrue(desenrollada.getLongitud() == lista.getLongitud());
+        Assert.assertTrue(desenrollada.esVacio() == lista.esVacio());
+        Iterator<Integer> iterador = desenrollada.iterator();
+        for (Integer n : lista)
+            Assert.assertTrue(iterador.next().equals(n));
+        Assert.assertFalse(iterador.hasNext());
+        Assert.assertTrue(desenrollada.toString().equals(lista.toString()));
+    }
+
+    /**
+     * Prueba unitaria para {@link ListaDesenrollada#agregaFinal}, {@link
+     * ListaDesenrollada#agregaInicio} y los métodos para eliminar.
+     */
+    @Test public void testAgregaElimina() {
+        ListaDesenrollada<Integer> desenrollada =
+            new ListaDesenrollada<Integer>();
+        Lista<Integer> lista = new Lista<Integer>();
+        revisa(desenrollada, lista);
+        try {
+            desenrollada.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            desenrollada.eliminaPrimero();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < total * 4; i++) {
+            int n = random.nextInt(total);
+            switch (random.nextInt(5)) {
+            case 0:
+                desenrollada.agregaInicio(n);
+                lista.agregaInicio(n);
+                break;
+            case 1:
+                desenrollada.elimina(n);
+                lista.elimina(n);
+                break;
+            case 2:
+                if (!lista.esVacio())
+                    Assert.assertTrue(desenrollada.eliminaPrimero().equals(
+                                          lista.eliminaPrimero()));
+                break;
+            case 3:
+                if (!lista.esVacio())
+                    Assert.assertTrue(desenrollada.eliminaUltimo().equals(
+                                          lista.eliminaUltimo()));
+                break;
+            default:
+                desenrollada.agregaFinal(n);
+                lista.agregaFinal(n);
+            }
+        }
+        revisa(desenrollada, lista);
+        if (!lista.esVacio()) {
+            Assert.assertTrue(desenrollada.getPrimero().equals(
+                                  lista.getPrimero()));
+            Assert.assertTrue(desenrollada.getUltimo().equals(
+                                  lista.getUltimo()));
+        }
+        for (int n = 0; n < total; n++) {
+            Assert.assertTrue(desenrollada.contiene(n) == lista.contiene(n));
+            Assert.assertTrue(desenrollada.indiceDe(n) == lista.indiceDe(n));
+        }
+        desenrollada.limpia();
+        Assert.assertTrue(desenrollada.esVacio());
+        Assert.assertTrue(desenrollada.toString().equals("[]"));
+    }
+
+    /**
+     * Prueba unitaria para {@link ListaDesenrollada#get}.
+     */
+    @Test public void testGet() {
+        ListaDesenrollada<Integer> desenrollada =
+            new ListaDesenrollada<Integer>();
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++) {
+            desenrollada.agregaFinal(i);
+            lista.agregaFinal(i);
+            Assert.assertTrue(desenrollada.get(random.nextInt(i + 1)) <= i);
+        }
+        for (int i = 0; i < total; i++) {
+            if (random.nextBoolean()) {
+                desenrollada.agregaInicio(-i);
+                lista.agregaInicio(-i);
+            } else {
+                int n = random.nextInt(total);
+                desenrollada.elimina(n);
+                lista.elimina(n);
+            }
+            int j = random.nextInt(lista.getLongitud());
+            Assert.assertTrue(desenrollada.get(j).equals(lista.get(j)));
+        }
+        for (int i = 0; i < lista.getLongitud(); i++)
+            Assert.assertTrue(desenrollada.get(i).equals(lista.get(i)));
+        try {
+            desenrollada.get(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            desenrollada.get(lista.getLongitud());
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link ListaDesenrollada#iteradorLista}.
+     */
+    @Test public void testIteradorLista() {
+        ListaDesenrollada<Integer> desenrollada =
+            new ListaDesenrollada<Integer>();
+        IteradorLista<Integer> iterador = desenrollada.iteradorLista();
+        Assert.assertFalse(iterador.hasNext());
+        Assert.assertFalse(iterador.hasPrevious());
+        for (int i = 0; i < total; i++)
+            desenrollada.agregaFinal(i);
+        for (int i = 0; i < total / 2; i++)
+            desenrollada.eliminaPrimero();
+        iterador = desenrollada.iteradorLista();
+        for (int i = total / 2; i < total; i++)
+            Assert.assertTrue(iterador.next() == i);
+        Assert.assertFalse(iterador.hasNext());
+        for (int i = total - 1; i >= total / 2; i--)
+            Assert.assertTrue(iterador.previous() == i);
+        Assert.assertFalse(iterador.hasPrevious());
+        try {
+            iterador.previous();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        iterador.end();
+        Assert.assertTrue(iterador.previous() == total - 1);
+        Assert.assertTrue(iterador.next() == total - 1);
+        iterador.start();
+        Assert.assertTrue(iterador.next() == total / 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link ListaDesenrollada#reversa}, {@link
+     * ListaDesenrollada#copia}, {@link ListaDesenrollada#equals} y {@link
+     * ListaDesenrollada#mergeSort}.
+     */
+    @Test public void testReversaCopiaOrdena() {
+        ListaDesenrollada<Integer> desenrollada =
+            new ListaDesenrollada<Integer>();
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++) {
+            int n = random.nextInt(total);
+            desenrollada.agregaFinal(n);
+            lista.agregaFinal(n);
+        }
+        revisa(desenrollada.reversa(), lista.reversa());
+        ListaDesenrollada<Integer> copia = desenrollada.copia();
+        Assert.assertTrue(copia.equals(desenrollada));
+        copia.agregaFinal(0);
+        Assert.assertFalse(copia.equals(desenrollada));
+        Assert.assertFalse(desenrollada.equals(lista));
+        ListaDesenrollada<Integer> ordenada =
+            ListaDesenrollada.mergeSort(desenrollada);
+        revisa(ordenada, Lista.mergeSort(lista));
+        revisa(desenrollada, lista);
+        Assert.assertTrue(ListaDesenrollada.busquedaLineal(ordenada,
+                                                           lista.getPrimero()));
+        Assert.assertFalse(ListaDesenrollada.busquedaLineal(ordenada, -1));
+    }
+}
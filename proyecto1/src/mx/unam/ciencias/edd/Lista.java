@@ -473,30 +473,118 @@ public class Lista<T> implements Coleccion<T> {
     /**
      * Regresa una copia de la lista recibida, pero ordenada. La lista recibida
      * tiene que contener nada más elementos que implementan la interfaz {@link
-     * Comparable}.
+     * Comparable}. La copia se ordena con {@link #ordena}.
      * @param <T> tipo del que puede ser la lista.
      * @param l la lista que se ordenará.
      * @return una copia de la lista recibida, pero ordenada.
      */
     public static <T extends Comparable<T>>
     Lista<T> mergeSort(Lista<T> l) {
-       if(l.longitud < 2) 
-           return l.copia(); 
-       Lista<T> mitadIzq = new Lista<T>(); 
-       Lista<T> mitadDer = new Lista<T>(); 
-       int mitad = l.longitud / 2; 
-       int contador = 0; 
-       for(T e : l) { 
-           if( contador++ < mitad ) 
-               mitadIzq.agregaFinal(e); 
-           else 
-               mitadDer.agregaFinal(e); 
-       } 
-       Lista<T> izquierda = mergeSort( mitadIzq ); 
-       Lista<T> derecha = mergeSort( mitadDer ); 
-       return merge( izquierda, derecha ); 
+        Lista<T> lista = new Lista<T>();
+        for(T e : l)
+            lista.agregaFinal(e);
+        ordena(lista);
+        return lista;
     }
-    
+
+    /**
+     * Ordena la lista recibida en su lugar, con un MergeSort de abajo hacia
+     * arriba que sólo cambia las referencias entre los nodos, así que no crea
+     * nodos nuevos. Cada pasada recorre la lista tomando corridas que ya
+     * están en orden (las corridas estrictamente descendentes se voltean) y
+     * las mezcla de dos en dos; una lista casi ordenada tiene pocas corridas
+     * y se ordena en pocas pasadas. El orden es estable. La lista recibida
+     * tiene que contener nada más elementos que implementan la interfaz {@link
+     * Comparable}.
+     * @param <T> tipo del que puede ser la lista.
+     * @param l la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>> void ordena(Lista<T> l) {
+        if(l.longitud < 2)
+            return;
+        /* El siguiente del centinela es la cabeza de la lista que se arma en
+         * cada pasada, y el siguiente de resto lo que falta por recorrer. */
+        Lista<T>.Nodo centinela = l.new Nodo(null);
+        Lista<T>.Nodo resto = l.new Nodo(null);
+        Lista<T>.Nodo cabeza = l.cabeza;
+        int corridas;
+        do {
+            Lista<T>.Nodo cola = centinela;
+            resto.siguiente = cabeza;
+            corridas = 0;
+            while(resto.siguiente != null) {
+                Lista<T>.Nodo a = corrida(resto);
+                corridas++;
+                if(resto.siguiente == null) {
+                    cola.siguiente = a;
+                    break;
+                }
+                Lista<T>.Nodo b = corrida(resto);
+                corridas++;
+                cola = mezcla(a, b, cola);
+            }
+            cabeza = centinela.siguiente;
+        } while(corridas > 2);
+        /* Arreglamos las referencias hacia atrás y el rabo. */
+        l.cabeza = cabeza;
+        cabeza.anterior = null;
+        Lista<T>.Nodo n = cabeza;
+        while(n.siguiente != null) {
+            n.siguiente.anterior = n;
+            n = n.siguiente;
+        }
+        l.rabo = n;
+    }
+
+    /* Separa la corrida ordenada al inicio de resto.siguiente, volteándola si
+     * es estrictamente descendente, y regresa su cabeza; resto.siguiente se
+     * queda con los nodos que siguen. */
+    private static <T extends Comparable<T>>
+    Lista<T>.Nodo corrida(Lista<T>.Nodo resto) {
+        Lista<T>.Nodo a = resto.siguiente;
+        Lista<T>.Nodo b = a.siguiente;
+        if(b != null && b.elemento.compareTo(a.elemento) < 0) {
+            a.siguiente = null;
+            while(b != null && b.elemento.compareTo(a.elemento) < 0) {
+                Lista<T>.Nodo siguiente = b.siguiente;
+                b.siguiente = a;
+                a = b;
+                b = siguiente;
+            }
+            resto.siguiente = b;
+            return a;
+        }
+        while(b != null && b.elemento.compareTo(a.elemento) >= 0) {
+            a = b;
+            b = b.siguiente;
+        }
+        a.siguiente = null;
+        a = resto.siguiente;
+        resto.siguiente = b;
+        return a;
+    }
+
+    /* Mezcla las corridas a y b después de cola, y regresa el último nodo. Si
+     * dos elementos son iguales, va primero el de a. */
+    private static <T extends Comparable<T>>
+    Lista<T>.Nodo mezcla(Lista<T>.Nodo a, Lista<T>.Nodo b,
+                         Lista<T>.Nodo cola) {
+        while(a != null && b != null) {
+            if(b.elemento.compareTo(a.elemento) < 0) {
+                cola.siguiente = b;
+                b = b.siguiente;
+            } else {
+                cola.siguiente = a;
+                a = a.siguiente;
+            }
+            cola = cola.siguiente;
+        }
+        cola.siguiente = a != null ? a : b;
+        while(cola.siguiente != null)
+            cola = cola.siguiente;
+        return cola;
+    }
+
     // Une de manera ordenada dos listas. 
     // Return: una lista ordenada que contiene los elementos de las 2 listas 
     // que recive como parametros. 
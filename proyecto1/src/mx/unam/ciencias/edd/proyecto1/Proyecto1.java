@@ -15,7 +15,6 @@ public class Proyecto1 {
         
         BufferedReader[] in;
         Lista<StringProyecto1> listaRenglones = new Lista<>();
-        Lista<StringProyecto1> listaOrdenada = new Lista<>();
         String linea = "";
         boolean reversa = false;
         
@@ -39,19 +38,21 @@ public class Proyecto1 {
             agregaLinea(listaRenglones, linea, in[0]);
         }
         
-        // Ordena la lista acorde a la tabla ASCII.
-        listaOrdenada = Lista.mergeSort(listaRenglones);
+        // Ordena la lista acorde a la tabla ASCII, en su lugar.
+        Lista.ordena(listaRenglones);
         
         // Si se ingreso la bandera "-r" reversa sera "true" y se imprimira la lista
-        // de lineas del texto ingresado en reversa, esto es de Z-A.
+        // de lineas del texto ingresado en reversa, esto es de Z-A; se recorre
+        // desde el final para no copiarla.
         if (reversa) {
-            listaOrdenada = listaOrdenada.reversa();
-            for (StringProyecto1 s : listaOrdenada)
-                System.out.println(s);
+            IteradorLista<StringProyecto1> iterador = listaRenglones.iteradorLista();
+            iterador.end();
+            while (iterador.hasPrevious())
+                System.out.println(iterador.previous());
         // Como el usuario no ingreso ninguna bandera se imprimer en la salida la lista ordenada
         // esto es de A-Z.
         } else {
-            for (StringProyecto1 s : listaOrdenada)
+            for (StringProyecto1 s : listaRenglones)
                 System.out.println(s);
         }
     }
@@ -589,6 +589,83 @@ public class TestLista {
         }
     }
 
+    /* Clase para revisar la estabilidad: se compara sólo por la llave. */
+    private static class Par implements Comparable<Par> {
+        public int llave;
+        public int orden;
+
+        public Par(int llave, int orden) {
+            this.llave = llave;
+            this.orden = orden;
+        }
+
+        @Override public int compareTo(Par p) {
+            return llave - p.llave;
+        }
+    }
+
+    /* Revisa que la lista esté ordenada, con sus referencias hacia atrás. */
+    private void revisaOrdenada(Lista<Integer> l, int longitud) {
+        Assert.assertTrue(l.getLongitud() == longitud);
+        int a = l.getPrimero();
+        int c = 0;
+        for (int e : l) {
+            Assert.assertTrue(a <= e);
+            a = e;
+            c++;
+        }
+        Assert.assertTrue(c == longitud);
+        Assert.assertTrue(l.getUltimo() == a);
+        IteradorLista<Integer> iterador = l.iteradorLista();
+        iterador.end();
+        while (iterador.hasPrevious()) {
+            int e = iterador.previous();
+            Assert.assertTrue(e <= a);
+            a = e;
+            c--;
+        }
+        Assert.assertTrue(c == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Lista#ordena}.
+     */
+    @Test public void testOrdena() {
+        Lista.ordena(lista);
+        Assert.assertTrue(lista.esVacio());
+        lista.agregaFinal(1);
+        Lista.ordena(lista);
+        Assert.assertTrue(lista.getPrimero() == 1 && lista.getUltimo() == 1);
+        lista.limpia();
+        int n = total * 100;
+        for (int i = 0; i < n; i++)
+            lista.agregaFinal(random.nextInt(total));
+        Lista<Integer> ordenada = Lista.mergeSort(lista);
+        Lista.ordena(lista);
+        revisaOrdenada(lista, n);
+        Assert.assertTrue(lista.equals(ordenada));
+        lista.limpia();
+        for (int i = 0; i < n; i++)
+            lista.agregaInicio(i / 3);
+        Lista.ordena(lista);
+        revisaOrdenada(lista, n);
+        lista.limpia();
+        for (int i = 0; i < n; i++)
+            lista.agregaFinal(i % 10 == 0 ? random.nextInt(n) : i);
+        Lista.ordena(lista);
+        revisaOrdenada(lista, n);
+        Lista<Par> pares = new Lista<Par>();
+        for (int i = 0; i < n; i++)
+            pares.agregaFinal(new Par(random.nextInt(total), i));
+        Lista.ordena(pares);
+        Par p = pares.getPrimero();
+        for (Par q : pares) {
+            Assert.assertTrue(p.llave < q.llave ||
+                              (p.llave == q.llave && p.orden <= q.orden));
+            p = q;
+        }
+    }
+
     /**
      * Prueba unitaria para {@link Lista#busquedaLineal}.
      */